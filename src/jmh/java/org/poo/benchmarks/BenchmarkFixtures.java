@@ -0,0 +1,171 @@
+package org.poo.benchmarks;
+
+import org.poo.cards.Card;
+import org.poo.cards.Minion;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.gamethread.GameExecutor;
+import org.poo.players.GameBoard;
+import org.poo.utils.InputCopy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the inputs and board positions shared by the benchmarks.
+ */
+public final class BenchmarkFixtures {
+
+    public static final int SMALL_DECK = 10;
+    public static final int LARGE_DECK = 500;
+
+    private static final int DECKS = 2;
+    private static final int HERO_MANA = 2;
+    private static final int FULL_ROW = 5;
+    private static final int MID_ROW = 3;
+    private static final int SPARSE_ROW = 2;
+    private static final int MAX_MANA = 10;
+    private static final int HAND_SIZE = 5;
+    private static final int MINION_HEALTH = 5;
+    private static final int MINION_ATTACK = 2;
+
+    private static final String[] FRONT_ROW = {"The Ripper", "Goliath", "Miraj", "Warden"};
+    private static final String[] FRONT_ROW_NO_TANKS = {"The Ripper", "Miraj"};
+    private static final String[] BACK_ROW = {"Sentinel", "Berserker", "The Cursed One",
+        "Disciple"};
+
+    /**
+     * for coding style
+     */
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Creates an input with two decks per player and one game without actions.
+     *
+     * @param deckSize the number of cards in every deck
+     * @param actions  the actions of the game, may be empty
+     * @return the input copy
+     */
+    public static InputCopy input(final int deckSize, final List<ActionsInput> actions) {
+        Input input = new Input();
+        input.setPlayerOneDecks(decks(deckSize));
+        input.setPlayerTwoDecks(decks(deckSize));
+
+        StartGameInput startGame = new StartGameInput();
+        startGame.setPlayerOneDeckIdx(0);
+        startGame.setPlayerTwoDeckIdx(1);
+        startGame.setShuffleSeed(1);
+        startGame.setPlayerOneHero(hero("King Mudface"));
+        startGame.setPlayerTwoHero(hero("Lord Royce"));
+        startGame.setStartingPlayer(1);
+
+        GameInput game = new GameInput();
+        game.setStartGame(startGame);
+        game.setActions(new ArrayList<>(actions));
+        ArrayList<GameInput> games = new ArrayList<>();
+        games.add(game);
+        input.setGames(games);
+        return new InputCopy(input);
+    }
+
+    /**
+     * Starts the input's first game on the executor and lays out the requested board.
+     * Player one is on turn with full mana and a hand of back row cards, so placeCard 0
+     * goes to row 3.
+     *
+     * "empty" leaves the board bare. Every other layout holds the cards the
+     * CommandBenchmark card actions use: an attacker at 2,0 and 2,1, a target at 1,1
+     * and a hero attacker at 3,0. "sparse" fills two columns of every row, "mid" three,
+     * "full" all five, except for one free slot on row 3 so a card can still be
+     * placed. Without enemy tanks, row 1 holds only The Ripper and
+     * Miraj, so useAttackHero reaches the hero.
+     *
+     * @param executor   the executor holding the input
+     * @param input      the input the executor was built from
+     * @param board      "empty", "sparse", "mid" or "full"
+     * @param enemyTanks whether the enemy front row holds Goliath and Warden
+     */
+    public static void prepare(final GameExecutor executor, final InputCopy input,
+                               final String board, final boolean enemyTanks) {
+        executor.beginGame(input.getGames().get(0).getStartGame());
+        int perRow = rowLength(board);
+        String[] enemyFront = enemyTanks ? FRONT_ROW : FRONT_ROW_NO_TANKS;
+        GameBoard gameBoard = executor.getBoard();
+        for (int col = 0; col < perRow; col++) {
+            gameBoard.addCardToRow(0, card(BACK_ROW[col % BACK_ROW.length]));
+            gameBoard.addCardToRow(1, card(enemyFront[col % enemyFront.length]));
+            gameBoard.addCardToRow(2, card(FRONT_ROW[col % FRONT_ROW.length]));
+            if (col < FULL_ROW - 1) {
+                gameBoard.addCardToRow(3, card(BACK_ROW[col % BACK_ROW.length]));
+            }
+        }
+        executor.getPlayerOne().getHand().clearHand();
+        for (int i = 0; i < HAND_SIZE; i++) {
+            executor.getPlayerOne().getHand().addCard(card(BACK_ROW[i % BACK_ROW.length]));
+        }
+        executor.getPlayerOne().setMana(MAX_MANA);
+        executor.getPlayerTwo().setMana(MAX_MANA);
+    }
+
+    private static int rowLength(final String board) {
+        switch (board) {
+            case "empty":
+                return 0;
+            case "mid":
+                return MID_ROW;
+            case "full":
+                return FULL_ROW;
+            default:
+                return SPARSE_ROW;
+        }
+    }
+
+    private static Card card(final String name) {
+        ArrayList<String> colors = new ArrayList<>(List.of("Red"));
+        if ("The Ripper".equals(name) || "Miraj".equals(name) || "The Cursed One".equals(name)
+                || "Disciple".equals(name)) {
+            return new Minion(2, MINION_HEALTH, MINION_ATTACK, name, name, colors, "minion",
+                    false, false);
+        }
+        return new Card(2, MINION_HEALTH, MINION_ATTACK, name, name, colors, "minion");
+    }
+
+    private static DecksInput decks(final int deckSize) {
+        ArrayList<ArrayList<CardInput>> decks = new ArrayList<>();
+        for (int d = 0; d < DECKS; d++) {
+            ArrayList<CardInput> deck = new ArrayList<>();
+            for (int i = 0; i < deckSize; i++) {
+                String name = i % 2 == 0 ? FRONT_ROW[i / 2 % FRONT_ROW.length]
+                        : BACK_ROW[i / 2 % BACK_ROW.length];
+                CardInput card = new CardInput();
+                card.setMana(1 + i % HAND_SIZE);
+                card.setAttackDamage(MINION_ATTACK);
+                card.setHealth(MINION_HEALTH);
+                card.setDescription(name);
+                card.setColors(new ArrayList<>(List.of("Red", "Blue")));
+                card.setName(name);
+                deck.add(card);
+            }
+            decks.add(deck);
+        }
+        DecksInput decksInput = new DecksInput();
+        decksInput.setNrDecks(DECKS);
+        decksInput.setNrCardsInDeck(deckSize);
+        decksInput.setDecks(decks);
+        return decksInput;
+    }
+
+    private static CardInput hero(final String name) {
+        CardInput hero = new CardInput();
+        hero.setMana(HERO_MANA);
+        hero.setDescription(name);
+        hero.setColors(new ArrayList<>(List.of("Green")));
+        hero.setName(name);
+        return hero;
+    }
+}
@@ -0,0 +1,32 @@
+package org.poo.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark with the GC profiler attached, so the report contains the
+ * allocation rate (gc.alloc.rate.norm) next to the throughput.
+ */
+public final class BenchmarkMain {
+
+    /**
+     * for coding style
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * @param args an optional regular expression selecting the benchmarks to run
+     * @throws RunnerException if JMH fails
+     */
+    public static void main(final String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "org.poo.benchmarks.*")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,444 @@
+package org.poo.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.poo.bots.Moves;
+import org.poo.gamethread.GameExecutor;
+import org.poo.shadow.StateHash;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.InputCopy;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every processAction command on a sparse, mid-game and full board,
+ * with small and large decks. placeCard, endPlayerTurn and the queries other than
+ * getCardAtPosition also run on an empty board; the other card commands need cards to
+ * act on. Run with "-prof gc" (BenchmarkMain does) to get the allocation rate of each
+ * command.
+ *
+ * Every measured action must apply: an output carrying an error stops the run, and a
+ * command that leaves the game unchanged does too, so a layout that makes a command
+ * return early cannot go unnoticed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandBenchmark {
+
+    /**
+     * Games a mutation runs on per invocation. A single command takes well under a
+     * microsecond, too little for the per-invocation setup that restores the board, so
+     * each invocation applies the command to this many games reset beforehand.
+     */
+    static final int BATCH = 4096;
+
+    private static final int ENEMY_FRONT_ROW = 1;
+    private static final int OWN_FRONT_ROW = 2;
+    private static final int OWN_BACK_ROW = 3;
+    private static final ActionsInputCopy PLACE_CARD = Moves.placeCard(0);
+    private static final ActionsInputCopy CARD_USES_ATTACK =
+            Moves.cardUsesAttack(Moves.at(OWN_FRONT_ROW, 1), Moves.at(ENEMY_FRONT_ROW, 1));
+    // The Ripper at 2,0 lowers the attack of the Goliath at 1,1
+    private static final ActionsInputCopy CARD_USES_ABILITY =
+            Moves.cardUsesAbility(Moves.at(OWN_FRONT_ROW, 0), Moves.at(ENEMY_FRONT_ROW, 1));
+    private static final ActionsInputCopy USE_HERO_ABILITY = Moves.useHeroAbility(OWN_BACK_ROW);
+    private static final ActionsInputCopy USE_ATTACK_HERO =
+            Moves.useAttackHero(Moves.at(OWN_BACK_ROW, 0));
+    private static final ActionsInputCopy END_PLAYER_TURN = Moves.endPlayerTurn();
+    private static final ActionsInputCopy GET_PLAYER_DECK =
+            Moves.query("getPlayerDeck", 1, 0, 0);
+    private static final ActionsInputCopy GET_PLAYER_HERO =
+            Moves.query("getPlayerHero", 1, 0, 0);
+    private static final ActionsInputCopy GET_PLAYER_TURN =
+            Moves.query("getPlayerTurn", 0, 0, 0);
+    private static final ActionsInputCopy GET_PLAYER_MANA =
+            Moves.query("getPlayerMana", 1, 0, 0);
+    private static final ActionsInputCopy GET_CARDS_IN_HAND =
+            Moves.query("getCardsInHand", 1, 0, 0);
+    private static final ActionsInputCopy GET_CARDS_ON_TABLE =
+            Moves.query("getCardsOnTable", 0, 0, 0);
+    private static final ActionsInputCopy GET_CARD_AT_POSITION =
+            Moves.query("getCardAtPosition", 0, OWN_FRONT_ROW, 0);
+    private static final ActionsInputCopy GET_FROZEN_CARDS_ON_TABLE =
+            Moves.query("getFrozenCardsOnTable", 0, 0, 0);
+    private static final ActionsInputCopy GET_PLAYER_ONE_WINS =
+            Moves.query("getPlayerOneWins", 0, 0, 0);
+    private static final ActionsInputCopy GET_PLAYER_TWO_WINS =
+            Moves.query("getPlayerTwoWins", 0, 0, 0);
+    private static final ActionsInputCopy GET_TOTAL_GAMES_PLAYED =
+            Moves.query("getTotalGamesPlayed", 0, 0, 0);
+
+    /**
+     * A started game in one of the board layouts. Queries leave the game untouched, so
+     * the layout is built once per trial.
+     */
+    @State(Scope.Thread)
+    public abstract static class AbstractQueryState {
+
+        @Param({"small", "large"})
+        private String deck;
+
+        private GameExecutor executor;
+
+        /**
+         * Builds the executor and lays out the board.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            int deckSize = "large".equals(deck) ? BenchmarkFixtures.LARGE_DECK
+                    : BenchmarkFixtures.SMALL_DECK;
+            InputCopy input = BenchmarkFixtures.input(deckSize, new ArrayList<>());
+            executor = new GameExecutor(input, new ObjectMapper().createArrayNode());
+            BenchmarkFixtures.prepare(executor, input, board(), true);
+        }
+
+        /**
+         * Names the board layout.
+         *
+         * @return the layout passed to BenchmarkFixtures.prepare
+         */
+        abstract String board();
+
+        /**
+         * Runs one query.
+         *
+         * @param action the query
+         * @return the output node, returned so JMH consumes it
+         * @throws IllegalStateException if the query failed
+         */
+        ObjectNode run(final ActionsInputCopy action) {
+            return checked(action, executor.executeAction(action));
+        }
+    }
+
+    /**
+     * AbstractQueryState on every layout, the empty board included.
+     */
+    @State(Scope.Thread)
+    public static class QueryState extends AbstractQueryState {
+
+        @Param({"empty", "sparse", "mid", "full"})
+        private String board;
+
+        @Override
+        String board() {
+            return board;
+        }
+    }
+
+    /**
+     * AbstractQueryState on the layouts that hold a card, for getCardAtPosition.
+     */
+    @State(Scope.Thread)
+    public static class CardQueryState extends AbstractQueryState {
+
+        @Param({"sparse", "mid", "full"})
+        private String board;
+
+        @Override
+        String board() {
+            return board;
+        }
+    }
+
+    /**
+     * BATCH games in one of the board layouts, all restored before every invocation
+     * because the command under test changes the game.
+     */
+    @State(Scope.Thread)
+    public abstract static class AbstractMutationState {
+
+        @Param({"small", "large"})
+        private String deck;
+
+        private InputCopy input;
+        private final GameExecutor[] executors = new GameExecutor[BATCH];
+
+        /**
+         * Builds the input and the games once.
+         */
+        @Setup(Level.Trial)
+        public void setUpTrial() {
+            int deckSize = "large".equals(deck) ? BenchmarkFixtures.LARGE_DECK
+                    : BenchmarkFixtures.SMALL_DECK;
+            input = BenchmarkFixtures.input(deckSize, new ArrayList<>());
+            for (int i = 0; i < BATCH; i++) {
+                executors[i] = new GameExecutor(input, new ObjectMapper().createArrayNode());
+                BenchmarkFixtures.prepare(executors[i], input, board(), enemyTanks());
+            }
+        }
+
+        /**
+         * Restores the layout of every game before each invocation.
+         */
+        @Setup(Level.Invocation)
+        public void setUpInvocation() {
+            for (GameExecutor executor : executors) {
+                executor.endGame();
+                BenchmarkFixtures.prepare(executor, input, board(), enemyTanks());
+            }
+        }
+
+        /**
+         * Names the board layout.
+         *
+         * @return the layout passed to BenchmarkFixtures.prepare
+         */
+        abstract String board();
+
+        /**
+         * Tells whether the enemy front row holds tanks.
+         *
+         * @return true, except for HeroAttackState
+         */
+        boolean enemyTanks() {
+            return true;
+        }
+
+        /**
+         * Runs one action on every game of the batch.
+         *
+         * @param action    the action
+         * @param blackhole consumes the output nodes
+         * @throws IllegalStateException if the action failed or did nothing
+         */
+        void run(final ActionsInputCopy action, final Blackhole blackhole) {
+            long before = StateHash.of(executors[0]);
+            for (GameExecutor executor : executors) {
+                blackhole.consume(checked(action, executor.executeAction(action)));
+            }
+            if (StateHash.of(executors[0]) == before) {
+                throw new IllegalStateException(action.getCommand()
+                        + " left the game unchanged");
+            }
+        }
+    }
+
+    /**
+     * AbstractMutationState on the layouts that hold the cards the card commands act on.
+     */
+    @State(Scope.Thread)
+    public static class MutationState extends AbstractMutationState {
+
+        @Param({"sparse", "mid", "full"})
+        private String board;
+
+        @Override
+        String board() {
+            return board;
+        }
+    }
+
+    /**
+     * AbstractMutationState on every layout, the empty board included, for placeCard
+     * and endPlayerTurn.
+     */
+    @State(Scope.Thread)
+    public static class AnyBoardState extends AbstractMutationState {
+
+        @Param({"empty", "sparse", "mid", "full"})
+        private String board;
+
+        @Override
+        String board() {
+            return board;
+        }
+    }
+
+    /**
+     * MutationState without tanks on the enemy front row, for useAttackHero.
+     */
+    @State(Scope.Thread)
+    public static class HeroAttackState extends MutationState {
+
+        @Override
+        boolean enemyTanks() {
+            return false;
+        }
+    }
+
+    private static ObjectNode checked(final ActionsInputCopy action, final ObjectNode output) {
+        String error = GameExecutor.errorOf(output);
+        if (error != null) {
+            throw new IllegalStateException(action.getCommand() + " failed: " + error);
+        }
+        return output;
+    }
+
+    /**
+     * @param state     the games
+     * @param blackhole consumes the output nodes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void placeCard(final AnyBoardState state, final Blackhole blackhole) {
+        state.run(PLACE_CARD, blackhole);
+    }
+
+    /**
+     * @param state     the games
+     * @param blackhole consumes the output nodes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cardUsesAttack(final MutationState state, final Blackhole blackhole) {
+        state.run(CARD_USES_ATTACK, blackhole);
+    }
+
+    /**
+     * @param state     the games
+     * @param blackhole consumes the output nodes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void cardUsesAbility(final MutationState state, final Blackhole blackhole) {
+        state.run(CARD_USES_ABILITY, blackhole);
+    }
+
+    /**
+     * @param state     the games
+     * @param blackhole consumes the output nodes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void useHeroAbility(final MutationState state, final Blackhole blackhole) {
+        state.run(USE_HERO_ABILITY, blackhole);
+    }
+
+    /**
+     * @param state     the games
+     * @param blackhole consumes the output nodes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void useAttackHero(final HeroAttackState state, final Blackhole blackhole) {
+        state.run(USE_ATTACK_HERO, blackhole);
+    }
+
+    /**
+     * @param state     the games
+     * @param blackhole consumes the output nodes
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void endPlayerTurn(final AnyBoardState state, final Blackhole blackhole) {
+        state.run(END_PLAYER_TURN, blackhole);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getPlayerDeck(final QueryState state) {
+        return state.run(GET_PLAYER_DECK);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getPlayerHero(final QueryState state) {
+        return state.run(GET_PLAYER_HERO);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getPlayerTurn(final QueryState state) {
+        return state.run(GET_PLAYER_TURN);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getPlayerMana(final QueryState state) {
+        return state.run(GET_PLAYER_MANA);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getCardsInHand(final QueryState state) {
+        return state.run(GET_CARDS_IN_HAND);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getCardsOnTable(final QueryState state) {
+        return state.run(GET_CARDS_ON_TABLE);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getCardAtPosition(final CardQueryState state) {
+        return state.run(GET_CARD_AT_POSITION);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getFrozenCardsOnTable(final QueryState state) {
+        return state.run(GET_FROZEN_CARDS_ON_TABLE);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getPlayerOneWins(final QueryState state) {
+        return state.run(GET_PLAYER_ONE_WINS);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getPlayerTwoWins(final QueryState state) {
+        return state.run(GET_PLAYER_TWO_WINS);
+    }
+
+    /**
+     * @param state the game state
+     * @return the output node
+     */
+    @Benchmark
+    public ObjectNode getTotalGamesPlayed(final QueryState state) {
+        return state.run(GET_TOTAL_GAMES_PLAYED);
+    }
+}
@@ -0,0 +1,61 @@
+package org.poo.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.InputCopy;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of setting up a game in executeGame: deck copies, shuffles, card creation and
+ * the opening draw, for a game without actions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameSetupBenchmark {
+
+    @Param({"small", "large"})
+    private String deck;
+
+    private InputCopy input;
+    private ObjectMapper objectMapper;
+
+    /**
+     * Builds the input once per trial.
+     */
+    @Setup
+    public void setUp() {
+        int deckSize = "large".equals(deck) ? BenchmarkFixtures.LARGE_DECK
+                : BenchmarkFixtures.SMALL_DECK;
+        input = BenchmarkFixtures.input(deckSize, new ArrayList<>());
+        objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * @return the executor, returned so JMH consumes it
+     */
+    @Benchmark
+    public GameExecutor executeGame() {
+        ArrayNode output = objectMapper.createArrayNode();
+        GameExecutor executor = new GameExecutor(input, output);
+        executor.executeGame();
+        return executor;
+    }
+}
@@ -0,0 +1,159 @@
+package org.poo.arena;
+
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.cards.PackedCard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the fixed part of cards (kind, name, description, type, mana and colors) so
+ * a card can be held as a PackedCard: a template id next to the fields that change
+ * during a game. One catalog is shared by every match of an arena; it only ever grows,
+ * and a few hundred distinct cards are typical.
+ */
+public final class CardCatalog {
+
+    /** The largest number of templates a catalog can hold. */
+    public static final int MAX_TEMPLATES = PackedCard.MAX_ID + 1;
+
+    private static final int KIND_CARD = 0;
+    private static final int KIND_MINION = 1;
+    private static final int KIND_HERO = 2;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<Card> templates = new ArrayList<>();
+
+    /**
+     * Gets the template id of a card, adding its template on first sight.
+     *
+     * @param card the card
+     * @return the template id
+     * @throws IllegalStateException if the catalog is full
+     */
+    public int idOf(final Card card) {
+        String key = kindOf(card) + "\u0000" + card.getName() + "\u0000"
+                + card.getDescription() + "\u0000" + card.getType() + "\u0000"
+                + card.getMana() + "\u0000" + card.getColors();
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        synchronized (templates) {
+            id = ids.get(key);
+            if (id == null) {
+                if (templates.size() == MAX_TEMPLATES) {
+                    throw new IllegalStateException("Card catalog is full");
+                }
+                id = templates.size();
+                templates.add(newCard(kindOf(card), card.getMana(), 0, 0,
+                        card.getDescription(), card.getName(), copyColors(card),
+                        card.getType()));
+                ids.put(key, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Packs a card, interning its template.
+     *
+     * @param card the card
+     * @return the packed card, flags included
+     */
+    public long pack(final Card card) {
+        long packed = PackedCard.pack(idOf(card), card.getMana(), card.getHealth(),
+                card.getAttackDamage());
+        packed = PackedCard.withFrozen(packed, card.getIsFrozen(card));
+        packed = PackedCard.withAttacked(packed, card.getHasAttacked(card));
+        return PackedCard.withUsedAbility(packed, card.getHasUsedAbility(card));
+    }
+
+    /**
+     * Creates the card a packed card stands for.
+     *
+     * @param packed the packed card
+     * @return a new card, of the class GameExecutor would have used
+     */
+    public Card unpack(final long packed) {
+        Card card = newCard(PackedCard.id(packed), PackedCard.health(packed),
+                PackedCard.attackDamage(packed));
+        card.setIsFrozen(PackedCard.isFrozen(packed));
+        card.setHasAttacked(card, PackedCard.hasAttacked(packed));
+        card.setHasUsedAbility(PackedCard.hasUsedAbility(packed));
+        return card;
+    }
+
+    /**
+     * Gets the name of a template, without creating a card.
+     *
+     * @param id the template id
+     * @return the card name
+     */
+    public String nameOf(final int id) {
+        return template(id).getName();
+    }
+
+    /**
+     * Creates a card from a template, of the same class GameExecutor would have used.
+     *
+     * @param id           the template id
+     * @param health       the health of the card
+     * @param attackDamage the attack damage of the card
+     * @return the new card, with its flags cleared
+     */
+    public Card newCard(final int id, final int health, final int attackDamage) {
+        Card template = template(id);
+        return newCard(kindOf(template), template.getMana(), health, attackDamage,
+                template.getDescription(), template.getName(), copyColors(template),
+                template.getType());
+    }
+
+    /**
+     * Gets the number of templates.
+     *
+     * @return the template count
+     */
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    private Card template(final int id) {
+        synchronized (templates) {
+            return templates.get(id);
+        }
+    }
+
+    private static ArrayList<String> copyColors(final Card card) {
+        return card.getColors() == null ? new ArrayList<>() : new ArrayList<>(card.getColors());
+    }
+
+    private static int kindOf(final Card card) {
+        if (card instanceof Hero) {
+            return KIND_HERO;
+        }
+        return card instanceof Minion ? KIND_MINION : KIND_CARD;
+    }
+
+    private static Card newCard(final int kind, final int mana, final int health,
+                                final int attackDamage, final String description,
+                                final String name, final ArrayList<String> colors,
+                                final String type) {
+        switch (kind) {
+            case KIND_HERO:
+                return new Hero(mana, health, attackDamage, description, name, colors, type,
+                        name, "Ability");
+            case KIND_MINION:
+                return new Minion(mana, health, attackDamage, description, name, colors, type,
+                        false, false);
+            default:
+                return new Card(mana, health, attackDamage, description, name, colors, type);
+        }
+    }
+}
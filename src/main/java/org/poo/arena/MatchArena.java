@@ -0,0 +1,263 @@
+package org.poo.arena;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.GameInputCopy;
+import org.poo.utils.InputCopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Off-heap store of match states. Every match takes one fixed-size slot inside large
+ * direct ByteBuffers, so a million parked matches cost a few hundred megabytes outside
+ * the heap and nothing for the garbage collector to trace.
+ *
+ * The slot size follows from cardsPerPlayer, the most cards a player holds in hand and
+ * deck together (the deck size of the input). Buffers are allocated a chunk at a time
+ * as slots are first used; freed slots go on a free list and are handed out again
+ * before the arena grows. Allocation is thread-safe; a slot itself must only be used
+ * by one thread at a time, normally the one that owns the match.
+ *
+ * A slot is read and written through a MatchView, see MatchView for the layout.
+ * Direct buffers count against -XX:MaxDirectMemorySize, which defaults to the heap
+ * size; raise it to the arena size rather than growing the heap.
+ */
+public final class MatchArena {
+
+    /** Default number of slots in one direct buffer. */
+    public static final int DEFAULT_SLOTS_PER_CHUNK = 1 << 16;
+
+    private static final int INITIAL_FREE_CAPACITY = 64;
+    private static final int DEFAULT_MATCHES = 1_000_000;
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final int SAMPLE_LOADS = 1_000;
+
+    private final CardCatalog catalog;
+    private final int cardsPerPlayer;
+    private final int slotSize;
+    private final int slotsPerChunk;
+    private final int maxSlots;
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private final BitSet live = new BitSet();
+    private int[] freeSlots = new int[INITIAL_FREE_CAPACITY];
+    private int freeCount;
+    private int highWater;
+    private int liveSlots;
+
+    /**
+     * Creates an empty arena; no memory is reserved until the first allocation.
+     *
+     * @param cardsPerPlayer the hand and deck capacity of each player
+     * @param maxSlots       the largest number of matches held at once
+     * @param slotsPerChunk  the number of slots in each direct buffer
+     */
+    public MatchArena(final int cardsPerPlayer, final int maxSlots, final int slotsPerChunk) {
+        this.catalog = new CardCatalog();
+        this.cardsPerPlayer = cardsPerPlayer;
+        this.slotSize = MatchView.slotSize(cardsPerPlayer);
+        if ((long) slotSize * slotsPerChunk > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A chunk of " + slotsPerChunk + " slots of "
+                    + slotSize + " bytes does not fit in one buffer");
+        }
+        this.slotsPerChunk = slotsPerChunk;
+        this.maxSlots = maxSlots;
+    }
+
+    /**
+     * Creates an arena with the default chunk size.
+     *
+     * @param cardsPerPlayer the hand and deck capacity of each player
+     * @param maxSlots       the largest number of matches held at once
+     */
+    public MatchArena(final int cardsPerPlayer, final int maxSlots) {
+        this(cardsPerPlayer, maxSlots, DEFAULT_SLOTS_PER_CHUNK);
+    }
+
+    /**
+     * Takes a free slot; its content is undefined until a state is stored in it.
+     *
+     * @return the slot
+     * @throws IllegalStateException if every slot is in use
+     */
+    public synchronized int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == maxSlots) {
+                throw new IllegalStateException("Match arena is full (" + maxSlots
+                        + " slots)");
+            }
+            slot = highWater++;
+            if (slot / slotsPerChunk == chunks.length) {
+                int slots = Math.min(slotsPerChunk, maxSlots - slot);
+                ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[chunks.length] = ByteBuffer.allocateDirect(slots * slotSize)
+                        .order(ByteOrder.nativeOrder());
+                chunks = grown;
+            }
+        }
+        live.set(slot);
+        liveSlots++;
+        return slot;
+    }
+
+    /**
+     * Returns a slot to the free list.
+     *
+     * @param slot the slot, which must not be used afterwards
+     */
+    public synchronized void free(final int slot) {
+        if (slot < 0 || !live.get(slot)) {
+            throw new IllegalArgumentException("Not an allocated slot: " + slot);
+        }
+        live.clear(slot);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        liveSlots--;
+    }
+
+    /**
+     * Creates a view positioned on a slot.
+     *
+     * @param slot the slot
+     * @return the view
+     */
+    public MatchView view(final int slot) {
+        MatchView view = new MatchView(this);
+        view.moveTo(slot);
+        return view;
+    }
+
+    /**
+     * Gets the buffer holding a slot, without locking. The buffer is shared; only
+     * absolute accesses may be used on it.
+     *
+     * @param slot the slot
+     * @return the buffer
+     */
+    ByteBuffer chunkOf(final int slot) {
+        ByteBuffer[] current = chunks;
+        if (slot < 0 || slot / slotsPerChunk >= current.length) {
+            throw new IllegalArgumentException("Not an allocated slot: " + slot);
+        }
+        return current[slot / slotsPerChunk];
+    }
+
+    /**
+     * Gets the offset of a slot inside its buffer.
+     *
+     * @param slot the slot
+     * @return the byte offset
+     */
+    int offsetOf(final int slot) {
+        return (slot % slotsPerChunk) * slotSize;
+    }
+
+    /**
+     * Gets the catalog of card templates shared by the slots.
+     *
+     * @return the catalog
+     */
+    public CardCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * Gets the hand and deck capacity of each player.
+     *
+     * @return the number of cards
+     */
+    public int getCardsPerPlayer() {
+        return cardsPerPlayer;
+    }
+
+    /**
+     * Gets the size of one slot.
+     *
+     * @return the size in bytes
+     */
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    /**
+     * Gets the number of slots in use.
+     *
+     * @return the live slot count
+     */
+    public synchronized int getLiveSlots() {
+        return liveSlots;
+    }
+
+    /**
+     * Gets the off-heap memory reserved so far.
+     *
+     * @return the reserved bytes
+     */
+    public synchronized long getReservedBytes() {
+        long bytes = 0;
+        for (ByteBuffer chunk : chunks) {
+            bytes += chunk.capacity();
+        }
+        return bytes;
+    }
+
+    /**
+     * Parks copies of the first game of an input, stopped half way, and reports the
+     * memory and the time taken.
+     * Usage: input.json [matches]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: MatchArena <input.json> [matches]");
+            return;
+        }
+        int matches = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MATCHES;
+        InputCopy inputData = new InputCopy(new ObjectMapper().readValue(new File(args[0]),
+                Input.class));
+        GameInputCopy game = inputData.getGames().get(0);
+        GameExecutor engine = new GameExecutor(inputData, new ObjectMapper().createArrayNode());
+        engine.beginGame(game.getStartGame());
+        for (ActionsInputCopy action : game.getActions().subList(0,
+                game.getActions().size() / 2)) {
+            engine.executeAction(action);
+        }
+
+        MatchArena arena = new MatchArena(Math.max(
+                inputData.getPlayerOneDecks().getNrCardsInDeck(),
+                inputData.getPlayerTwoDecks().getNrCardsInDeck()), matches);
+        MatchView view = arena.view(arena.allocate());
+        long start = System.nanoTime();
+        view.store(engine);
+        for (int i = 1; i < matches; i++) {
+            view.moveTo(arena.allocate()).store(engine);
+        }
+        long stored = System.nanoTime();
+        int loads = 0;
+        for (int slot = 0; slot < matches; slot += Math.max(1, matches / SAMPLE_LOADS)) {
+            view.moveTo(slot).load(inputData);
+            loads++;
+        }
+        long loaded = System.nanoTime();
+
+        System.out.printf("%d matches, %d bytes per slot, %.1f MB off-heap%n", matches,
+                arena.getSlotSize(), arena.getReservedBytes() / BYTES_PER_MEGABYTE);
+        System.out.printf("store %.2f us, load %.2f us per match%n",
+                (stored - start) / NANOS_PER_MICRO / matches,
+                (loaded - stored) / NANOS_PER_MICRO / loads);
+    }
+}
@@ -0,0 +1,424 @@
+package org.poo.arena;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.PackedCard;
+import org.poo.gamethread.GameExecutor;
+import org.poo.players.Deck;
+import org.poo.players.Hand;
+import org.poo.players.Player;
+import org.poo.utils.InputCopy;
+import org.poo.utils.StartGameInputCopy;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Flyweight over one slot of a MatchArena. A view holds no match state of its own;
+ * moveTo points it at another slot, so one view per thread can walk any number of
+ * matches without allocating.
+ *
+ * The rules engine works on Card and Player objects, so a match is played by loading
+ * its slot into a GameExecutor and storing it back when the engine is done with it.
+ * The accessors read and change a parked match in place, which is enough to answer
+ * queries (turn, mana, hero health, card stats) without inflating it.
+ *
+ * Slot layout, all fields in native byte order:
+ * a header (round, start game, game counters, ended flag), then one block per player
+ * (mana, max mana, hero health, games won and played, turn, deck and hand counts, the
+ * hero card, and cardsPerPlayer cards shared by the deck, stored from the front, and
+ * the hand, stored from the back), then the four board rows (a count and five cards).
+ * A card is one PackedCard long.
+ *
+ * Card accessors take a card address from heroCard, deckCard, handCard or boardCard;
+ * an address is only valid until the view moves.
+ */
+public final class MatchView {
+
+    /** Number of rows on the board. */
+    public static final int BOARD_ROWS = 4;
+    /** Number of cards a board row holds. */
+    public static final int ROW_CAPACITY = 5;
+
+    private static final int CARD_SIZE = Long.BYTES;
+
+    private static final int H_ROUND = 0;
+    private static final int H_PLAYER_ONE_DECK = 4;
+    private static final int H_PLAYER_TWO_DECK = 8;
+    private static final int H_SHUFFLE_SEED = 12;
+    private static final int H_STARTING_PLAYER = 16;
+    private static final int H_GAMES_PLAYED = 20;
+    private static final int H_WON_ONE = 24;
+    private static final int H_WON_TWO = 28;
+    private static final int H_ENDED = 32;
+    private static final int HEADER_SIZE = 36;
+
+    private static final int P_MANA = 0;
+    private static final int P_MAX_MANA = 4;
+    private static final int P_HEALTH = 8;
+    private static final int P_GAMES_WON = 12;
+    private static final int P_GAMES_PLAYED = 16;
+    private static final int P_TURN = 20;
+    private static final int P_DECK_COUNT = 22;
+    private static final int P_HAND_COUNT = 24;
+    private static final int P_HERO = 28;
+    private static final int P_CARDS = P_HERO + CARD_SIZE;
+
+    private static final int ROW_HEADER = CARD_SIZE;
+    private static final int ROW_SIZE = ROW_HEADER + ROW_CAPACITY * CARD_SIZE;
+
+    private final MatchArena arena;
+    private final CardCatalog catalog;
+    private final int cardsPerPlayer;
+    private final int playerSize;
+    private final int boardOffset;
+    private ByteBuffer buffer;
+    private int base;
+    private int slot = -1;
+
+    MatchView(final MatchArena arena) {
+        this.arena = arena;
+        this.catalog = arena.getCatalog();
+        this.cardsPerPlayer = arena.getCardsPerPlayer();
+        this.playerSize = P_CARDS + cardsPerPlayer * CARD_SIZE;
+        this.boardOffset = HEADER_SIZE + 2 * playerSize;
+    }
+
+    /**
+     * Computes the size of a slot.
+     *
+     * @param cardsPerPlayer the hand and deck capacity of each player
+     * @return the slot size in bytes
+     */
+    static int slotSize(final int cardsPerPlayer) {
+        return HEADER_SIZE + 2 * (P_CARDS + cardsPerPlayer * CARD_SIZE)
+                + BOARD_ROWS * ROW_SIZE;
+    }
+
+    /**
+     * Points the view at another slot.
+     *
+     * @param target the slot
+     * @return this view
+     */
+    public MatchView moveTo(final int target) {
+        buffer = arena.chunkOf(target);
+        base = arena.offsetOf(target);
+        slot = target;
+        return this;
+    }
+
+    /**
+     * Gets the slot the view is on.
+     *
+     * @return the slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Writes the state of a game into the slot, replacing what it held.
+     *
+     * @param game the engine
+     * @throws IllegalStateException if a player holds more than cardsPerPlayer cards, or
+     *                               a value does not fit its field
+     */
+    public void store(final GameExecutor game) {
+        StartGameInputCopy startGame = game.getCurrentStartGame();
+        buffer.putInt(base + H_ROUND, game.getCurrentRound());
+        buffer.putInt(base + H_PLAYER_ONE_DECK, startGame.getPlayerOneDeckIdx());
+        buffer.putInt(base + H_PLAYER_TWO_DECK, startGame.getPlayerTwoDeckIdx());
+        buffer.putInt(base + H_SHUFFLE_SEED, startGame.getShuffleSeed());
+        buffer.putInt(base + H_STARTING_PLAYER, startGame.getStartingPlayer());
+        buffer.putInt(base + H_GAMES_PLAYED, game.getGamesPlayed());
+        buffer.putInt(base + H_WON_ONE, game.getGamesWonPlayerOne());
+        buffer.putInt(base + H_WON_TWO, game.getGamesWonPlayerTwo());
+        buffer.putInt(base + H_ENDED, game.isGameEnded() ? 1 : 0);
+
+        storePlayer(1, game.getPlayerOne());
+        storePlayer(2, game.getPlayerTwo());
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            List<Card> cards = game.getBoard().getRow(row);
+            int rowOffset = base + boardOffset + row * ROW_SIZE;
+            buffer.putShort(rowOffset, (short) cards.size());
+            for (int col = 0; col < cards.size(); col++) {
+                storeCard(rowOffset + ROW_HEADER + col * CARD_SIZE, cards.get(col));
+            }
+        }
+    }
+
+    private void storePlayer(final int player, final Player source) {
+        int offset = playerOffset(player);
+        List<Card> deck = source.getDeck().getCards();
+        List<Card> hand = source.getHand().getCards();
+        if (deck.size() + hand.size() > cardsPerPlayer) {
+            throw new IllegalStateException("Player " + player + " holds "
+                    + (deck.size() + hand.size()) + " cards, the arena fits "
+                    + cardsPerPlayer);
+        }
+        buffer.putInt(offset + P_MANA, source.getMana());
+        buffer.putInt(offset + P_MAX_MANA, source.getMaxMana());
+        buffer.putInt(offset + P_HEALTH, source.getHealth());
+        buffer.putInt(offset + P_GAMES_WON, source.getGamesWon());
+        buffer.putInt(offset + P_GAMES_PLAYED, source.getGamesPlayed());
+        buffer.putShort(offset + P_TURN, (short) (source.isTurn() ? 1 : 0));
+        buffer.putShort(offset + P_DECK_COUNT, (short) deck.size());
+        buffer.putShort(offset + P_HAND_COUNT, (short) hand.size());
+        storeCard(offset + P_HERO, source.getHero());
+        for (int i = 0; i < deck.size(); i++) {
+            storeCard(deckCard(player, i), deck.get(i));
+        }
+        for (int i = 0; i < hand.size(); i++) {
+            storeCard(handCard(player, i), hand.get(i));
+        }
+    }
+
+    private void storeCard(final int address, final Card card) {
+        try {
+            buffer.putLong(address, catalog.pack(card));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot store " + card.getName(), e);
+        }
+    }
+
+    /**
+     * Builds a fresh engine from the slot, ready to take the next action. The slot is
+     * left as it is; store the engine back once it has played.
+     *
+     * @param inputData the decks and games of the match, which the engine deals the
+     *                  next game from after endGame
+     * @return the engine
+     */
+    public GameExecutor load(final InputCopy inputData) {
+        Player[] players = new Player[2];
+        for (int player = 1; player <= 2; player++) {
+            int offset = playerOffset(player);
+            Hero hero = (Hero) loadCard(offset + P_HERO);
+            Hand hand = new Hand();
+            for (int i = 0; i < getHandSize(player); i++) {
+                hand.addCard(loadCard(handCard(player, i)));
+            }
+            List<Card> deckCards = new ArrayList<>(getDeckSize(player));
+            for (int i = 0; i < getDeckSize(player); i++) {
+                deckCards.add(loadCard(deckCard(player, i)));
+            }
+            Player loaded = new Player(hand, new Deck(deckCards), hero, isTurn(player),
+                    buffer.getInt(offset + P_GAMES_WON), buffer.getInt(offset + P_GAMES_PLAYED),
+                    player);
+            loaded.setMana(getMana(player));
+            loaded.setMaxMana(buffer.getInt(offset + P_MAX_MANA));
+            loaded.setHealth(getHeroHealth(player));
+            players[player - 1] = loaded;
+        }
+        List<List<Card>> rows = new ArrayList<>(BOARD_ROWS);
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            List<Card> cards = new ArrayList<>(ROW_CAPACITY);
+            for (int col = 0; col < getRowSize(row); col++) {
+                cards.add(loadCard(boardCard(row, col)));
+            }
+            rows.add(cards);
+        }
+
+        // the game in progress comes from the slot; the input only deals later games
+        GameExecutor game = new GameExecutor(inputData, new ObjectMapper().createArrayNode());
+        game.restoreGame(new StartGameInputCopy(buffer.getInt(base + H_PLAYER_ONE_DECK),
+                        buffer.getInt(base + H_PLAYER_TWO_DECK),
+                        buffer.getInt(base + H_SHUFFLE_SEED), null, null,
+                        buffer.getInt(base + H_STARTING_PLAYER)),
+                players[0], players[1], rows, getRound(), isEnded());
+        game.restoreCounters(buffer.getInt(base + H_GAMES_PLAYED),
+                buffer.getInt(base + H_WON_ONE), buffer.getInt(base + H_WON_TWO));
+        return game;
+    }
+
+    private Card loadCard(final int address) {
+        return catalog.unpack(getCard(address));
+    }
+
+    private int playerOffset(final int player) {
+        return base + HEADER_SIZE + (player - 1) * playerSize;
+    }
+
+    /**
+     * Gets the round.
+     *
+     * @return the round
+     */
+    public int getRound() {
+        return buffer.getInt(base + H_ROUND);
+    }
+
+    /**
+     * Tells whether a hero has fallen.
+     *
+     * @return true once the game is over
+     */
+    public boolean isEnded() {
+        return buffer.getInt(base + H_ENDED) != 0;
+    }
+
+    /**
+     * Gets the player whose turn it is.
+     *
+     * @return 1 or 2
+     */
+    public int getCurrentPlayer() {
+        return isTurn(1) ? 1 : 2;
+    }
+
+    /**
+     * Tells whether it is a player's turn.
+     *
+     * @param player 1 or 2
+     * @return true on the player's turn
+     */
+    public boolean isTurn(final int player) {
+        return buffer.getShort(playerOffset(player) + P_TURN) != 0;
+    }
+
+    /**
+     * Gets the mana of a player.
+     *
+     * @param player 1 or 2
+     * @return the mana
+     */
+    public int getMana(final int player) {
+        return buffer.getInt(playerOffset(player) + P_MANA);
+    }
+
+    /**
+     * Sets the mana of a player.
+     *
+     * @param player 1 or 2
+     * @param mana   the mana
+     */
+    public void setMana(final int player, final int mana) {
+        buffer.putInt(playerOffset(player) + P_MANA, mana);
+    }
+
+    /**
+     * Gets the health of a player's hero.
+     *
+     * @param player 1 or 2
+     * @return the health
+     */
+    public int getHeroHealth(final int player) {
+        return buffer.getInt(playerOffset(player) + P_HEALTH);
+    }
+
+    /**
+     * Sets the health of a player's hero.
+     *
+     * @param player 1 or 2
+     * @param health the health
+     */
+    public void setHeroHealth(final int player, final int health) {
+        buffer.putInt(playerOffset(player) + P_HEALTH, health);
+    }
+
+    /**
+     * Gets the number of cards left in a player's deck.
+     *
+     * @param player 1 or 2
+     * @return the deck size
+     */
+    public int getDeckSize(final int player) {
+        return buffer.getShort(playerOffset(player) + P_DECK_COUNT);
+    }
+
+    /**
+     * Gets the number of cards in a player's hand.
+     *
+     * @param player 1 or 2
+     * @return the hand size
+     */
+    public int getHandSize(final int player) {
+        return buffer.getShort(playerOffset(player) + P_HAND_COUNT);
+    }
+
+    /**
+     * Gets the number of cards on a board row.
+     *
+     * @param row the row, 0 to 3
+     * @return the row size
+     */
+    public int getRowSize(final int row) {
+        return buffer.getShort(base + boardOffset + row * ROW_SIZE);
+    }
+
+    /**
+     * Gets the address of a player's hero card.
+     *
+     * @param player 1 or 2
+     * @return the card address
+     */
+    public int heroCard(final int player) {
+        return playerOffset(player) + P_HERO;
+    }
+
+    /**
+     * Gets the address of a card in a player's deck.
+     *
+     * @param player 1 or 2
+     * @param index  the position in the deck, 0 is drawn next
+     * @return the card address
+     */
+    public int deckCard(final int player, final int index) {
+        return playerOffset(player) + P_CARDS + index * CARD_SIZE;
+    }
+
+    /**
+     * Gets the address of a card in a player's hand.
+     *
+     * @param player 1 or 2
+     * @param index  the position in the hand
+     * @return the card address
+     */
+    public int handCard(final int player, final int index) {
+        return playerOffset(player) + P_CARDS + (cardsPerPlayer - 1 - index) * CARD_SIZE;
+    }
+
+    /**
+     * Gets the address of a card on the board.
+     *
+     * @param row    the row, 0 to 3
+     * @param column the position in the row
+     * @return the card address
+     */
+    public int boardCard(final int row, final int column) {
+        return base + boardOffset + row * ROW_SIZE + ROW_HEADER + column * CARD_SIZE;
+    }
+
+    /**
+     * Gets a card as a PackedCard.
+     *
+     * @param address the card address
+     * @return the packed card
+     */
+    public long getCard(final int address) {
+        return buffer.getLong(address);
+    }
+
+    /**
+     * Replaces a card with a PackedCard, for example one changed with its mutators.
+     *
+     * @param address the card address
+     * @param card    the packed card
+     */
+    public void setCard(final int address, final long card) {
+        buffer.putLong(address, card);
+    }
+
+    /**
+     * Gets the name of a card.
+     *
+     * @param address the card address
+     * @return the name
+     */
+    public String getCardName(final int address) {
+        return catalog.nameOf(PackedCard.id(getCard(address)));
+    }
+}
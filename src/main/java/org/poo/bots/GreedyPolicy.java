@@ -0,0 +1,97 @@
+package org.poo.bots;
+
+import org.poo.cards.Card;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Plays the move with the most immediate value: hits the enemy hero whenever it can,
+ * then trades into enemy cards, then develops the board with its most expensive card.
+ */
+public final class GreedyPolicy implements Policy {
+
+    @Override
+    public String getName() {
+        return "greedy";
+    }
+
+    @Override
+    public ActionsInputCopy nextAction(final GameExecutor game, final Random random) {
+        List<ActionsInputCopy> moves = new ArrayList<>();
+
+        Moves.addUseAttackHeroes(game, moves);
+        if (!moves.isEmpty()) {
+            return strongestAttacker(game, moves);
+        }
+
+        Moves.addCardUsesAttacks(game, moves);
+        if (!moves.isEmpty()) {
+            return weakestTarget(game, moves);
+        }
+
+        Moves.addCardUsesAbilities(game, moves);
+        if (!moves.isEmpty()) {
+            return moves.get(random.nextInt(moves.size()));
+        }
+
+        Moves.addPlaceCards(game, moves);
+        if (!moves.isEmpty()) {
+            return mostExpensiveCard(game, moves);
+        }
+
+        Moves.addUseHeroAbilities(game, moves);
+        if (!moves.isEmpty()) {
+            return moves.get(random.nextInt(moves.size()));
+        }
+
+        return Moves.endPlayerTurn();
+    }
+
+    private ActionsInputCopy strongestAttacker(final GameExecutor game,
+                                               final List<ActionsInputCopy> moves) {
+        ActionsInputCopy best = moves.get(0);
+        int bestDamage = -1;
+        for (ActionsInputCopy move : moves) {
+            Card card = game.getBoard().getCardFromRow(move.getCardAttacker().getX(),
+                    move.getCardAttacker().getY());
+            if (card.getAttackDamage() > bestDamage) {
+                bestDamage = card.getAttackDamage();
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private ActionsInputCopy weakestTarget(final GameExecutor game,
+                                           final List<ActionsInputCopy> moves) {
+        ActionsInputCopy best = moves.get(0);
+        int bestHealth = Integer.MAX_VALUE;
+        for (ActionsInputCopy move : moves) {
+            Card card = game.getBoard().getCardFromRow(move.getCardAttacked().getX(),
+                    move.getCardAttacked().getY());
+            if (card.getHealth() < bestHealth) {
+                bestHealth = card.getHealth();
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    private ActionsInputCopy mostExpensiveCard(final GameExecutor game,
+                                               final List<ActionsInputCopy> moves) {
+        ActionsInputCopy best = moves.get(0);
+        int bestMana = -1;
+        for (ActionsInputCopy move : moves) {
+            Card card = Moves.currentPlayer(game).getHand().getCard(move.getHandIdx());
+            if (card.getMana() > bestMana) {
+                bestMana = card.getMana();
+                best = move;
+            }
+        }
+        return best;
+    }
+}
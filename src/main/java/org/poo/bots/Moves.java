@@ -0,0 +1,352 @@
+package org.poo.bots;
+
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.fileio.Coordinates;
+import org.poo.gamethread.GameExecutor;
+import org.poo.players.GameBoard;
+import org.poo.players.Player;
+import org.poo.utils.ActionsInputCopy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds actions and enumerates the moves the engine accepts without an error
+ * for the player whose turn it is.
+ */
+public final class Moves {
+
+    private static final int BOARD_ROWS = 4;
+    private static final int PLAYER_ONE_IDX = 1;
+    private static final int PLAYER_TWO_IDX = 2;
+
+    /**
+     * for coding style
+     */
+    private Moves() {
+    }
+
+    /**
+     * Builds a placeCard action.
+     *
+     * @param handIdx the index of the card in hand
+     * @return the action
+     */
+    public static ActionsInputCopy placeCard(final int handIdx) {
+        return new ActionsInputCopy("placeCard", handIdx, null, null, 0, 0, 0, 0);
+    }
+
+    /**
+     * Builds a cardUsesAttack action.
+     *
+     * @param attacker the position of the attacking card
+     * @param attacked the position of the attacked card
+     * @return the action
+     */
+    public static ActionsInputCopy cardUsesAttack(final Coordinates attacker,
+                                                  final Coordinates attacked) {
+        return new ActionsInputCopy("cardUsesAttack", 0, attacker, attacked, 0, 0, 0, 0);
+    }
+
+    /**
+     * Builds a cardUsesAbility action.
+     *
+     * @param attacker the position of the card using its ability
+     * @param attacked the position of the target card
+     * @return the action
+     */
+    public static ActionsInputCopy cardUsesAbility(final Coordinates attacker,
+                                                   final Coordinates attacked) {
+        return new ActionsInputCopy("cardUsesAbility", 0, attacker, attacked, 0, 0, 0, 0);
+    }
+
+    /**
+     * Builds a useAttackHero action.
+     *
+     * @param attacker the position of the attacking card
+     * @return the action
+     */
+    public static ActionsInputCopy useAttackHero(final Coordinates attacker) {
+        return new ActionsInputCopy("useAttackHero", 0, attacker, null, 0, 0, 0, 0);
+    }
+
+    /**
+     * Builds a useHeroAbility action.
+     *
+     * @param affectedRow the row targeted by the hero
+     * @return the action
+     */
+    public static ActionsInputCopy useHeroAbility(final int affectedRow) {
+        return new ActionsInputCopy("useHeroAbility", 0, null, null, affectedRow, 0, 0, 0);
+    }
+
+    /**
+     * Builds an endPlayerTurn action.
+     *
+     * @return the action
+     */
+    public static ActionsInputCopy endPlayerTurn() {
+        return new ActionsInputCopy("endPlayerTurn", 0, null, null, 0, 0, 0, 0);
+    }
+
+    /**
+     * Builds a query action, such as getCardsOnTable or getPlayerDeck.
+     *
+     * @param command   the query command
+     * @param playerIdx the player the query refers to, if any
+     * @param x         the row for getCardAtPosition
+     * @param y         the column for getCardAtPosition
+     * @return the action
+     */
+    public static ActionsInputCopy query(final String command, final int playerIdx,
+                                         final int x, final int y) {
+        return new ActionsInputCopy(command, 0, null, null, 0, playerIdx, x, y);
+    }
+
+    /**
+     * Builds the coordinates of a board position.
+     *
+     * @param x the row
+     * @param y the column
+     * @return the coordinates
+     */
+    public static Coordinates at(final int x, final int y) {
+        Coordinates coordinates = new Coordinates();
+        coordinates.setX(x);
+        coordinates.setY(y);
+        return coordinates;
+    }
+
+    /**
+     * Gets the player whose turn it is.
+     *
+     * @param game the executor holding the game in progress
+     * @return the current player
+     */
+    public static Player currentPlayer(final GameExecutor game) {
+        return game.getPlayerOne().isTurn() ? game.getPlayerOne() : game.getPlayerTwo();
+    }
+
+    /**
+     * Checks whether a row belongs to the given player.
+     *
+     * @param playerIdx the player index
+     * @param row       the row index
+     * @return true if the row is on the player's side of the board
+     */
+    public static boolean isOwnRow(final int playerIdx, final int row) {
+        return playerIdx == PLAYER_ONE_IDX ? row >= 2 : row < 2;
+    }
+
+    /**
+     * Lists every move of the current player that the engine applies without an error.
+     * endPlayerTurn is always the last element.
+     *
+     * @param game the executor holding the game in progress
+     * @return the legal moves
+     */
+    public static List<ActionsInputCopy> legalMoves(final GameExecutor game) {
+        List<ActionsInputCopy> moves = new ArrayList<>();
+        addPlaceCards(game, moves);
+        addCardUsesAttacks(game, moves);
+        addCardUsesAbilities(game, moves);
+        addUseAttackHeroes(game, moves);
+        addUseHeroAbilities(game, moves);
+        moves.add(endPlayerTurn());
+        return moves;
+    }
+
+    /**
+     * Adds every card in hand that is affordable and fits on its row.
+     *
+     * @param game  the executor holding the game in progress
+     * @param moves the list to add to
+     */
+    public static void addPlaceCards(final GameExecutor game, final List<ActionsInputCopy> moves) {
+        Player player = currentPlayer(game);
+        List<Card> hand = player.getHand().getCards();
+        for (int i = 0; i < hand.size(); i++) {
+            Card card = hand.get(i);
+            if (card.getMana() > player.getMana()) {
+                continue;
+            }
+            ActionsInputCopy move = placeCard(i);
+            int row = move.getTargetRow(card, player);
+            if (row >= 0 && game.getBoard().canPlaceCardOnRow(row)) {
+                moves.add(move);
+            }
+        }
+    }
+
+    /**
+     * Adds every attack of an own card against an enemy card.
+     *
+     * @param game  the executor holding the game in progress
+     * @param moves the list to add to
+     */
+    public static void addCardUsesAttacks(final GameExecutor game,
+                                          final List<ActionsInputCopy> moves) {
+        int playerIdx = currentPlayer(game).getPlayerIdx();
+        GameBoard board = game.getBoard();
+        boolean enemyTank = hasTank(board, opponent(playerIdx));
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            if (!isOwnRow(playerIdx, row)) {
+                continue;
+            }
+            List<Card> attackers = board.getRow(row);
+            for (int col = 0; col < attackers.size(); col++) {
+                Card attacker = attackers.get(col);
+                if (attacker.getHasAttacked(attacker) || attacker.getIsFrozen(attacker)) {
+                    continue;
+                }
+                addTargets(board, opponent(playerIdx), enemyTank, row, col, false, moves);
+            }
+        }
+    }
+
+    /**
+     * Adds every ability use of an own card on a valid target.
+     *
+     * @param game  the executor holding the game in progress
+     * @param moves the list to add to
+     */
+    public static void addCardUsesAbilities(final GameExecutor game,
+                                            final List<ActionsInputCopy> moves) {
+        int playerIdx = currentPlayer(game).getPlayerIdx();
+        GameBoard board = game.getBoard();
+        boolean enemyTank = hasTank(board, opponent(playerIdx));
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            if (!isOwnRow(playerIdx, row)) {
+                continue;
+            }
+            List<Card> attackers = board.getRow(row);
+            for (int col = 0; col < attackers.size(); col++) {
+                Card attacker = attackers.get(col);
+                if (!hasAbility(attacker) || attacker.getIsFrozen(attacker)
+                        || attacker.getHasAttacked(attacker)
+                        || attacker.getHasUsedAbility(attacker)) {
+                    continue;
+                }
+                if ("Disciple".equals(attacker.getName())) {
+                    addTargets(board, playerIdx, false, row, col, true, moves);
+                } else {
+                    addTargets(board, opponent(playerIdx), enemyTank, row, col, true, moves);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds every attack of an own card against the enemy hero.
+     *
+     * @param game  the executor holding the game in progress
+     * @param moves the list to add to
+     */
+    public static void addUseAttackHeroes(final GameExecutor game,
+                                          final List<ActionsInputCopy> moves) {
+        int playerIdx = currentPlayer(game).getPlayerIdx();
+        GameBoard board = game.getBoard();
+        if (hasTank(board, opponent(playerIdx))) {
+            return;
+        }
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            if (!isOwnRow(playerIdx, row)) {
+                continue;
+            }
+            List<Card> attackers = board.getRow(row);
+            for (int col = 0; col < attackers.size(); col++) {
+                Card attacker = attackers.get(col);
+                if (!attacker.getIsFrozen(attacker) && !attacker.getHasAttacked(attacker)
+                        && !attacker.getHasUsedAbility(attacker)) {
+                    moves.add(useAttackHero(at(row, col)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds every row the current hero may target, if the hero can act at all.
+     *
+     * @param game  the executor holding the game in progress
+     * @param moves the list to add to
+     */
+    public static void addUseHeroAbilities(final GameExecutor game,
+                                           final List<ActionsInputCopy> moves) {
+        Player player = currentPlayer(game);
+        Hero hero = player.getHero();
+        if (player.getMana() < hero.getMana() || hero.getHasUsedAbility(hero)) {
+            return;
+        }
+        boolean targetsEnemy = "Lord Royce".equals(hero.getName())
+                || "Empress Thorina".equals(hero.getName());
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            if (isOwnRow(player.getPlayerIdx(), row) != targetsEnemy) {
+                moves.add(useHeroAbility(row));
+            }
+        }
+    }
+
+    /**
+     * Checks whether a card has a special ability the engine knows about.
+     *
+     * @param card the card to check
+     * @return true for The Ripper, Miraj, The Cursed One and Disciple
+     */
+    public static boolean hasAbility(final Card card) {
+        switch (card.getName()) {
+            case "The Ripper":
+            case "Miraj":
+            case "The Cursed One":
+            case "Disciple":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Gets the index of the other player.
+     *
+     * @param playerIdx the player index
+     * @return the opponent's index
+     */
+    public static int opponent(final int playerIdx) {
+        return playerIdx == PLAYER_ONE_IDX ? PLAYER_TWO_IDX : PLAYER_ONE_IDX;
+    }
+
+    private static boolean hasTank(final GameBoard board, final int playerIdx) {
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            if (!isOwnRow(playerIdx, row)) {
+                continue;
+            }
+            for (Card card : board.getRow(row)) {
+                if (card.isTank()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void addTargets(final GameBoard board, final int targetPlayer,
+                                   final boolean tanksOnly, final int attackerRow,
+                                   final int attackerCol, final boolean ability,
+                                   final List<ActionsInputCopy> moves) {
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            if (!isOwnRow(targetPlayer, row)) {
+                continue;
+            }
+            List<Card> targets = board.getRow(row);
+            for (int col = 0; col < targets.size(); col++) {
+                if (tanksOnly && !targets.get(col).isTank()) {
+                    continue;
+                }
+                Coordinates attacker = at(attackerRow, attackerCol);
+                Coordinates attacked = at(row, col);
+                moves.add(ability ? cardUsesAbility(attacker, attacked)
+                        : cardUsesAttack(attacker, attacked));
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.poo.bots;
+
+/**
+ * Resolves policy names given on the command line.
+ */
+public final class Policies {
+
+    /**
+     * for coding style
+     */
+    private Policies() {
+    }
+
+    /**
+     * Creates the policy with the given name.
+     *
+     * @param name the policy name, "random" or "greedy"
+     * @return a new policy instance
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static Policy byName(final String name) {
+        switch (name) {
+            case "random":
+                return new RandomPolicy();
+            case "greedy":
+                return new GreedyPolicy();
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + name);
+        }
+    }
+}
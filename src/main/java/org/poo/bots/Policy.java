@@ -0,0 +1,28 @@
+package org.poo.bots;
+
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+
+import java.util.Random;
+
+/**
+ * A strategy that picks the next action for the player whose turn it is.
+ */
+public interface Policy {
+
+    /**
+     * Returns the name under which the policy is reported.
+     *
+     * @return the policy name
+     */
+    String getName();
+
+    /**
+     * Chooses the next action for the current player of the game in progress.
+     *
+     * @param game   the executor holding the game in progress
+     * @param random the random source of the calling worker
+     * @return the chosen action, endPlayerTurn when there is nothing left to do
+     */
+    ActionsInputCopy nextAction(GameExecutor game, Random random);
+}
@@ -0,0 +1,24 @@
+package org.poo.bots;
+
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Picks uniformly among the legal moves of the current player, endPlayerTurn included.
+ */
+public final class RandomPolicy implements Policy {
+
+    @Override
+    public String getName() {
+        return "random";
+    }
+
+    @Override
+    public ActionsInputCopy nextAction(final GameExecutor game, final Random random) {
+        List<ActionsInputCopy> moves = Moves.legalMoves(game);
+        return moves.get(random.nextInt(moves.size()));
+    }
+}
@@ -0,0 +1,112 @@
+package org.poo.bots;
+
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.StartGameInputCopy;
+
+import java.util.Random;
+
+/**
+ * Plays one game between two policies on a GameExecutor, until a hero dies or the
+ * round limit is reached. The winner is read from the executor's win counters.
+ */
+public final class SelfPlayGame {
+
+    public static final int DRAW = 0;
+    public static final int PLAYER_ONE = 1;
+    public static final int PLAYER_TWO = 2;
+
+    private static final int ACTIONS_PER_ROUND = 64;
+
+    private final GameExecutor executor;
+    private final Policy playerOnePolicy;
+    private final Policy playerTwoPolicy;
+    private final int maxRounds;
+    private int actionsPlayed;
+
+    /**
+     * Constructs a self-play game.
+     *
+     * @param executor        the executor to play on; its decks are the ones the games use
+     * @param playerOnePolicy the policy of player one
+     * @param playerTwoPolicy the policy of player two
+     * @param maxRounds       the round after which the game is declared a draw
+     */
+    public SelfPlayGame(final GameExecutor executor, final Policy playerOnePolicy,
+                        final Policy playerTwoPolicy, final int maxRounds) {
+        this.executor = executor;
+        this.playerOnePolicy = playerOnePolicy;
+        this.playerTwoPolicy = playerTwoPolicy;
+        this.maxRounds = maxRounds;
+    }
+
+    /**
+     * Plays a full game.
+     *
+     * @param startGame the starting parameters of the game
+     * @param random    the random source handed to the policies
+     * @return PLAYER_ONE, PLAYER_TWO or DRAW
+     */
+    public int play(final StartGameInputCopy startGame, final Random random) {
+        return play(startGame, random, null);
+    }
+
+    /**
+     * Plays a full game, reporting every action to a listener before it is applied.
+     *
+     * @param startGame the starting parameters of the game
+     * @param random    the random source handed to the policies
+     * @param listener  receives each action, may be null
+     * @return PLAYER_ONE, PLAYER_TWO or DRAW
+     */
+    public int play(final StartGameInputCopy startGame, final Random random,
+                    final ActionListener listener) {
+        int winsOne = executor.getGamesWonPlayerOne();
+        int winsTwo = executor.getGamesWonPlayerTwo();
+        int actionLimit = maxRounds * ACTIONS_PER_ROUND;
+
+        executor.beginGame(startGame);
+        actionsPlayed = 0;
+        while (!executor.isGameEnded() && executor.getCurrentRound() <= maxRounds
+                && actionsPlayed < actionLimit) {
+            Policy policy = executor.getPlayerOne().isTurn() ? playerOnePolicy : playerTwoPolicy;
+            ActionsInputCopy action = policy.nextAction(executor, random);
+            if (listener != null) {
+                listener.onAction(action);
+            }
+            executor.executeAction(action);
+            actionsPlayed++;
+        }
+        executor.endGame();
+
+        if (executor.getGamesWonPlayerOne() > winsOne) {
+            return PLAYER_ONE;
+        }
+        if (executor.getGamesWonPlayerTwo() > winsTwo) {
+            return PLAYER_TWO;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Gets the number of actions applied in the last game.
+     *
+     * @return the action count
+     */
+    public int getActionsPlayed() {
+        return actionsPlayed;
+    }
+
+    /**
+     * Receives the actions of a self-play game as they are chosen.
+     */
+    public interface ActionListener {
+
+        /**
+         * Called before the action is applied.
+         *
+         * @param action the chosen action
+         */
+        void onAction(ActionsInputCopy action);
+    }
+}
@@ -0,0 +1,209 @@
+package org.poo.cards;
+
+/**
+ * Packs the state of a card into a single long, for stores that hold many matches
+ * (PackedHand, PackedDeck, PackedBoard, the match arena). The fixed part of the card
+ * (name, description, colors, type) lives in a catalog and is referred to by id.
+ *
+ * Bit layout, from the lowest bit:
+ * template id (16, unsigned), health (16, signed), attack damage (16, signed),
+ * mana (8, unsigned), then the frozen, has-attacked and used-ability flags.
+ *
+ * Mutators return the changed value; a packed card is a plain value with no identity.
+ */
+public final class PackedCard {
+
+    private static final int ID_SHIFT = 0;
+    private static final int HEALTH_SHIFT = 16;
+    private static final int ATTACK_SHIFT = 32;
+    private static final int MANA_SHIFT = 48;
+    private static final int FLAGS_SHIFT = 56;
+    private static final long SHORT_MASK = 0xFFFFL;
+    private static final long BYTE_MASK = 0xFFL;
+    private static final long FROZEN = 1L << FLAGS_SHIFT;
+    private static final long ATTACKED = 1L << (FLAGS_SHIFT + 1);
+    private static final long USED_ABILITY = 1L << (FLAGS_SHIFT + 2);
+
+    /** The largest template id a packed card can refer to. */
+    public static final int MAX_ID = (int) SHORT_MASK;
+    /** The largest mana cost a packed card can hold. */
+    public static final int MAX_MANA = (int) BYTE_MASK;
+
+    /**
+     * for coding style
+     */
+    private PackedCard() {
+    }
+
+    /**
+     * Packs a card with its flags cleared.
+     *
+     * @param id           the template id
+     * @param mana         the mana cost
+     * @param health       the health
+     * @param attackDamage the attack damage
+     * @return the packed card
+     * @throws IllegalArgumentException if a value does not fit its field
+     */
+    public static long pack(final int id, final int mana, final int health,
+                            final int attackDamage) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Template id out of range: " + id);
+        }
+        if (mana < 0 || mana > MAX_MANA) {
+            throw new IllegalArgumentException("Mana out of range: " + mana);
+        }
+        return ((long) id << ID_SHIFT) | ((long) mana << MANA_SHIFT)
+                | ((long) toShort(health) & SHORT_MASK) << HEALTH_SHIFT
+                | ((long) toShort(attackDamage) & SHORT_MASK) << ATTACK_SHIFT;
+    }
+
+    /**
+     * Gets the template id.
+     *
+     * @param card the packed card
+     * @return the template id
+     */
+    public static int id(final long card) {
+        return (int) ((card >>> ID_SHIFT) & SHORT_MASK);
+    }
+
+    /**
+     * Gets the mana cost.
+     *
+     * @param card the packed card
+     * @return the mana cost
+     */
+    public static int mana(final long card) {
+        return (int) ((card >>> MANA_SHIFT) & BYTE_MASK);
+    }
+
+    /**
+     * Gets the health.
+     *
+     * @param card the packed card
+     * @return the health
+     */
+    public static int health(final long card) {
+        return (short) (card >>> HEALTH_SHIFT);
+    }
+
+    /**
+     * Gets the attack damage.
+     *
+     * @param card the packed card
+     * @return the attack damage
+     */
+    public static int attackDamage(final long card) {
+        return (short) (card >>> ATTACK_SHIFT);
+    }
+
+    /**
+     * Tells whether the card is frozen.
+     *
+     * @param card the packed card
+     * @return true if frozen
+     */
+    public static boolean isFrozen(final long card) {
+        return (card & FROZEN) != 0;
+    }
+
+    /**
+     * Tells whether the card attacked this turn.
+     *
+     * @param card the packed card
+     * @return true if it attacked
+     */
+    public static boolean hasAttacked(final long card) {
+        return (card & ATTACKED) != 0;
+    }
+
+    /**
+     * Tells whether the card used its ability this turn.
+     *
+     * @param card the packed card
+     * @return true if it used its ability
+     */
+    public static boolean hasUsedAbility(final long card) {
+        return (card & USED_ABILITY) != 0;
+    }
+
+    /**
+     * Changes the health.
+     *
+     * @param card   the packed card
+     * @param health the new health
+     * @return the changed card
+     * @throws IllegalArgumentException if the health does not fit a short
+     */
+    public static long withHealth(final long card, final int health) {
+        return (card & ~(SHORT_MASK << HEALTH_SHIFT))
+                | ((long) toShort(health) & SHORT_MASK) << HEALTH_SHIFT;
+    }
+
+    /**
+     * Changes the attack damage.
+     *
+     * @param card         the packed card
+     * @param attackDamage the new attack damage
+     * @return the changed card
+     * @throws IllegalArgumentException if the attack damage does not fit a short
+     */
+    public static long withAttackDamage(final long card, final int attackDamage) {
+        return (card & ~(SHORT_MASK << ATTACK_SHIFT))
+                | ((long) toShort(attackDamage) & SHORT_MASK) << ATTACK_SHIFT;
+    }
+
+    /**
+     * Freezes or thaws the card.
+     *
+     * @param card   the packed card
+     * @param frozen true to freeze
+     * @return the changed card
+     */
+    public static long withFrozen(final long card, final boolean frozen) {
+        return frozen ? card | FROZEN : card & ~FROZEN;
+    }
+
+    /**
+     * Sets whether the card attacked this turn.
+     *
+     * @param card     the packed card
+     * @param attacked true if it attacked
+     * @return the changed card
+     */
+    public static long withAttacked(final long card, final boolean attacked) {
+        return attacked ? card | ATTACKED : card & ~ATTACKED;
+    }
+
+    /**
+     * Sets whether the card used its ability this turn.
+     *
+     * @param card the packed card
+     * @param used true if it used its ability
+     * @return the changed card
+     */
+    public static long withUsedAbility(final long card, final boolean used) {
+        return used ? card | USED_ABILITY : card & ~USED_ABILITY;
+    }
+
+    /**
+     * Describes a packed card, for debugging.
+     *
+     * @param card the packed card
+     * @return the fields as text
+     */
+    public static String toString(final long card) {
+        return "PackedCard{id=" + id(card) + ", mana=" + mana(card) + ", health="
+                + health(card) + ", attackDamage=" + attackDamage(card) + ", frozen="
+                + isFrozen(card) + ", attacked=" + hasAttacked(card) + ", usedAbility="
+                + hasUsedAbility(card) + "}";
+    }
+
+    private static short toShort(final int value) {
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Card stat out of range: " + value);
+        }
+        return (short) value;
+    }
+}
@@ -0,0 +1,71 @@
+package org.poo.daemon;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.server.MatchClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Thin command line client of EngineDaemon. Each input/output pair becomes one run
+ * request; paths are made absolute first, since the daemon has its own working
+ * directory. Every request carries the token read from EngineDaemon.tokenFile. The
+ * responses are printed as they arrive.
+ */
+public final class DaemonClient {
+
+    private static final int EXIT_FAILURE = 1;
+
+    /**
+     * for coding style
+     */
+    private DaemonClient() {
+    }
+
+    /**
+     * Usage: [--port port] input output [input output ...] | [--port port] stats | shutdown
+     *
+     * @param args the command line arguments
+     * @throws IOException if the daemon cannot be reached or its token not read
+     */
+    public static void main(final String[] args) throws IOException {
+        int port = EngineDaemon.DEFAULT_PORT;
+        int first = 0;
+        if (args.length > 1 && "--port".equals(args[0])) {
+            port = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        int remaining = args.length - first;
+        ObjectMapper objectMapper = new ObjectMapper();
+        String token = Files.readString(EngineDaemon.tokenFile(port)).trim();
+        boolean failed = false;
+        try (MatchClient client = new MatchClient(port)) {
+            if (remaining == 1) {
+                ObjectNode request = objectMapper.createObjectNode();
+                request.put("command", args[first]);
+                request.put("token", token);
+                System.out.println(client.send(objectMapper.writeValueAsString(request)));
+            } else if (remaining > 0 && remaining % 2 == 0) {
+                for (int i = first; i < args.length; i += 2) {
+                    ObjectNode request = objectMapper.createObjectNode();
+                    request.put("command", "run");
+                    request.put("token", token);
+                    request.put("input", new File(args[i]).getAbsolutePath());
+                    request.put("output", new File(args[i + 1]).getAbsolutePath());
+                    String response = client.send(objectMapper.writeValueAsString(request));
+                    System.out.println(response);
+                    failed |= response == null || objectMapper.readTree(response).has("error");
+                }
+            } else {
+                System.err.println("Usage: DaemonClient [--port <port>] <input> <output>..."
+                        + " | stats | shutdown");
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(EXIT_FAILURE);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package org.poo.daemon;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.main.Main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a warm JVM around so scripts can run input files without paying for JVM
+ * startup, class loading and Jackson warm-up on every run. Clients connect over the
+ * loopback interface and send one JSON request per line:
+ *
+ * {"command":"run","input":"in.json","output":"out.json"} runs the input through
+ * Main.run and answers with the elapsed time; {"command":"stats"} reports totals;
+ * {"command":"shutdown"} stops the daemon once the requests in progress are answered.
+ *
+ * The loopback port is open to every local user, and a run writes wherever the daemon
+ * may, so every request must carry "token", a secret the daemon writes at startup to a
+ * file only its owner can read (see tokenFile) and deletes when it stops.
+ */
+public final class EngineDaemon {
+
+    /** Default port of the daemon. */
+    public static final int DEFAULT_PORT = 7071;
+
+    private static final int SHUTDOWN_SECONDS = 30;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final int TOKEN_BYTES = 32;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "engine-daemon-connection");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private final Path tokenPath;
+    private final byte[] token;
+    private volatile boolean running = true;
+
+    /**
+     * Binds the daemon to the loopback interface and writes its token file.
+     *
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port cannot be bound or the token not written
+     */
+    public EngineDaemon(final int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        tokenPath = tokenFile(getPort());
+        String secret = newToken();
+        try {
+            writeOwnerOnly(tokenPath, secret);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        token = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the file holding the token of the daemon on a port: gwentstone.daemon.tokenFile
+     * when set, otherwise .gwentstone/daemon-port.token in the home directory.
+     *
+     * @param port the port of the daemon
+     * @return the path of the token file
+     */
+    public static Path tokenFile(final int port) {
+        String configured = System.getProperty("gwentstone.daemon.tokenFile");
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        return Paths.get(System.getProperty("user.home"), ".gwentstone",
+                "daemon-" + port + ".token");
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(bytes);
+        StringBuilder hex = new StringBuilder(2 * TOKEN_BYTES);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Writes a new file that only its owner can read, replacing an old one. The file is
+     * created with those permissions, so the token is never readable by others.
+     */
+    private static void writeOwnerOnly(final Path path, final String content)
+            throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Files.deleteIfExists(path);
+        try {
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(
+                    EnumSet.of(PosixFilePermission.OWNER_READ,
+                            PosixFilePermission.OWNER_WRITE)));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system: restrict it the portable way before writing
+            Files.createFile(path);
+            File file = path.toFile();
+            if (!file.setReadable(false, false) || !file.setReadable(true, true)
+                    || !file.setWritable(false, false) || !file.setWritable(true, true)) {
+                Files.delete(path);
+                throw new IOException("Cannot make " + path + " private", e);
+            }
+        }
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the port the daemon listens on.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until shutdown, then waits for the requests in progress.
+     *
+     * @throws IOException if accepting fails for a reason other than shutdown
+     */
+    public void serve() throws IOException {
+        try {
+            while (running) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException e) {
+                    if (running) {
+                        throw e;
+                    }
+                    break;
+                }
+                openSockets.add(socket);
+                connections.execute(() -> serve(socket));
+            }
+        } finally {
+            try {
+                Files.deleteIfExists(tokenPath);
+            } catch (IOException e) {
+                System.err.println("Cannot delete " + tokenPath + ": " + e.getMessage());
+            }
+            connections.shutdown();
+            try {
+                connections.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * Stops accepting connections. Requests being run are finished and answered; every
+     * connection is then closed at its next read.
+     */
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+        for (Socket socket : openSockets) {
+            try {
+                socket.shutdownInput();
+            } catch (IOException e) {
+                // the client already left
+            }
+        }
+    }
+
+    /**
+     * Waits until serve has returned.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitStopped() throws InterruptedException {
+        stopped.await();
+    }
+
+    private void serve(final Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     client.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(new OutputStreamWriter(
+                     client.getOutputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (running && (line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                out.write(objectMapper.writeValueAsString(handle(line)));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client went away
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    /**
+     * Handles one request line.
+     *
+     * @param line the request
+     * @return the response
+     */
+    ObjectNode handle(final String line) {
+        ObjectNode response = objectMapper.createObjectNode();
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            response.put("error", "Malformed JSON: " + e.getOriginalMessage());
+            return response;
+        }
+        String command = request.path("command").asText("");
+        response.put("command", command);
+        if (!MessageDigest.isEqual(token,
+                request.path("token").asText("").getBytes(StandardCharsets.UTF_8))) {
+            // checked before any command, shutdown included
+            response.put("error", "Missing or wrong token.");
+            return response;
+        }
+        switch (command) {
+            case "run":
+                run(request, response);
+                break;
+            case "stats":
+                response.put("runs", runs.get());
+                response.put("failures", failures.get());
+                response.put("runMillis", runNanos.get() / NANOS_PER_MILLI);
+                response.put("uptimeMillis", (System.nanoTime() - startNanos) / NANOS_PER_MILLI);
+                break;
+            case "shutdown":
+                response.put("output", "ok");
+                shutdown();
+                break;
+            default:
+                response.put("error", "Unknown command.");
+                break;
+        }
+        return response;
+    }
+
+    private void run(final JsonNode request, final ObjectNode response) {
+        String input = request.path("input").asText(null);
+        String output = request.path("output").asText(null);
+        if (input == null || output == null) {
+            response.put("error", "run needs input and output.");
+            return;
+        }
+        response.put("input", input);
+        response.put("output", output);
+        long start = System.nanoTime();
+        try {
+            Main.run(Paths.get(input), Paths.get(output));
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            response.put("error", e.toString());
+        }
+        long elapsed = System.nanoTime() - start;
+        runs.incrementAndGet();
+        runNanos.addAndGet(elapsed);
+        response.put("millis", elapsed / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Runs the daemon until a shutdown request or SIGTERM.
+     * Usage: [port]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the port cannot be bound
+     * @throws InterruptedException if interrupted while stopping
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        EngineDaemon daemon = new EngineDaemon(args.length > 0 ? Integer.parseInt(args[0])
+                : DEFAULT_PORT);
+        Thread hook = new Thread(() -> {
+            daemon.shutdown();
+            try {
+                daemon.awaitStopped();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "engine-daemon-shutdown");
+        Runtime.getRuntime().addShutdownHook(hook);
+        System.out.println("engine daemon listening on " + daemon.getPort() + ", token in "
+                + tokenFile(daemon.getPort()));
+        daemon.serve();
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException e) {
+            // the JVM is already shutting down and the hook is running
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package org.poo.daemon;
+
+import org.poo.checker.CheckerConstants;
+import org.poo.main.Main;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches a spool directory and runs every input file that lands in it, instead of
+ * rerunning the whole directory with Main.main.
+ *
+ * A file is picked up once it has been quiet for the debounce delay and its size and
+ * modification time did not move in that time, so a file still being written is not
+ * read half way. Files are run through Main.run on a bounded pool; when the pool is
+ * saturated the debounce thread runs the file itself, which holds the intake back.
+ * Each output is written to a temporary file next to it and moved into place, so a
+ * reader sees either the previous output or the complete new one.
+ *
+ * Inputs already in the directory whose output is missing or older are run at start.
+ * Hidden files, files ending in .tmp or .part, and outputs written into the spool
+ * directory itself are ignored.
+ */
+public final class SpoolWatcher {
+
+    /** Default quiet time before a file is read, in milliseconds. */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 250;
+
+    private static final int QUEUE_PER_WORKER = 4;
+    private static final int ARG_OUTPUT = 1;
+    private static final int ARG_WORKERS = 2;
+    private static final int ARG_DEBOUNCE = 3;
+    private static final int SHUTDOWN_SECONDS = 60;
+
+    private final Path inputDirectory;
+    private final Path outputDirectory;
+    private final String outputPrefix;
+    private final long debounceMillis;
+    private final ScheduledExecutorService debouncer;
+    private final ThreadPoolExecutor workers;
+    private final Map<Path, ScheduledFuture<?>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile WatchService watchService;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a watcher. Outputs are named like Main names them: outputPrefix followed
+     * by the input file name.
+     *
+     * @param inputDirectory  the spool directory
+     * @param outputDirectory the directory of the outputs, created if needed
+     * @param outputPrefix    the prefix of every output name
+     * @param workerCount     the number of inputs run at the same time
+     * @param debounceMillis  the quiet time before a file is read
+     * @throws IOException if the output directory cannot be created
+     */
+    public SpoolWatcher(final Path inputDirectory, final Path outputDirectory,
+                        final String outputPrefix, final int workerCount,
+                        final long debounceMillis) throws IOException {
+        this.inputDirectory = inputDirectory;
+        this.outputDirectory = Files.createDirectories(outputDirectory);
+        this.outputPrefix = outputPrefix;
+        this.debounceMillis = debounceMillis;
+        this.debouncer = Executors.newSingleThreadScheduledExecutor(runnable ->
+                newThread(runnable, "spool-debounce"));
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(workerCount * QUEUE_PER_WORKER),
+                runnable -> newThread(runnable, "spool-worker"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static Thread newThread(final Runnable runnable, final String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Runs the inputs the directory already holds, then watches it until stop.
+     *
+     * @throws IOException if the directory cannot be watched
+     */
+    public void watch() throws IOException {
+        try (WatchService service = inputDirectory.getFileSystem().newWatchService()) {
+            watchService = service;
+            inputDirectory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            // registered first, so a file landing during the scan is not missed
+            scan(true);
+            while (running) {
+                WatchKey key;
+                try {
+                    key = service.take();
+                } catch (ClosedWatchServiceException | InterruptedException e) {
+                    break;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scan(false);
+                    } else {
+                        schedule(inputDirectory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    System.err.println("Spool directory " + inputDirectory + " went away");
+                    break;
+                }
+            }
+        } finally {
+            drain();
+        }
+    }
+
+    /**
+     * Stops watching. Inputs already picked up are finished; inputs still settling are
+     * dropped and will be run by the next start.
+     */
+    public void stop() {
+        running = false;
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    /**
+     * Gets the number of inputs run so far.
+     *
+     * @return the inputs run, failed ones included
+     */
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    /**
+     * Gets the number of inputs that could not be run.
+     *
+     * @return the failed inputs
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void drain() {
+        debouncer.shutdownNow();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules every input of the directory.
+     *
+     * @param onlyStale true to skip inputs whose output is newer than them
+     */
+    private void scan(final boolean onlyStale) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inputDirectory)) {
+            for (Path file : files) {
+                if (!onlyStale || isStale(file)) {
+                    schedule(file);
+                }
+            }
+        }
+    }
+
+    private boolean isStale(final Path input) throws IOException {
+        Path output = outputOf(input);
+        return !Files.exists(output)
+                || Files.getLastModifiedTime(output).compareTo(
+                        Files.getLastModifiedTime(input)) < 0;
+    }
+
+    private boolean isIgnored(final Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(".") || name.endsWith(".tmp") || name.endsWith(".part")
+                || outputDirectory.equals(inputDirectory) && name.startsWith(outputPrefix);
+    }
+
+    /**
+     * (Re)starts the debounce delay of a file; every new event for it pushes it back.
+     */
+    private void schedule(final Path file) {
+        if (!running || isIgnored(file)) {
+            return;
+        }
+        pending.compute(file, (path, previous) -> {
+            if (previous != null) {
+                previous.cancel(false);
+            }
+            Stamp before = attributesOf(path);
+            return debouncer.schedule(() -> settle(path, before), debounceMillis,
+                    TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Hands a file to the workers if it did not change during the debounce delay.
+     */
+    private void settle(final Path file, final Stamp before) {
+        Stamp after = attributesOf(file);
+        if (before == null || after == null) {
+            pending.remove(file);
+            return;
+        }
+        if (!after.equals(before)) {
+            // still being written
+            schedule(file);
+            return;
+        }
+        pending.remove(file);
+        if (running) {
+            workers.execute(() -> process(file));
+        }
+    }
+
+    private static Stamp attributesOf(final Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file,
+                    BasicFileAttributes.class);
+            return attributes.isRegularFile()
+                    ? new Stamp(attributes.size(), attributes.lastModifiedTime()) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void process(final Path input) {
+        Path output = outputOf(input);
+        Path temp = null;
+        long start = System.nanoTime();
+        try {
+            // not createTempFile, whose owner-only permissions would carry over to the output
+            temp = outputDirectory.resolve("." + output.getFileName() + "."
+                    + Thread.currentThread().getId() + ".tmp");
+            Main.run(input, temp);
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            System.out.println(input.getFileName() + " -> " + output + " in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } catch (NoSuchFileException e) {
+            // removed before it could be run
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            System.err.println("Failed to run " + input + ": " + e);
+        } finally {
+            processed.incrementAndGet();
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    System.err.println("Could not remove " + temp + ": " + e);
+                }
+            }
+        }
+    }
+
+    private Path outputOf(final Path input) {
+        return outputDirectory.resolve(outputPrefix + input.getFileName());
+    }
+
+    /**
+     * Size and modification time of a file, compared to tell whether it is settled.
+     */
+    private static final class Stamp {
+        private final long size;
+        private final FileTime modified;
+
+        Stamp(final long size, final FileTime modified) {
+            this.size = size;
+            this.modified = modified;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (!(other instanceof Stamp)) {
+                return false;
+            }
+            Stamp stamp = (Stamp) other;
+            return size == stamp.size && modified.equals(stamp.modified);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, modified);
+        }
+    }
+
+    /**
+     * Watches a spool directory until SIGTERM.
+     * Usage: [inputDir [outputDir [workers [debounceMillis]]]], by default the checker's
+     * input and result directories, one worker per processor and 250 ms.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the directory cannot be watched
+     */
+    public static void main(final String[] args) throws IOException {
+        Path inputDirectory = Paths.get(args.length > 0 ? args[0] : CheckerConstants.TESTS_PATH);
+        Path outputDirectory;
+        String prefix;
+        if (args.length > ARG_OUTPUT) {
+            outputDirectory = Paths.get(args[ARG_OUTPUT]);
+            prefix = "out_";
+        } else {
+            Path outPath = Paths.get(CheckerConstants.OUT_PATH);
+            outputDirectory = outPath.getParent();
+            prefix = outPath.getFileName().toString();
+        }
+        int workerCount = args.length > ARG_WORKERS ? Integer.parseInt(args[ARG_WORKERS])
+                : Runtime.getRuntime().availableProcessors();
+        long debounce = args.length > ARG_DEBOUNCE ? Long.parseLong(args[ARG_DEBOUNCE])
+                : DEFAULT_DEBOUNCE_MILLIS;
+
+        SpoolWatcher watcher = new SpoolWatcher(inputDirectory, outputDirectory, prefix,
+                workerCount, debounce);
+        Thread mainThread = Thread.currentThread();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            watcher.stop();
+            try {
+                // let the inputs already picked up finish before the JVM exits
+                mainThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "spool-shutdown"));
+        System.out.println("watching " + inputDirectory.toAbsolutePath() + " with "
+                + workerCount + " workers");
+        watcher.watch();
+    }
+}
@@ -0,0 +1,18 @@
+package org.poo.gamethread;
+
+import org.poo.utils.ActionsInputCopy;
+
+/**
+ * Sees every action GameExecutor processes, before the action touches the game, so
+ * the state the recorder can read is the state the action will be applied to.
+ */
+public interface ActionRecorder {
+
+    /**
+     * Called for each action, before it is applied.
+     *
+     * @param game   the engine about to apply the action
+     * @param action the action
+     */
+    void onAction(GameExecutor game, ActionsInputCopy action);
+}
@@ -12,13 +12,19 @@ import org.poo.utils.CardInputCopy;
 import org.poo.utils.StartGameInputCopy;
 import org.poo.utils.GameInputCopy;
 import org.poo.fileio.Coordinates;
+import org.poo.jfr.ActionEvent;
+import org.poo.jfr.GameEvent;
+import org.poo.jfr.TurnEvent;
+import org.poo.metrics.EngineMetrics;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.poo.players.GameBoard;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -35,15 +41,27 @@ public class GameExecutor {
     private static final int TWO = 2;
     private static final int THREE = 3;
     private static final int TEN = 10;
+    private static final boolean DRAW_ON_DEMAND
+            = Boolean.getBoolean("gwentstone.deck.drawOnDemand");
     private final InputCopy inputData;
     private int currentRound = 1;
     private Player playerOne;
     private Player playerTwo;
     private ArrayNode output;
+    private JsonGenerator outputGenerator;
     private GameBoard board = new GameBoard();
     private int gamesPlayed = 1;
     private int gamesWonPlayerOne = 0;
     private int gamesWonPlayerTwo = 0;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StartGameInputCopy currentStartGame;
+    private boolean gameEnded = false;
+    private boolean finishUnrecorded;
+    private GameEvent gameEvent;
+    private int gameActions;
+    private StateChangeListener stateListener;
+    private ActionRecorder actionRecorder;
+    private boolean drawOnDemand = DRAW_ON_DEMAND;
 
     /**
      * Constructs a GameExecutor instance with input data and output array.
@@ -56,50 +74,154 @@ public class GameExecutor {
         this.output = output;
     }
 
+    /**
+     * Constructs a GameExecutor that streams the output of executeGame to a generator
+     * instead of collecting it, so memory does not grow with the output. The caller
+     * writes the enclosing array.
+     *
+     * @param inputData       The input data for the game.
+     * @param outputGenerator The generator receiving one tree per output node.
+     */
+    public GameExecutor(final InputCopy inputData, final JsonGenerator outputGenerator) {
+        this.inputData = inputData;
+        this.outputGenerator = outputGenerator;
+    }
+
     /**
      * Executes the game based on input data, initializing players and managing each round.
      */
     public void executeGame() {
-        ObjectMapper objectMapper = new ObjectMapper();
-
         for (GameInputCopy game : inputData.getGames()) {
-            StartGameInputCopy startGame = game.getStartGame();
-            List<CardInputCopy> playerOneDeckInput
-                = inputData.getPlayerOneDecks().getDecks().get(startGame.getPlayerOneDeckIdx());
-            List<CardInputCopy> playerTwoDeckInput
-                = inputData.getPlayerTwoDecks().getDecks().get(startGame.getPlayerTwoDeckIdx());
-
-            List<CardInputCopy> playerOneDeckInputCopy = new ArrayList<>();
-            for (CardInputCopy card : playerOneDeckInput) {
-                playerOneDeckInputCopy.add(new CardInputCopy(card));
-            }
-
-            List<CardInputCopy> playerTwoDeckInputCopy = new ArrayList<>();
-            for (CardInputCopy card : playerTwoDeckInput) {
-                playerTwoDeckInputCopy.add(new CardInputCopy(card));
-            }
-
-            shuffleDecks(playerOneDeckInputCopy, playerTwoDeckInputCopy,
-                    startGame.getShuffleSeed());
-            initializePlayers(playerOneDeckInputCopy, playerTwoDeckInputCopy, startGame);
-            resetInitialGameState();
+            beginGame(game.getStartGame());
 
             for (ActionsInputCopy action : game.getActions()) {
-                ObjectNode outputNode = objectMapper.createObjectNode();
-                processAction(action, outputNode, startGame);
+                ObjectNode outputNode = executeAction(action);
                 if (!outputNode.isEmpty()) {
-                    output.add(outputNode);
+                    emit(outputNode);
                 }
             }
 
-            resetStateForNewGame();
+            endGame();
+        }
+    }
+
+    /**
+     * Sets up a single game: shuffles the selected decks, creates the players and draws
+     * the opening hands. A deck only creates its cards as they are drawn. Used by
+     * executeGame and by callers that drive the engine one action at a time. The Game
+     * event of the game starts here and is committed by endGame.
+     *
+     * @param startGame the starting parameters of the game
+     * @throws IllegalStateException if the engine was built without an input
+     */
+    public void beginGame(final StartGameInputCopy startGame) {
+        if (inputData == null) {
+            throw new IllegalStateException("No decks to deal from; build the engine with "
+                    + "the input of the match");
+        }
+        gameEvent = new GameEvent();
+        gameEvent.begin();
+        gameActions = 0;
+        List<CardInputCopy> playerOneDeckInput
+            = inputData.getPlayerOneDecks().getDecks().get(startGame.getPlayerOneDeckIdx());
+        List<CardInputCopy> playerTwoDeckInput
+            = inputData.getPlayerTwoDecks().getDecks().get(startGame.getPlayerTwoDeckIdx());
+
+        currentStartGame = startGame;
+        gameEnded = false;
+        initializePlayers(playerOneDeckInput, playerTwoDeckInput, startGame);
+        resetInitialGameState();
+        if (EngineMetrics.isEnabled()) {
+            EngineMetrics.recordGameStarted();
+            finishUnrecorded = true;
+        }
+    }
+
+    /**
+     * Applies one action to the game started by beginGame.
+     *
+     * @param action the action to apply
+     * @return the output node of the action, empty if the action produced no output
+     */
+    public ObjectNode executeAction(final ActionsInputCopy action) {
+        ObjectNode outputNode = objectMapper.createObjectNode();
+        gameActions++;
+        processAction(action, outputNode, currentStartGame);
+        return outputNode;
+    }
+
+    /**
+     * Applies a batch of actions, in order, to the game started by beginGame.
+     *
+     * @param actions     the actions
+     * @param stopOnError whether to stop after the first rejected action
+     * @param outputs     receives one output node per applied action, empty ones included,
+     *                    so the position of a node is the index of its action
+     * @return the number of actions applied
+     */
+    public int executeBatch(final List<ActionsInputCopy> actions, final boolean stopOnError,
+                            final ArrayNode outputs) {
+        int applied = 0;
+        for (ActionsInputCopy action : actions) {
+            ObjectNode outputNode = executeAction(action);
+            outputs.add(outputNode);
+            applied++;
+            if (stopOnError && errorOf(outputNode) != null) {
+                break;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Finishes the game started by beginGame and prepares the executor for the next one.
+     */
+    public void endGame() {
+        commitGameEvent();
+        recordFinish();
+        resetStateForNewGame();
+    }
+
+    /**
+     * Commits the Game event begun by beginGame, if any; a restored game has none.
+     */
+    private void commitGameEvent() {
+        GameEvent event = gameEvent;
+        gameEvent = null;
+        if (event == null || !event.shouldCommit()) {
+            return;
+        }
+        event.setGameNumber(gamesPlayed);
+        event.setShuffleSeed(currentStartGame.getShuffleSeed());
+        event.setStartingPlayer(currentStartGame.getStartingPlayer());
+        event.setActions(gameActions);
+        event.setWinner(winnerOfCurrentGame());
+        event.setBoardOccupancy(boardOccupancy());
+        event.commit();
+    }
+
+    /**
+     * Counts the game as finished, once, when a hero falls or at endGame, whichever
+     * comes first, so drivers that keep an ended game on show are counted too. Only a
+     * game whose start was counted is, which keeps the active count balanced.
+     */
+    private void recordFinish() {
+        if (finishUnrecorded) {
+            finishUnrecorded = false;
+            EngineMetrics.recordGameFinished(winnerOfCurrentGame());
         }
     }
 
-    private void shuffleDecks(final List<CardInputCopy> playerOneDeck,
-                              final List<CardInputCopy> playerTwoDeck, final long seed) {
-        Collections.shuffle(playerOneDeck, new Random(seed));
-        Collections.shuffle(playerTwoDeck, new Random(seed));
+    private void emit(final ObjectNode outputNode) {
+        if (outputGenerator == null) {
+            output.add(outputNode);
+            return;
+        }
+        try {
+            outputGenerator.writeTree(outputNode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private void resetInitialGameState() {
@@ -114,6 +236,87 @@ public class GameExecutor {
 
     private void processAction(final ActionsInputCopy action, final ObjectNode outputNode,
                                final StartGameInputCopy startGame) {
+        if (actionRecorder != null) {
+            actionRecorder.onAction(this, action);
+        }
+        ActionEvent event = new ActionEvent();
+        event.begin();
+        int playerIdx = playerOne.isTurn() ? 1 : 2;
+
+        if (EngineMetrics.isEnabled()) {
+            long start = System.nanoTime();
+            dispatchAction(action, outputNode, startGame);
+            EngineMetrics.record(action.getCommand(), errorOf(outputNode),
+                    System.nanoTime() - start);
+        } else {
+            dispatchAction(action, outputNode, startGame);
+        }
+
+        if (event.shouldCommit()) {
+            event.setCommand(action.getCommand());
+            event.setPlayerIdx(playerIdx);
+            event.setError(errorOf(outputNode) != null);
+            event.setBoardOccupancy(boardOccupancy());
+            event.commit();
+        }
+    }
+
+    private int boardOccupancy() {
+        int cards = 0;
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            cards += board.getRow(row).size();
+        }
+        return cards;
+    }
+
+    private int winnerOfCurrentGame() {
+        if (!gameEnded) {
+            return 0;
+        }
+        return playerOne.getHero().getHealth() <= 0 ? 2 : 1;
+    }
+
+    /**
+     * Chooses how the next games shuffle their decks. On demand, a deck works out its
+     * order only as far as it is drawn, which makes setting up a huge deck cheap, but
+     * the order differs from the standard shuffle and so do the outputs. Off by default,
+     * or as set by the gwentstone.deck.drawOnDemand property.
+     *
+     * @param drawOnDemand whether to shuffle the decks on demand
+     */
+    public void setDrawOnDemand(final boolean drawOnDemand) {
+        this.drawOnDemand = drawOnDemand;
+    }
+
+    /**
+     * Tells whether new executors shuffle their decks on demand, as set by the
+     * gwentstone.deck.drawOnDemand property.
+     *
+     * @return the default of setDrawOnDemand
+     */
+    public static boolean isDrawOnDemandDefault() {
+        return DRAW_ON_DEMAND;
+    }
+
+    /**
+     * Gets the error an action reported in its output node.
+     *
+     * @param outputNode the output node of one action
+     * @return the error message, or null if the action succeeded
+     */
+    public static String errorOf(final ObjectNode outputNode) {
+        if (outputNode.has("error")) {
+            return outputNode.get("error").asText();
+        }
+        // a full row is reported by GameBoard.placeCard under "message"
+        if (outputNode.has("message")) {
+            return outputNode.get("message").asText();
+        }
+        return null;
+    }
+
+    private void dispatchAction(final ActionsInputCopy action, final ObjectNode outputNode,
+                                final StartGameInputCopy startGame) {
         switch (action.getCommand()) {
             case "getPlayerDeck":
                 handleGetPlayerDeck(action, outputNode);
@@ -253,20 +456,27 @@ public class GameExecutor {
             return;
         }
 
-        if (playerOne.isTurn()) {
-            playerTwo.getHero().reduceHealth(attackerCard.getAttackDamage());
-        } else {
-            playerOne.getHero().reduceHealth(attackerCard.getAttackDamage());
-        }
+        Player enemy = playerOne.isTurn() ? playerTwo : playerOne;
+        enemy.getHero().reduceHealth(attackerCard.getAttackDamage());
 
         attackerCard.setHasAttacked(attackerCard, true);
+        if (stateListener != null) {
+            stateListener.onChange(StateChange.cardUpdated(attackerRow, attackerColumn,
+                    attackerCard));
+            stateListener.onChange(StateChange.heroDamaged(enemy.getPlayerIdx(),
+                    enemy.getHero().getHealth()));
+        }
 
         if (playerOne.getHero().getHealth() <= 0) {
             outputNode.put("gameEnded", "Player two killed the enemy hero.");
             gamesWonPlayerTwo++;
+            gameEnded = true;
+            recordFinish();
         } else if (playerTwo.getHero().getHealth() <= 0) {
             outputNode.put("gameEnded", "Player one killed the enemy hero.");
             gamesWonPlayerOne++;
+            gameEnded = true;
+            recordFinish();
         }
     }
 
@@ -274,8 +484,63 @@ public class GameExecutor {
         int afectedRow = action.getAffectedRow();
         Hero hero = (playerOne.isTurn()) ? playerOne.getHero() : playerTwo.getHero();
 
+        if (stateListener == null) {
+            hero.usePower(hero, outputNode, afectedRow, board, playerOne, playerTwo);
+            return;
+        }
+
+        Player currentPlayer = playerOne.isTurn() ? playerOne : playerTwo;
+        boolean usedBefore = hero.getHasUsedAbility(hero);
+        int destroyed = "Empress Thorina".equals(hero.getName())
+                ? highestHealthColumn(afectedRow) : -1;
         hero.usePower(hero, outputNode, afectedRow, board, playerOne, playerTwo);
+        if (usedBefore || !hero.getHasUsedAbility(hero)) {
+            return;
+        }
+        emitHeroAbility(hero.getName(), afectedRow, destroyed);
+        stateListener.onChange(StateChange.manaChanged(currentPlayer.getPlayerIdx(),
+                currentPlayer.getMana()));
+        stateListener.onChange(StateChange.heroAbilityUsed(currentPlayer.getPlayerIdx()));
+    }
+
+    private void emitHeroAbility(final String heroName, final int row, final int destroyed) {
+        switch (heroName) {
+            case "Lord Royce":
+                stateListener.onChange(StateChange.rowFrozen(row));
+                break;
+            case "Empress Thorina":
+                if (destroyed >= 0) {
+                    stateListener.onChange(StateChange.cardRemoved(row, destroyed));
+                }
+                break;
+            case "King Mudface":
+                stateListener.onChange(StateChange.rowBuffed(row, 0, 1));
+                break;
+            case "General Kocioraw":
+                stateListener.onChange(StateChange.rowBuffed(row, 1, 0));
+                break;
+            default:
+                break;
+        }
+    }
 
+    /**
+     * Mirrors the target choice of Empress Thorina: the leftmost card with the most health.
+     */
+    private int highestHealthColumn(final int row) {
+        if (row < 0 || row >= BOARD_ROWS) {
+            return -1;
+        }
+        List<Card> cards = board.getRow(row);
+        int column = -1;
+        int maxHealth = 0;
+        for (int i = 0; i < cards.size(); i++) {
+            if (cards.get(i).getHealth() > maxHealth) {
+                maxHealth = cards.get(i).getHealth();
+                column = i;
+            }
+        }
+        return column;
     }
 
     private void handleCardUsesAbility(final ActionsInputCopy action, final ObjectNode outputNode) {
@@ -340,6 +605,12 @@ public class GameExecutor {
             }
             discipleusesability(attackedCard);
             attackerCard.setHasUsedAbility(true);
+            if (stateListener != null) {
+                stateListener.onChange(StateChange.cardUpdated(attackedRow, attackedColumn,
+                        attackedCard));
+                stateListener.onChange(StateChange.cardUpdated(attackerRow, attackerColumn,
+                        attackerCard));
+            }
             return;
         }
 
@@ -386,9 +657,18 @@ public class GameExecutor {
         }
 
         attackerCard.setHasUsedAbility(true);
+        if (stateListener != null) {
+            stateListener.onChange(StateChange.cardUpdated(attackerRow, attackerColumn,
+                    attackerCard));
+            stateListener.onChange(StateChange.cardUpdated(attackedRow, attackedColumn,
+                    attackedCard));
+        }
 
         if (attackedCard.getHealth() <= 0) {
             board.removeCardFromRow(attackedRow, attackedColumn);
+            if (stateListener != null) {
+                stateListener.onChange(StateChange.cardRemoved(attackedRow, attackedColumn));
+            }
         }
     }
 
@@ -559,9 +839,19 @@ public class GameExecutor {
 
         attackerCard.setHasAttacked(attackerCard, true);
         attackedCard.reduceHealth(attackerCard.getAttackDamage());
+        if (stateListener != null) {
+            stateListener.onChange(StateChange.cardUpdated(attackerRow, attackerColumn,
+                    attackerCard));
+        }
 
         if (attackedCard.getHealth() <= 0) {
             board.removeCardFromRow(attackedRow, attackedColumn);
+            if (stateListener != null) {
+                stateListener.onChange(StateChange.cardRemoved(attackedRow, attackedColumn));
+            }
+        } else if (stateListener != null) {
+            stateListener.onChange(StateChange.cardDamaged(attackedRow, attackedColumn,
+                    attackedCard.getHealth()));
         }
     }
 
@@ -570,9 +860,26 @@ public class GameExecutor {
         outputNode.put("playerIdx", action.getPlayerIdx());
         ArrayNode deckOutput = outputNode.putArray("output");
 
-        List<Card> selectedDeck = (action.getPlayerIdx() == 1) ? playerOne.getDeck().getCards()
-                : playerTwo.getDeck().getCards();
-        for (Card card : selectedDeck) {
+        Deck deck = (action.getPlayerIdx() == 1) ? playerOne.getDeck() : playerTwo.getDeck();
+        if (deck.isLazy()) {
+            // rendered from the templates, as createCardFromInput would build the cards
+            for (CardInputCopy input : deck.getTemplates()) {
+                boolean hero = isHeroName(input.getName());
+                ObjectNode cardNode = deckOutput.addObject();
+                cardNode.put("mana", input.getMana());
+                cardNode.put("attackDamage", hero ? 0 : input.getAttackDamage());
+                cardNode.put("health", hero ? INITIAL_HEALTH : input.getHealth());
+                cardNode.put("description", input.getDescription());
+
+                ArrayNode colorsNode = cardNode.putArray("colors");
+                for (String color : input.getColors()) {
+                    colorsNode.add(color);
+                }
+                cardNode.put("name", input.getName());
+            }
+            return;
+        }
+        for (Card card : deck.getCards()) {
             ObjectNode cardNode = deckOutput.addObject();
             cardNode.put("mana", card.getMana());
             cardNode.put("attackDamage", card.getAttackDamage());
@@ -606,19 +913,49 @@ public class GameExecutor {
 
     private void handleEndPlayerTurn(final StartGameInputCopy startGame,
                                      final ObjectNode outputNode) {
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        int endingPlayer = playerOne.isTurn() ? 1 : 2;
+        boolean newRound = false;
+
         resetHeroConsequences();
         toggleTurns();
         if ((playerOne.isTurn() && startGame.getStartingPlayer() == 1)
                 || (playerTwo.isTurn() && startGame.getStartingPlayer() == 2)) {
+            newRound = true;
             currentRound++;
             incrementMana();
-            playerOne.drawCard();
-            playerTwo.drawCard();
+            drawAndReport(playerOne);
+            drawAndReport(playerTwo);
             resetHasAttacked();
             resetHasUsedAbility();
             resetHeroState();
+            if (stateListener != null) {
+                stateListener.onChange(StateChange.manaChanged(1, playerOne.getMana()));
+                stateListener.onChange(StateChange.manaChanged(2, playerTwo.getMana()));
+            }
+        }
+        if (stateListener != null) {
+            stateListener.onChange(StateChange.turnEnded(endingPlayer == 1 ? 2 : 1,
+                    currentRound));
         }
 
+        if (event.shouldCommit()) {
+            event.setPlayerIdx(endingPlayer);
+            event.setRound(currentRound);
+            event.setNewRound(newRound);
+            event.setBoardOccupancy(boardOccupancy());
+            event.commit();
+        }
+    }
+
+    private void drawAndReport(final Player player) {
+        int handSize = player.getHand().getSize();
+        player.drawCard();
+        if (stateListener != null && player.getHand().getSize() > handSize) {
+            stateListener.onChange(StateChange.cardDrawn(player.getPlayerIdx(),
+                    player.getHand().getCard(handSize)));
+        }
     }
 
     private void resetHeroState() {
@@ -757,7 +1094,14 @@ public class GameExecutor {
             return;
         }
 
+        int rowSize = board.getRow(targetRow).size();
         currentPlayer.playCard(handIndex, targetRow, outputNode, board);
+        if (stateListener != null && board.getRow(targetRow).size() > rowSize) {
+            stateListener.onChange(StateChange.cardPlaced(currentPlayer.getPlayerIdx(),
+                    handIndex, targetRow, rowSize, cardToPlace));
+            stateListener.onChange(StateChange.manaChanged(currentPlayer.getPlayerIdx(),
+                    currentPlayer.getMana()));
+        }
 
     }
 
@@ -767,11 +1111,11 @@ public class GameExecutor {
         Hand playerOneHand = new Hand();
         Hand playerTwoHand = new Hand();
 
-        List<Card> playerOneDeckCards = convertToCardList(playerOneDeckInput);
-        List<Card> playerTwoDeckCards = convertToCardList(playerTwoDeckInput);
-
-        Deck playerOneDeck = new Deck(playerOneDeckCards);
-        Deck playerTwoDeck = new Deck(playerTwoDeckCards);
+        // both decks are shuffled with their own source seeded alike
+        Deck playerOneDeck = new Deck(playerOneDeckInput,
+                new Random(startGame.getShuffleSeed()), this::createCardFromInput, drawOnDemand);
+        Deck playerTwoDeck = new Deck(playerTwoDeckInput,
+                new Random(startGame.getShuffleSeed()), this::createCardFromInput, drawOnDemand);
 
         Hero heroOne = new Hero(startGame.getPlayerOneHero().getMana(), INITIAL_HEALTH, 0,
                 startGame.getPlayerOneHero().getDescription(),
@@ -796,18 +1140,13 @@ public class GameExecutor {
         }
     }
 
-    private List<Card> convertToCardList(final List<CardInputCopy> cardInputCopies) {
-        List<Card> cards = new ArrayList<>();
-        for (CardInputCopy input : cardInputCopies) {
-            cards.add(createCardFromInput(input));
-        }
-        return cards;
+    private static boolean isHeroName(final String name) {
+        return name.equals("Lord Royce") || name.equals("Empress Thorina")
+                || name.equals("King Mudface") || name.equals("General Kocioraw");
     }
 
     private Card createCardFromInput(final CardInputCopy input) {
-        if (input.getName().equals("Lord Royce") || input.getName().equals("Empress Thorina")
-                || input.getName().equals("King Mudface")
-                || input.getName().equals("General Kocioraw")) {
+        if (isHeroName(input.getName())) {
             return new Hero(input.getMana(), INITIAL_HEALTH, 0, input.getDescription(),
                     input.getName(), new ArrayList<>(input.getColors()), "hero",
                     input.getName(), "Ability");
@@ -867,6 +1206,101 @@ public class GameExecutor {
         return board;
     }
 
+    /**
+     * Sets the listener notified of every state change, or null to stop reporting.
+     *
+     * @param listener the listener
+     */
+    public void setStateChangeListener(final StateChangeListener listener) {
+        this.stateListener = listener;
+    }
+
+    /**
+     * Sets the recorder that sees each action before it is applied, or null for none.
+     *
+     * @param recorder the recorder
+     */
+    public void setActionRecorder(final ActionRecorder recorder) {
+        this.actionRecorder = recorder;
+    }
+
+    /**
+     * Gets the starting parameters of the game in progress.
+     *
+     * @return the parameters passed to beginGame or restoreGame
+     */
+    public StartGameInputCopy getCurrentStartGame() {
+        return currentStartGame;
+    }
+
+    /**
+     * Replaces the game in progress with a saved position, instead of beginGame. Used by
+     * replay tools that seek into a recorded match.
+     *
+     * @param startGame the starting parameters of the saved game
+     * @param one       player one, with hand, deck and hero
+     * @param two       player two, with hand, deck and hero
+     * @param rows      the cards of the board rows, row 0 first
+     * @param round     the current round
+     * @param ended     whether a hero has already fallen
+     */
+    public void restoreGame(final StartGameInputCopy startGame, final Player one,
+                            final Player two, final List<List<Card>> rows, final int round,
+                            final boolean ended) {
+        currentStartGame = startGame;
+        gameEvent = null;
+        playerOne = one;
+        playerTwo = two;
+        board.resetBoard();
+        for (int row = 0; row < rows.size(); row++) {
+            for (Card card : rows.get(row)) {
+                board.addCardToRow(row, card);
+            }
+        }
+        currentRound = round;
+        gameEnded = ended;
+    }
+
+    /**
+     * Restores the counters answered by getTotalGamesPlayed and the win queries.
+     *
+     * @param played the games played, counting the one in progress
+     * @param wonOne the games won by player one
+     * @param wonTwo the games won by player two
+     */
+    public void restoreCounters(final int played, final int wonOne, final int wonTwo) {
+        gamesPlayed = played;
+        gamesWonPlayerOne = wonOne;
+        gamesWonPlayerTwo = wonTwo;
+    }
+
+    /**
+     * Gets the winner of the game in progress.
+     *
+     * @return 1 or 2 once a hero has fallen, 0 before that
+     */
+    public int getWinner() {
+        return winnerOfCurrentGame();
+    }
+
+    /**
+     * Gets the round of the game currently in progress.
+     *
+     * @return the current round number
+     */
+    public int getCurrentRound() {
+        return currentRound;
+    }
+
+    /**
+     * Checks whether a hero has been killed in the game currently in progress.
+     *
+     * @return true if the current game has a winner, false otherwise
+     */
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
     /**
      * Gets the total number of games played.
      *
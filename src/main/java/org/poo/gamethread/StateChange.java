@@ -0,0 +1,253 @@
+package org.poo.gamethread;
+
+import org.poo.cards.Card;
+
+/**
+ * One change to the state of a game, as reported to a StateChangeListener.
+ * Fields that do not apply to the change type are NONE (or null for the card).
+ */
+public final class StateChange {
+
+    /**
+     * Value of the int fields that do not apply to a change. Hero health can go below
+     * zero on the killing blow, so -1 is not free.
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    /**
+     * The kinds of change the engine reports.
+     */
+    public enum Type {
+        /** The card at handIdx in the hand of playerIdx moved to (row, column). */
+        CARD_PLACED,
+        /** The card at (row, column) lost health in an attack; health is the new value. */
+        CARD_DAMAGED,
+        /**
+         * The card at (row, column) changed through an ability, or attacked or used its
+         * own; attackDamage, health and both flags are its new values.
+         */
+        CARD_UPDATED,
+        /** The card at (row, column) left the board; cards to its right shift left. */
+        CARD_REMOVED,
+        /** Every card on row gained attackDamage attack and health health. */
+        ROW_BUFFED,
+        /** Every card on row was frozen. */
+        ROW_FROZEN,
+        /** Player playerIdx now has mana mana. */
+        MANA_CHANGED,
+        /** The hero of playerIdx now has health health. */
+        HERO_DAMAGED,
+        /** Player playerIdx drew card into the end of the hand. */
+        CARD_DRAWN,
+        /** The hero of playerIdx used its ability this round. */
+        HERO_ABILITY_USED,
+        /**
+         * The turn passed to playerIdx, now in round; the other player's cards thawed. When
+         * round is new, every card and hero lost its attacked and used ability flags.
+         */
+        TURN_ENDED
+    }
+
+    private final Type type;
+    private final int playerIdx;
+    private final int handIdx;
+    private final int row;
+    private final int column;
+    private final int attackDamage;
+    private final int health;
+    private final int mana;
+    private final int round;
+    private final Card card;
+    private final boolean hasAttacked;
+    private final boolean hasUsedAbility;
+
+    private StateChange(final Type type, final int playerIdx, final int handIdx,
+                        final int row, final int column, final int attackDamage,
+                        final int health, final int mana, final int round, final Card card,
+                        final boolean hasAttacked, final boolean hasUsedAbility) {
+        this.type = type;
+        this.playerIdx = playerIdx;
+        this.handIdx = handIdx;
+        this.row = row;
+        this.column = column;
+        this.attackDamage = attackDamage;
+        this.health = health;
+        this.mana = mana;
+        this.round = round;
+        this.card = card;
+        this.hasAttacked = hasAttacked;
+        this.hasUsedAbility = hasUsedAbility;
+    }
+
+    private StateChange(final Type type, final int playerIdx, final int handIdx,
+                        final int row, final int column, final int attackDamage,
+                        final int health, final int mana, final int round, final Card card) {
+        this(type, playerIdx, handIdx, row, column, attackDamage, health, mana, round, card,
+                false, false);
+    }
+
+    static StateChange cardPlaced(final int playerIdx, final int handIdx, final int row,
+                                  final int column, final Card card) {
+        return new StateChange(Type.CARD_PLACED, playerIdx, handIdx, row, column,
+                NONE, NONE, NONE, NONE, card);
+    }
+
+    static StateChange cardDamaged(final int row, final int column, final int health) {
+        return new StateChange(Type.CARD_DAMAGED, NONE, NONE, row, column,
+                NONE, health, NONE, NONE, null);
+    }
+
+    static StateChange cardUpdated(final int row, final int column, final Card card) {
+        return new StateChange(Type.CARD_UPDATED, NONE, NONE, row, column,
+                card.getAttackDamage(), card.getHealth(), NONE, NONE, null,
+                card.getHasAttacked(card), card.getHasUsedAbility(card));
+    }
+
+    static StateChange cardRemoved(final int row, final int column) {
+        return new StateChange(Type.CARD_REMOVED, NONE, NONE, row, column,
+                NONE, NONE, NONE, NONE, null);
+    }
+
+    static StateChange rowBuffed(final int row, final int attackDamage, final int health) {
+        return new StateChange(Type.ROW_BUFFED, NONE, NONE, row, NONE,
+                attackDamage, health, NONE, NONE, null);
+    }
+
+    static StateChange rowFrozen(final int row) {
+        return new StateChange(Type.ROW_FROZEN, NONE, NONE, row, NONE,
+                NONE, NONE, NONE, NONE, null);
+    }
+
+    static StateChange manaChanged(final int playerIdx, final int mana) {
+        return new StateChange(Type.MANA_CHANGED, playerIdx, NONE, NONE, NONE,
+                NONE, NONE, mana, NONE, null);
+    }
+
+    static StateChange heroDamaged(final int playerIdx, final int health) {
+        return new StateChange(Type.HERO_DAMAGED, playerIdx, NONE, NONE, NONE,
+                NONE, health, NONE, NONE, null);
+    }
+
+    static StateChange heroAbilityUsed(final int playerIdx) {
+        return new StateChange(Type.HERO_ABILITY_USED, playerIdx, NONE, NONE, NONE,
+                NONE, NONE, NONE, NONE, null);
+    }
+
+    static StateChange cardDrawn(final int playerIdx, final Card card) {
+        return new StateChange(Type.CARD_DRAWN, playerIdx, NONE, NONE, NONE,
+                NONE, NONE, NONE, NONE, card);
+    }
+
+    static StateChange turnEnded(final int playerIdx, final int round) {
+        return new StateChange(Type.TURN_ENDED, playerIdx, NONE, NONE, NONE,
+                NONE, NONE, NONE, round, null);
+    }
+
+    /**
+     * Gets the change type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the player the change refers to.
+     *
+     * @return 1, 2 or NONE
+     */
+    public int getPlayerIdx() {
+        return playerIdx;
+    }
+
+    /**
+     * Gets the hand index the placed card came from.
+     *
+     * @return the index for CARD_PLACED, NONE otherwise
+     */
+    public int getHandIdx() {
+        return handIdx;
+    }
+
+    /**
+     * Gets the board row.
+     *
+     * @return the row or NONE
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the board column.
+     *
+     * @return the column or NONE
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /**
+     * Gets the attack damage, or the attack bonus for ROW_BUFFED.
+     *
+     * @return the attack damage or NONE
+     */
+    public int getAttackDamage() {
+        return attackDamage;
+    }
+
+    /**
+     * Gets the health, or the health bonus for ROW_BUFFED.
+     *
+     * @return the health or NONE
+     */
+    public int getHealth() {
+        return health;
+    }
+
+    /**
+     * Gets the mana.
+     *
+     * @return the mana or NONE
+     */
+    public int getMana() {
+        return mana;
+    }
+
+    /**
+     * Gets the round.
+     *
+     * @return the round for TURN_ENDED, NONE otherwise
+     */
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * Gets the card placed or drawn. Only valid during the listener call.
+     *
+     * @return the card or null
+     */
+    public Card getCard() {
+        return card;
+    }
+
+    /**
+     * Tells whether the updated card has attacked this round.
+     *
+     * @return the flag for CARD_UPDATED, false otherwise
+     */
+    public boolean getHasAttacked() {
+        return hasAttacked;
+    }
+
+    /**
+     * Tells whether the updated card has used its ability this round.
+     *
+     * @return the flag for CARD_UPDATED, false otherwise
+     */
+    public boolean getHasUsedAbility() {
+        return hasUsedAbility;
+    }
+}
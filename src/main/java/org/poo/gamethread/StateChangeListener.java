@@ -0,0 +1,16 @@
+package org.poo.gamethread;
+
+/**
+ * Receives the state changes made by GameExecutor's mutating handlers, in the order
+ * they happen. Called synchronously on the engine thread; cards referenced by a change
+ * keep mutating afterwards, so listeners must copy what they need before returning.
+ */
+public interface StateChangeListener {
+
+    /**
+     * Called after the engine changed its state.
+     *
+     * @param change the change
+     */
+    void onChange(StateChange change);
+}
@@ -0,0 +1,153 @@
+package org.poo.generator;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.gamethread.GameExecutor;
+import org.poo.players.Player;
+import org.poo.utils.ActionsInputCopy;
+
+import java.util.List;
+
+/**
+ * Rules that must hold between any two actions of any game, checked by RulesFuzzer.
+ * Call before with the state ahead of an action and after once it has been applied;
+ * after names the first rule broken, as "rule: details", or returns null.
+ */
+final class Invariants {
+
+    private static final int BOARD_ROWS = 4;
+    private static final int MAX_ROW_SIZE = 5;
+
+    private int round;
+    private boolean playerOneTurn;
+    private boolean ended;
+    private int wonOne;
+    private int wonTwo;
+
+    /**
+     * Records the state the next action starts from.
+     *
+     * @param game the engine
+     */
+    void before(final GameExecutor game) {
+        round = game.getCurrentRound();
+        playerOneTurn = game.getPlayerOne().isTurn();
+        ended = game.isGameEnded();
+        wonOne = game.getGamesWonPlayerOne();
+        wonTwo = game.getGamesWonPlayerTwo();
+    }
+
+    /**
+     * Checks the state an action left.
+     *
+     * @param game   the engine
+     * @param action the action just applied
+     * @param output its output node
+     * @return the broken rule, or null
+     */
+    String after(final GameExecutor game, final ActionsInputCopy action,
+                 final ObjectNode output) {
+        String broken = checkBoard(game);
+        if (broken == null) {
+            broken = checkMana(game);
+        }
+        if (broken == null && "endPlayerTurn".equals(action.getCommand())
+                && GameExecutor.errorOf(output) == null) {
+            broken = checkEndTurn(game);
+        }
+        if (broken == null) {
+            broken = checkWins(game);
+        }
+        return broken;
+    }
+
+    private static String checkBoard(final GameExecutor game) {
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            List<Card> cards = game.getBoard().getRow(row);
+            if (cards.size() > MAX_ROW_SIZE) {
+                return "row-size: row " + row + " holds " + cards.size() + " cards";
+            }
+            for (int col = 0; col < cards.size(); col++) {
+                if (cards.get(col).getHealth() <= 0) {
+                    return "board-health: " + cards.get(col).getName() + " at " + row + ","
+                            + col + " has health " + cards.get(col).getHealth();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String checkMana(final GameExecutor game) {
+        for (Player player : new Player[] {game.getPlayerOne(), game.getPlayerTwo()}) {
+            if (player.getMana() < 0) {
+                return "mana: player " + player.getPlayerIdx() + " has " + player.getMana();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The ending player's cards are unfrozen; a new round clears the attacked and used
+     * ability flags of every card and hero.
+     */
+    private String checkEndTurn(final GameExecutor game) {
+        if (game.getPlayerOne().isTurn() == playerOneTurn) {
+            return "end-turn: the turn did not pass";
+        }
+        int firstRow = playerOneTurn ? 2 : 0;
+        for (int row = firstRow; row < firstRow + 2; row++) {
+            for (Card card : game.getBoard().getRow(row)) {
+                if (card.getIsFrozen(card)) {
+                    return "end-turn: " + card.getName() + " on row " + row
+                            + " still frozen after its owner's turn";
+                }
+            }
+        }
+        if (game.getCurrentRound() == round) {
+            return null;
+        }
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            for (Card card : game.getBoard().getRow(row)) {
+                if (card.getHasAttacked(card) || card.getHasUsedAbility(card)) {
+                    return "end-turn: " + card.getName() + " on row " + row
+                            + " kept its attacked or used ability flag into a new round";
+                }
+            }
+        }
+        for (Player player : new Player[] {game.getPlayerOne(), game.getPlayerTwo()}) {
+            Hero hero = player.getHero();
+            if (hero.getHasUsedAbility(hero)) {
+                return "end-turn: hero of player " + player.getPlayerIdx()
+                        + " kept its used ability flag into a new round";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A game ends exactly when a hero falls, and its end adds one win, to the winner.
+     */
+    private String checkWins(final GameExecutor game) {
+        int gainedOne = game.getGamesWonPlayerOne() - wonOne;
+        int gainedTwo = game.getGamesWonPlayerTwo() - wonTwo;
+        boolean heroDown = game.getPlayerOne().getHero().getHealth() <= 0
+                || game.getPlayerTwo().getHero().getHealth() <= 0;
+        if (heroDown && !game.isGameEnded()) {
+            return "win-counters: a hero fell but the game did not end";
+        }
+        if (ended || !game.isGameEnded()) {
+            if (gainedOne != 0 || gainedTwo != 0) {
+                return "win-counters: wins changed by " + gainedOne + "," + gainedTwo
+                        + " without a game ending";
+            }
+            return null;
+        }
+        int winner = game.getWinner();
+        if (gainedOne + gainedTwo != 1 || (winner == 1 ? gainedOne : gainedTwo) != 1) {
+            return "win-counters: player " + winner + " won but wins changed by "
+                    + gainedOne + "," + gainedTwo;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,451 @@
+package org.poo.generator;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.bots.Moves;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.CardInputCopy;
+import org.poo.utils.InputCopy;
+import org.poo.utils.StartGameInputCopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Property-based test of the rule handlers. Each case is random: one deck per player of
+ * random size and stats, one to three games with random heroes, seeds and starting
+ * players, played by random legal moves mixed with queries until a hero falls or a
+ * limit is reached. Invariants are checked after every action.
+ *
+ * Workers run in parallel, each drawing case seeds from its own seed, so a run is
+ * repeatable and any case can be replayed alone from its seed. The first failure stops
+ * every worker and is shrunk, by dropping games, actions and deck cards while the same
+ * rule still breaks, then written as an input file Main can run.
+ */
+public final class RulesFuzzer {
+
+    private static final int MAX_GAMES = 3;
+    private static final int MAX_DECK_SIZE = 15;
+    private static final int MAX_ACTIONS = 300;
+    private static final int MAX_ROUNDS = 30;
+    private static final int MAX_CARD_MANA = 10;
+    private static final int MAX_HERO_MANA = 10;
+    private static final int MAX_ATTACK = 10;
+    private static final int MAX_HEALTH = 10;
+    private static final int MAX_SHRINK_RUNS = 5000;
+    private static final int BOARD_ROWS = 4;
+    private static final int BOARD_COLUMNS = 5;
+    private static final int PLAYERS = 2;
+    private static final double QUERY_RATE = 0.1;
+    private static final long WORKER_SEED_STEP = 0x9E3779B97F4A7C15L;
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    private static final int ARG_SECONDS = 1;
+    private static final int ARG_SEED = 2;
+    private static final int DEFAULT_SECONDS = 60;
+
+    private final AtomicBoolean stop = new AtomicBoolean();
+    private final AtomicReference<Case> failure = new AtomicReference<>();
+    private final AtomicLong cases = new AtomicLong();
+    private final AtomicLong games = new AtomicLong();
+    private final AtomicLong actions = new AtomicLong();
+
+    /**
+     * Runs workers until the time is up or a case fails.
+     *
+     * @param workers the number of worker threads
+     * @param millis  how long to run
+     * @param seed    the seed the worker seeds are derived from
+     * @return the failing case, shrunk, or null if every case passed
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public Case run(final int workers, final long millis, final long seed)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + millis;
+        List<Thread> threads = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            Random seeds = new Random(seed + worker * WORKER_SEED_STEP);
+            Thread thread = new Thread(() -> work(seeds, deadline), "fuzz-worker-" + worker);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Case failed = failure.get();
+        return failed == null ? null : shrink(failed);
+    }
+
+    private void work(final Random seeds, final long deadline) {
+        while (!stop.get() && System.currentTimeMillis() < deadline) {
+            Case fuzzCase = generate(seeds.nextLong());
+            cases.incrementAndGet();
+            games.addAndGet(fuzzCase.starts.size());
+            for (List<ActionsInputCopy> played : fuzzCase.actions) {
+                actions.addAndGet(played.size());
+            }
+            if (fuzzCase.broken != null && failure.compareAndSet(null, fuzzCase)) {
+                stop.set(true);
+            }
+        }
+    }
+
+    /**
+     * Creates and plays the case of a seed.
+     *
+     * @param caseSeed the seed
+     * @return the case with the actions played, and the rule broken if any
+     */
+    public static Case generate(final long caseSeed) {
+        Random random = new Random(caseSeed);
+        Case fuzzCase = new Case(caseSeed, randomDeck(random), randomDeck(random));
+        int count = 1 + random.nextInt(MAX_GAMES);
+        for (int game = 0; game < count; game++) {
+            fuzzCase.starts.add(new StartGameInputCopy(0, 0, random.nextInt(Integer.MAX_VALUE),
+                    new CardInputCopy(randomHero(random)), new CardInputCopy(randomHero(random)),
+                    1 + random.nextInt(PLAYERS)));
+            fuzzCase.actions.add(new ArrayList<>());
+        }
+        fuzzCase.broken = play(fuzzCase, random);
+        return fuzzCase;
+    }
+
+    /**
+     * Plays a case, choosing its actions when a random source is given and replaying
+     * the recorded ones otherwise. Actions after a broken rule are dropped.
+     *
+     * @return the first broken rule, or null
+     */
+    private static String play(final Case fuzzCase, final Random chooser) {
+        GameExecutor game = new GameExecutor(new InputCopy(fuzzCase.input()),
+                new ObjectMapper().createArrayNode());
+        Invariants invariants = new Invariants();
+        for (int index = 0; index < fuzzCase.starts.size(); index++) {
+            List<ActionsInputCopy> played = fuzzCase.actions.get(index);
+            try {
+                game.beginGame(fuzzCase.starts.get(index));
+            } catch (RuntimeException e) {
+                truncateAfter(fuzzCase, index, -1);
+                return "exception: " + e + " starting game " + index;
+            }
+            for (int step = 0; chooser != null ? keepPlaying(game, step)
+                    : step < played.size(); step++) {
+                ActionsInputCopy action = chooser != null ? choose(game, chooser)
+                        : played.get(step);
+                if (chooser != null) {
+                    played.add(action);
+                }
+                invariants.before(game);
+                String broken;
+                try {
+                    ObjectNode output = game.executeAction(action);
+                    broken = invariants.after(game, action, output);
+                } catch (RuntimeException e) {
+                    broken = "exception: " + e;
+                }
+                if (broken != null) {
+                    truncateAfter(fuzzCase, index, step);
+                    return broken + " (game " + index + ", action " + step + ", "
+                            + action.getCommand() + ")";
+                }
+            }
+            game.endGame();
+        }
+        return null;
+    }
+
+    private static boolean keepPlaying(final GameExecutor game, final int step) {
+        return !game.isGameEnded() && game.getCurrentRound() <= MAX_ROUNDS
+                && step < MAX_ACTIONS;
+    }
+
+    private static ActionsInputCopy choose(final GameExecutor game, final Random random) {
+        if (random.nextDouble() < QUERY_RATE) {
+            String[] queries = WorkloadGenerator.QUERIES;
+            return Moves.query(queries[random.nextInt(queries.length)],
+                    1 + random.nextInt(PLAYERS), random.nextInt(BOARD_ROWS),
+                    random.nextInt(BOARD_COLUMNS));
+        }
+        List<ActionsInputCopy> moves = Moves.legalMoves(game);
+        return moves.get(random.nextInt(moves.size()));
+    }
+
+    private static void truncateAfter(final Case fuzzCase, final int game, final int step) {
+        while (fuzzCase.starts.size() > game + 1) {
+            fuzzCase.starts.remove(fuzzCase.starts.size() - 1);
+            fuzzCase.actions.remove(fuzzCase.actions.size() - 1);
+        }
+        List<ActionsInputCopy> played = fuzzCase.actions.get(game);
+        while (played.size() > step + 1) {
+            played.remove(played.size() - 1);
+        }
+    }
+
+    /**
+     * Shrinks a failing case: drops whole games, then runs of actions, halving the run
+     * length down to single actions, then single deck cards, keeping every removal after
+     * which the same rule still breaks. The passes repeat while any of them removes
+     * something, since a smaller deck can make more actions removable.
+     *
+     * @param failed the failing case
+     * @return the smallest failing case found
+     */
+    public static Case shrink(final Case failed) {
+        String rule = ruleOf(failed.broken);
+        Case best = failed;
+        int runs = 0;
+        Case before;
+        do {
+            before = best;
+            for (int game = best.starts.size() - 2; game >= 0 && runs < MAX_SHRINK_RUNS;
+                    game--) {
+                Case smaller = best.copy();
+                smaller.starts.remove(game);
+                smaller.actions.remove(game);
+                runs++;
+                best = keepIfFails(best, smaller, rule);
+            }
+            for (int game = 0; game < best.starts.size(); game++) {
+                for (int chunk = Math.max(1, best.actions.get(game).size() / 2); chunk >= 1;
+                        chunk /= 2) {
+                    for (int from = best.actions.get(game).size() - chunk; from >= 0
+                            && runs < MAX_SHRINK_RUNS; from -= chunk) {
+                        Case smaller = best.copy();
+                        smaller.actions.get(game).subList(from, from + chunk).clear();
+                        runs++;
+                        best = keepIfFails(best, smaller, rule);
+                    }
+                }
+            }
+            for (int player = 0; player < PLAYERS; player++) {
+                for (int card = best.deck(player).size() - 1;
+                        card >= 0 && runs < MAX_SHRINK_RUNS; card--) {
+                    Case smaller = best.copy();
+                    smaller.deck(player).remove(card);
+                    runs++;
+                    best = keepIfFails(best, smaller, rule);
+                }
+            }
+        } while (best != before && runs < MAX_SHRINK_RUNS);
+        return best;
+    }
+
+    private static Case keepIfFails(final Case best, final Case smaller, final String rule) {
+        smaller.broken = play(smaller, null);
+        return smaller.broken != null && ruleOf(smaller.broken).equals(rule) ? smaller : best;
+    }
+
+    private static String ruleOf(final String broken) {
+        int colon = broken.indexOf(':');
+        return colon < 0 ? broken : broken.substring(0, colon);
+    }
+
+    private static ArrayList<CardInput> randomDeck(final Random random) {
+        ArrayList<CardInput> deck = new ArrayList<>();
+        int size = random.nextInt(MAX_DECK_SIZE + 1);
+        for (int c = 0; c < size; c++) {
+            String name = WorkloadGenerator.MINIONS[random.nextInt(
+                    WorkloadGenerator.MINIONS.length)];
+            CardInput card = new CardInput();
+            card.setMana(random.nextInt(MAX_CARD_MANA + 1));
+            card.setAttackDamage(random.nextInt(MAX_ATTACK + 1));
+            card.setHealth(1 + random.nextInt(MAX_HEALTH));
+            card.setDescription("Fuzzed " + name + ".");
+            card.setColors(randomColors(random));
+            card.setName(name);
+            deck.add(card);
+        }
+        return deck;
+    }
+
+    private static CardInput randomHero(final Random random) {
+        String name = WorkloadGenerator.HEROES[random.nextInt(WorkloadGenerator.HEROES.length)];
+        CardInput hero = new CardInput();
+        hero.setMana(random.nextInt(MAX_HERO_MANA + 1));
+        hero.setDescription("Fuzzed " + name + ".");
+        hero.setColors(randomColors(random));
+        hero.setName(name);
+        return hero;
+    }
+
+    private static ArrayList<String> randomColors(final Random random) {
+        ArrayList<String> colors = new ArrayList<>();
+        colors.add(WorkloadGenerator.COLORS[random.nextInt(WorkloadGenerator.COLORS.length)]);
+        return colors;
+    }
+
+    /**
+     * Writes a case as an input file.
+     *
+     * @param fuzzCase the case
+     * @param file     the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final Case fuzzCase, final File file) throws IOException {
+        Input input = fuzzCase.input();
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeFieldName("playerOneDecks");
+            WorkloadGenerator.writeDecks(json, input.getPlayerOneDecks());
+            json.writeFieldName("playerTwoDecks");
+            WorkloadGenerator.writeDecks(json, input.getPlayerTwoDecks());
+            json.writeArrayFieldStart("games");
+            for (int game = 0; game < fuzzCase.starts.size(); game++) {
+                json.writeStartObject();
+                WorkloadGenerator.writeStartGame(json, fuzzCase.starts.get(game));
+                json.writeArrayFieldStart("actions");
+                for (ActionsInputCopy action : fuzzCase.actions.get(game)) {
+                    WorkloadGenerator.writeAction(json, action);
+                }
+                json.writeEndArray();
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Gets the totals of the last run.
+     *
+     * @param millis the time the run took
+     * @return a summary line
+     */
+    public String summary(final long millis) {
+        long perMinute = millis == 0 ? 0 : games.get() * MILLIS_PER_MINUTE / millis;
+        return cases.get() + " cases, " + games.get() + " games, " + actions.get()
+                + " actions in " + millis + " ms, " + perMinute + " games per minute";
+    }
+
+    /**
+     * One fuzz case: a deck per player, and the starting parameters and actions of each
+     * game, all played from deck 0 of each player.
+     */
+    public static final class Case {
+        private final long seed;
+        private final ArrayList<CardInput> deckOne;
+        private final ArrayList<CardInput> deckTwo;
+        private final List<StartGameInputCopy> starts = new ArrayList<>();
+        private final List<List<ActionsInputCopy>> actions = new ArrayList<>();
+        private String broken;
+
+        Case(final long seed, final ArrayList<CardInput> deckOne,
+             final ArrayList<CardInput> deckTwo) {
+            this.seed = seed;
+            this.deckOne = deckOne;
+            this.deckTwo = deckTwo;
+        }
+
+        /**
+         * Gets the seed the case was generated from.
+         *
+         * @return the case seed
+         */
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Gets the rule the case breaks.
+         *
+         * @return the rule and where it broke, or null if the case passed
+         */
+        public String getBroken() {
+            return broken;
+        }
+
+        /**
+         * Counts the actions of every game.
+         *
+         * @return the number of actions
+         */
+        public int getActionCount() {
+            int count = 0;
+            for (List<ActionsInputCopy> played : actions) {
+                count += played.size();
+            }
+            return count;
+        }
+
+        private ArrayList<CardInput> deck(final int player) {
+            return player == 0 ? deckOne : deckTwo;
+        }
+
+        private Case copy() {
+            Case copy = new Case(seed, new ArrayList<>(deckOne), new ArrayList<>(deckTwo));
+            copy.starts.addAll(starts);
+            for (List<ActionsInputCopy> played : actions) {
+                copy.actions.add(new ArrayList<>(played));
+            }
+            return copy;
+        }
+
+        private Input input() {
+            Input input = new Input();
+            input.setPlayerOneDecks(decks(deckOne));
+            input.setPlayerTwoDecks(decks(deckTwo));
+            input.setGames(new ArrayList<>());
+            return input;
+        }
+
+        private static DecksInput decks(final ArrayList<CardInput> deck) {
+            ArrayList<ArrayList<CardInput>> decks = new ArrayList<>();
+            decks.add(deck);
+            DecksInput decksInput = new DecksInput();
+            decksInput.setNrCardsInDeck(deck.size());
+            decksInput.setNrDecks(1);
+            decksInput.setDecks(decks);
+            return decksInput;
+        }
+    }
+
+    /**
+     * Fuzzes the rules from the command line, or replays one case.
+     * Usage: [workers [seconds [seed]]] | replay caseSeed
+     *
+     * @param args the command line arguments
+     * @throws IOException if the failing case cannot be written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && "replay".equals(args[0])) {
+            Case replayed = generate(Long.parseLong(args[1]));
+            System.out.println(replayed.broken == null ? "passed" : replayed.broken);
+            return;
+        }
+        int workers = args.length > 0 ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+        long seconds = args.length > ARG_SECONDS ? Long.parseLong(args[ARG_SECONDS])
+                : DEFAULT_SECONDS;
+        long seed = args.length > ARG_SEED ? Long.parseLong(args[ARG_SEED])
+                : System.nanoTime();
+        System.out.println("seed " + seed + ", " + workers + " workers");
+
+        RulesFuzzer fuzzer = new RulesFuzzer();
+        long start = System.currentTimeMillis();
+        Case failed = fuzzer.run(workers, seconds * MILLIS_PER_SECOND, seed);
+        System.out.println(fuzzer.summary(System.currentTimeMillis() - start));
+        if (failed != null) {
+            File file = new File("fuzz-" + failed.getSeed() + ".json");
+            write(failed, file);
+            System.out.println("case " + failed.getSeed() + " failed: " + failed.getBroken());
+            System.out.println("shrunk to " + failed.getActionCount() + " actions, written to "
+                    + file);
+            System.exit(1);
+        }
+    }
+}
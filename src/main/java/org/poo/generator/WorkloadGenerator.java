@@ -0,0 +1,336 @@
+package org.poo.generator;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.bots.Moves;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.CardInputCopy;
+import org.poo.utils.InputCopy;
+import org.poo.utils.StartGameInputCopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes large Input-compatible JSON files. Decks are random; every game is played
+ * while it is written, by a seeded random policy that only picks legal moves, so each
+ * game runs until a hero dies, the round limit or the action limit. Games are
+ * streamed through a JsonGenerator, so heap use does not grow with the file size.
+ */
+public final class WorkloadGenerator {
+
+    static final String[] MINIONS = {"Sentinel", "Berserker", "Goliath", "Warden",
+        "The Ripper", "Miraj", "The Cursed One", "Disciple"};
+    static final String[] HEROES = {"Lord Royce", "Empress Thorina", "King Mudface",
+        "General Kocioraw"};
+    static final String[] COLORS = {"Red", "Blue", "Green", "Yellow", "White",
+        "Black", "Purple", "Grey", "Brown"};
+    static final String[] QUERIES = {"getPlayerDeck", "getPlayerHero",
+        "getPlayerTurn", "getPlayerMana", "getCardsInHand", "getCardsOnTable",
+        "getCardAtPosition", "getFrozenCardsOnTable", "getPlayerOneWins", "getPlayerTwoWins",
+        "getTotalGamesPlayed"};
+
+    private static final int MAX_CARD_MANA = 6;
+    private static final int MAX_HERO_MANA = 3;
+    private static final int MAX_ATTACK = 6;
+    private static final int MAX_HEALTH = 8;
+    private static final int MAX_COLORS = 3;
+    private static final int BOARD_ROWS = 4;
+    private static final int BOARD_COLUMNS = 5;
+    private static final int PLAYERS = 2;
+    private static final int ARG_CARDS = 2;
+    private static final int ARG_GAMES = 3;
+    private static final int ARG_ACTIONS = 4;
+    private static final int ARG_SEED = 5;
+    private static final int ARG_MAX_ROUNDS = 6;
+    private static final int ARG_COUNT = 6;
+    private static final int DEFAULT_MAX_ROUNDS = 50;
+    private static final double QUERY_RATE = 0.25;
+
+    private final int nrDecks;
+    private final int cardsPerDeck;
+    private final int games;
+    private final int actionsPerGame;
+    private final int maxRounds;
+    private final Random random;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param nrDecks        the number of decks of each player
+     * @param cardsPerDeck   the number of cards in every deck
+     * @param games          the number of games
+     * @param actionsPerGame the maximum number of actions of a game
+     * @param maxRounds      the round after which a game is cut off
+     * @param seed           the seed of all random choices
+     */
+    public WorkloadGenerator(final int nrDecks, final int cardsPerDeck, final int games,
+                             final int actionsPerGame, final int maxRounds, final long seed) {
+        this.nrDecks = nrDecks;
+        this.cardsPerDeck = cardsPerDeck;
+        this.games = games;
+        this.actionsPerGame = actionsPerGame;
+        this.maxRounds = maxRounds;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generates the whole input file.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void generate(final File file) throws IOException {
+        Input input = new Input();
+        input.setPlayerOneDecks(randomDecks());
+        input.setPlayerTwoDecks(randomDecks());
+        input.setGames(new ArrayList<>());
+        InputCopy decks = new InputCopy(input);
+        GameExecutor executor = new GameExecutor(decks, new ObjectMapper().createArrayNode());
+
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeFieldName("playerOneDecks");
+            writeDecks(json, input.getPlayerOneDecks());
+            json.writeFieldName("playerTwoDecks");
+            writeDecks(json, input.getPlayerTwoDecks());
+            json.writeArrayFieldStart("games");
+            for (int game = 0; game < games; game++) {
+                writeGame(json, executor);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    private void writeGame(final JsonGenerator json, final GameExecutor executor)
+            throws IOException {
+        StartGameInputCopy startGame = new StartGameInputCopy(random.nextInt(nrDecks),
+                random.nextInt(nrDecks), random.nextInt(Integer.MAX_VALUE),
+                new CardInputCopy(randomHero()), new CardInputCopy(randomHero()),
+                1 + random.nextInt(PLAYERS));
+
+        json.writeStartObject();
+        writeStartGame(json, startGame);
+        json.writeArrayFieldStart("actions");
+        executor.beginGame(startGame);
+        int written = 0;
+        while (!executor.isGameEnded() && executor.getCurrentRound() <= maxRounds
+                && written < actionsPerGame) {
+            if (random.nextDouble() < QUERY_RATE) {
+                writeAction(json, randomQuery());
+            } else {
+                List<ActionsInputCopy> moves = Moves.legalMoves(executor);
+                ActionsInputCopy move = moves.get(random.nextInt(moves.size()));
+                executor.executeAction(move);
+                writeAction(json, move);
+            }
+            written++;
+        }
+        executor.endGame();
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    /**
+     * Writes the startGame field of a game.
+     *
+     * @param json      the generator, inside the game object
+     * @param startGame the starting parameters
+     * @throws IOException if the output cannot be written
+     */
+    static void writeStartGame(final JsonGenerator json, final StartGameInputCopy startGame)
+            throws IOException {
+        json.writeObjectFieldStart("startGame");
+        json.writeNumberField("playerOneDeckIdx", startGame.getPlayerOneDeckIdx());
+        json.writeNumberField("playerTwoDeckIdx", startGame.getPlayerTwoDeckIdx());
+        json.writeNumberField("shuffleSeed", startGame.getShuffleSeed());
+        json.writeFieldName("playerOneHero");
+        writeHero(json, startGame.getPlayerOneHero());
+        json.writeFieldName("playerTwoHero");
+        writeHero(json, startGame.getPlayerTwoHero());
+        json.writeNumberField("startingPlayer", startGame.getStartingPlayer());
+        json.writeEndObject();
+    }
+
+    private ActionsInputCopy randomQuery() {
+        String command = QUERIES[random.nextInt(QUERIES.length)];
+        return Moves.query(command, 1 + random.nextInt(PLAYERS), random.nextInt(BOARD_ROWS),
+                random.nextInt(BOARD_COLUMNS));
+    }
+
+    /**
+     * Writes one action with the fields its command uses.
+     *
+     * @param json   the generator
+     * @param action the action
+     * @throws IOException if the output cannot be written
+     */
+    static void writeAction(final JsonGenerator json, final ActionsInputCopy action)
+            throws IOException {
+        json.writeStartObject();
+        json.writeStringField("command", action.getCommand());
+        switch (action.getCommand()) {
+            case "placeCard":
+                json.writeNumberField("handIdx", action.getHandIdx());
+                break;
+            case "cardUsesAttack":
+            case "cardUsesAbility":
+                writeCoordinates(json, "cardAttacker", action.getCardAttacker().getX(),
+                        action.getCardAttacker().getY());
+                writeCoordinates(json, "cardAttacked", action.getCardAttacked().getX(),
+                        action.getCardAttacked().getY());
+                break;
+            case "useAttackHero":
+                writeCoordinates(json, "cardAttacker", action.getCardAttacker().getX(),
+                        action.getCardAttacker().getY());
+                break;
+            case "useHeroAbility":
+                json.writeNumberField("affectedRow", action.getAffectedRow());
+                break;
+            case "getPlayerDeck":
+            case "getPlayerHero":
+            case "getPlayerMana":
+            case "getCardsInHand":
+                json.writeNumberField("playerIdx", action.getPlayerIdx());
+                break;
+            case "getCardAtPosition":
+                json.writeNumberField("x", action.getX());
+                json.writeNumberField("y", action.getY());
+                break;
+            default:
+                break;
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeCoordinates(final JsonGenerator json, final String field, final int x,
+                                  final int y) throws IOException {
+        json.writeObjectFieldStart(field);
+        json.writeNumberField("x", x);
+        json.writeNumberField("y", y);
+        json.writeEndObject();
+    }
+
+    /**
+     * Writes the decks of one player.
+     *
+     * @param json  the generator
+     * @param decks the decks
+     * @throws IOException if the output cannot be written
+     */
+    static void writeDecks(final JsonGenerator json, final DecksInput decks)
+            throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("nrCardsInDeck", decks.getNrCardsInDeck());
+        json.writeNumberField("nrDecks", decks.getNrDecks());
+        json.writeArrayFieldStart("decks");
+        for (List<CardInput> deck : decks.getDecks()) {
+            json.writeStartArray();
+            for (CardInput card : deck) {
+                json.writeStartObject();
+                json.writeNumberField("mana", card.getMana());
+                json.writeNumberField("attackDamage", card.getAttackDamage());
+                json.writeNumberField("health", card.getHealth());
+                json.writeStringField("description", card.getDescription());
+                writeColors(json, card.getColors());
+                json.writeStringField("name", card.getName());
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+
+    private static void writeHero(final JsonGenerator json, final CardInputCopy hero)
+            throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("mana", hero.getMana());
+        json.writeStringField("description", hero.getDescription());
+        writeColors(json, hero.getColors());
+        json.writeStringField("name", hero.getName());
+        json.writeEndObject();
+    }
+
+    private static void writeColors(final JsonGenerator json, final List<String> colors)
+            throws IOException {
+        json.writeArrayFieldStart("colors");
+        for (String color : colors) {
+            json.writeString(color);
+        }
+        json.writeEndArray();
+    }
+
+    private DecksInput randomDecks() {
+        ArrayList<ArrayList<CardInput>> decks = new ArrayList<>();
+        for (int d = 0; d < nrDecks; d++) {
+            ArrayList<CardInput> deck = new ArrayList<>();
+            for (int c = 0; c < cardsPerDeck; c++) {
+                String name = MINIONS[random.nextInt(MINIONS.length)];
+                CardInput card = new CardInput();
+                card.setMana(1 + random.nextInt(MAX_CARD_MANA));
+                card.setAttackDamage(random.nextInt(MAX_ATTACK + 1));
+                card.setHealth(1 + random.nextInt(MAX_HEALTH));
+                card.setDescription("Generated " + name + ".");
+                card.setColors(randomColors());
+                card.setName(name);
+                deck.add(card);
+            }
+            decks.add(deck);
+        }
+        DecksInput decksInput = new DecksInput();
+        decksInput.setNrCardsInDeck(cardsPerDeck);
+        decksInput.setNrDecks(nrDecks);
+        decksInput.setDecks(decks);
+        return decksInput;
+    }
+
+    private CardInput randomHero() {
+        String name = HEROES[random.nextInt(HEROES.length)];
+        CardInput hero = new CardInput();
+        hero.setMana(1 + random.nextInt(MAX_HERO_MANA));
+        hero.setDescription("Generated " + name + ".");
+        hero.setColors(randomColors());
+        hero.setName(name);
+        return hero;
+    }
+
+    private ArrayList<String> randomColors() {
+        ArrayList<String> colors = new ArrayList<>();
+        int count = 1 + random.nextInt(MAX_COLORS);
+        for (int i = 0; i < count; i++) {
+            colors.add(COLORS[random.nextInt(COLORS.length)]);
+        }
+        return colors;
+    }
+
+    /**
+     * Generates an input file from the command line.
+     * Usage: output.json decks cardsPerDeck games actionsPerGame seed [maxRounds]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < ARG_COUNT) {
+            System.err.println("Usage: WorkloadGenerator <output.json> <decks> <cardsPerDeck>"
+                    + " <games> <actionsPerGame> <seed> [maxRounds]");
+            return;
+        }
+        int maxRounds = args.length > ARG_MAX_ROUNDS
+                ? Integer.parseInt(args[ARG_MAX_ROUNDS]) : DEFAULT_MAX_ROUNDS;
+        new WorkloadGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[ARG_CARDS]),
+                Integer.parseInt(args[ARG_GAMES]), Integer.parseInt(args[ARG_ACTIONS]),
+                maxRounds, Long.parseLong(args[ARG_SEED])).generate(new File(args[0]));
+    }
+}
@@ -0,0 +1,72 @@
+package org.poo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning GameExecutor.processAction.
+ * Disabled unless a recording turns on org.poo.Action.
+ */
+@Name("org.poo.Action")
+@Label("Action")
+@Category("GwentStone")
+@Description("One command processed by the game engine")
+@Enabled(false)
+@StackTrace(false)
+public final class ActionEvent extends Event {
+
+    @Label("Command")
+    private String command;
+
+    @Label("Player Index")
+    @Description("The player on turn when the command was processed")
+    private int playerIdx;
+
+    @Label("Error")
+    private boolean error;
+
+    @Label("Board Occupancy")
+    @Description("Cards on the board after the command")
+    private int boardOccupancy;
+
+    /**
+     * Sets the command.
+     *
+     * @param command the command name
+     */
+    public void setCommand(final String command) {
+        this.command = command;
+    }
+
+    /**
+     * Sets the player on turn.
+     *
+     * @param playerIdx 1 or 2
+     */
+    public void setPlayerIdx(final int playerIdx) {
+        this.playerIdx = playerIdx;
+    }
+
+    /**
+     * Sets whether the command produced an error.
+     *
+     * @param error true on error
+     */
+    public void setError(final boolean error) {
+        this.error = error;
+    }
+
+    /**
+     * Sets the board occupancy.
+     *
+     * @param boardOccupancy the number of cards on the board
+     */
+    public void setBoardOccupancy(final int boardOccupancy) {
+        this.boardOccupancy = boardOccupancy;
+    }
+}
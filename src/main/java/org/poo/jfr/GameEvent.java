@@ -0,0 +1,96 @@
+package org.poo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one game, from GameExecutor.beginGame to endGame.
+ * Disabled unless a recording turns on org.poo.Game.
+ */
+@Name("org.poo.Game")
+@Label("Game")
+@Category("GwentStone")
+@Description("One game, from deck shuffle to the last action")
+@Enabled(false)
+@StackTrace(false)
+public final class GameEvent extends Event {
+
+    @Label("Game Number")
+    private int gameNumber;
+
+    @Label("Shuffle Seed")
+    private int shuffleSeed;
+
+    @Label("Starting Player")
+    private int startingPlayer;
+
+    @Label("Actions")
+    private int actions;
+
+    @Label("Winner")
+    @Description("1 or 2 for the player who killed the enemy hero, 0 if nobody did")
+    private int winner;
+
+    @Label("Board Occupancy")
+    @Description("Cards on the board after the last action")
+    private int boardOccupancy;
+
+    /**
+     * Sets the game number.
+     *
+     * @param gameNumber the 1-based game number within the input
+     */
+    public void setGameNumber(final int gameNumber) {
+        this.gameNumber = gameNumber;
+    }
+
+    /**
+     * Sets the shuffle seed.
+     *
+     * @param shuffleSeed the seed
+     */
+    public void setShuffleSeed(final int shuffleSeed) {
+        this.shuffleSeed = shuffleSeed;
+    }
+
+    /**
+     * Sets the starting player.
+     *
+     * @param startingPlayer 1 or 2
+     */
+    public void setStartingPlayer(final int startingPlayer) {
+        this.startingPlayer = startingPlayer;
+    }
+
+    /**
+     * Sets the number of actions of the game.
+     *
+     * @param actions the action count
+     */
+    public void setActions(final int actions) {
+        this.actions = actions;
+    }
+
+    /**
+     * Sets the winner.
+     *
+     * @param winner 1, 2 or 0
+     */
+    public void setWinner(final int winner) {
+        this.winner = winner;
+    }
+
+    /**
+     * Sets the board occupancy.
+     *
+     * @param boardOccupancy the number of cards on the board
+     */
+    public void setBoardOccupancy(final int boardOccupancy) {
+        this.boardOccupancy = boardOccupancy;
+    }
+}
@@ -0,0 +1,72 @@
+package org.poo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning GameExecutor.handleEndPlayerTurn.
+ * Disabled unless a recording turns on org.poo.Turn.
+ */
+@Name("org.poo.Turn")
+@Label("End Of Turn")
+@Category("GwentStone")
+@Description("Unfreezing, turn switch and, at round end, mana, draws and flag resets")
+@Enabled(false)
+@StackTrace(false)
+public final class TurnEvent extends Event {
+
+    @Label("Player Index")
+    @Description("The player whose turn ended")
+    private int playerIdx;
+
+    @Label("Round")
+    @Description("The round after the turn ended")
+    private int round;
+
+    @Label("New Round")
+    private boolean newRound;
+
+    @Label("Board Occupancy")
+    private int boardOccupancy;
+
+    /**
+     * Sets the player whose turn ended.
+     *
+     * @param playerIdx 1 or 2
+     */
+    public void setPlayerIdx(final int playerIdx) {
+        this.playerIdx = playerIdx;
+    }
+
+    /**
+     * Sets the round.
+     *
+     * @param round the round number
+     */
+    public void setRound(final int round) {
+        this.round = round;
+    }
+
+    /**
+     * Sets whether the turn started a new round.
+     *
+     * @param newRound true if a new round started
+     */
+    public void setNewRound(final boolean newRound) {
+        this.newRound = newRound;
+    }
+
+    /**
+     * Sets the board occupancy.
+     *
+     * @param boardOccupancy the number of cards on the board
+     */
+    public void setBoardOccupancy(final int boardOccupancy) {
+        this.boardOccupancy = boardOccupancy;
+    }
+}
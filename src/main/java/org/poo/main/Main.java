@@ -2,11 +2,14 @@ package org.poo.main;
 
 import org.poo.gamethread.GameExecutor;
 import org.poo.checker.Checker;
+import org.poo.metrics.EngineMetrics;
+import org.poo.metrics.MetricsServer;
+import org.poo.shadow.ShadowRunner;
 import org.poo.utils.InputCopy;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
 import org.poo.checker.CheckerConstants;
 import org.poo.fileio.Input;
 
@@ -15,6 +18,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Objects;
 
 /**
@@ -34,6 +38,7 @@ public final class Main {
      * @throws IOException in case of exceptions to reading / writing
      */
     public static void main(final String[] args) throws IOException {
+        MetricsServer metricsServer = MetricsServer.startFromProperties();
         File directory = new File(CheckerConstants.TESTS_PATH);
         Path path = Paths.get(CheckerConstants.RESULT_PATH);
 
@@ -45,6 +50,7 @@ public final class Main {
             resultFile.delete();
         }
         Files.createDirectories(path);
+        StreamingScorer scorer = StreamingScorer.fromProperties();
 
         for (File file : Objects.requireNonNull(directory.listFiles())) {
             String filepath = CheckerConstants.OUT_PATH + file.getName();
@@ -52,10 +58,39 @@ public final class Main {
             boolean isCreated = out.createNewFile();
             if (isCreated) {
                 action(file.getName(), filepath);
+                if (scorer != null) {
+                    scorer.submit(file.getName(), out.toPath());
+                }
             }
         }
 
-        Checker.calculateScore();
+        if (scorer == null) {
+            Checker.calculateScore();
+        } else {
+            try {
+                scorer.finish(System.out);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (ResultCache.shared() != null) {
+            System.err.println(ResultCache.shared().summary());
+        }
+        if (ShadowRunner.shared() != null) {
+            try {
+                System.err.println(ShadowRunner.shared().finish());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (EngineMetrics.isEnabled()) {
+            EngineMetrics.writeReport(new File(System.getProperty("gwentstone.metrics.report",
+                    "metrics.json")));
+        }
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
     }
 
     /**
@@ -65,36 +100,99 @@ public final class Main {
      */
     public static void action(final String filePath1,
                               final String filePath2) throws IOException {
+        run(Paths.get(CheckerConstants.TESTS_PATH + filePath1), Paths.get(filePath2));
+    }
+
+    /**
+     * Runs one input file into one output file, through the result cache when it is on.
+     * Unlike action, the input path is used as given.
+     *
+     * @param inputPath  the input file
+     * @param outputPath the output file
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void run(final Path inputPath, final Path outputPath) throws IOException {
+        byte[] input = Files.readAllBytes(inputPath);
+        ShadowRunner shadow = ShadowRunner.shared();
+        if (shadow == null) {
+            produce(inputPath, input, outputPath);
+            return;
+        }
+        boolean written = false;
+        try {
+            produce(inputPath, input, outputPath);
+            written = true;
+        } finally {
+            // the shadow compares against the written output instead of running it again
+            shadow.offer(input, written ? outputPath : null);
+        }
+    }
+
+    /**
+     * Writes the output of one input, through the result cache when it is on.
+     */
+    private static void produce(final Path inputPath, final byte[] input,
+                                final Path outputPath) throws IOException {
+        ResultCache cache = ResultCache.shared();
+        if (cache == null) {
+            OutputBuffer output = execute(input);
+            try {
+                output.writeTo(outputPath);
+            } finally {
+                output.discard();
+            }
+            return;
+        }
+
+        String key = cache.keyOf(input);
+        Path cached = cache.find(key);
+        if (cached != null && !cache.shouldVerify()) {
+            Files.copy(cached, outputPath, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        OutputBuffer output = execute(input);
+        try {
+            if (cached != null && !output.contentEquals(cached)) {
+                cache.recordMismatch();
+                System.err.println("Stale result cache entry for " + inputPath + ", replaced");
+                cached = null;
+            }
+            if (cached == null) {
+                cache.put(key, output);
+            }
+            output.writeTo(outputPath);
+        } finally {
+            output.discard();
+        }
+    }
+
+    /**
+     * Runs every game of an input, streaming the output nodes into a buffer that
+     * spills to disk past gwentstone.output.spillBytes. The bytes are those the pretty
+     * printer writes for the whole output array.
+     *
+     * @param input the bytes of the input file
+     * @return the closed buffer holding the output file; the caller discards it
+     * @throws IOException if the input cannot be parsed or the output not buffered
+     */
+    private static OutputBuffer execute(final byte[] input) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
-        Input inputData = objectMapper.readValue(new File(CheckerConstants.TESTS_PATH + filePath1),
-                Input.class);
+        Input inputData = objectMapper.readValue(input, Input.class);
 
         InputCopy inputDataCopy = new InputCopy(inputData);
-       ArrayNode output = objectMapper.createArrayNode();
-
-        /*
-         * TODO Implement your function here
-         *
-         * How to add output to the output array?
-         * There are multiple ways to do this, here is one example:
-         *
-         * ObjectMapper mapper = new ObjectMapper();
-         *
-         * ObjectNode objectNode = mapper.createObjectNode();
-         * objectNode.put("field_name", "field_value");
-         *
-         * ArrayNode arrayNode = mapper.createArrayNode();
-         * arrayNode.add(objectNode);
-         *
-         * output.add(arrayNode);
-         * output.add(objectNode);
-         *
-         */
-
-        GameExecutor executor = new GameExecutor(inputDataCopy, output);
-        executor.executeGame();
 
         ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePath2), output);
+        OutputBuffer output = OutputBuffer.fromProperties();
+        try (JsonGenerator generator = objectWriter.createGenerator(output)) {
+            generator.writeStartArray();
+            GameExecutor executor = new GameExecutor(inputDataCopy, generator);
+            executor.executeGame();
+            generator.writeEndArray();
+        } catch (IOException | RuntimeException e) {
+            output.discard();
+            throw e;
+        }
+        output.close();
+        return output;
     }
 }
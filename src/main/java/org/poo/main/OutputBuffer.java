@@ -0,0 +1,210 @@
+package org.poo.main;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Holds the encoded output of one input. Bytes stay in memory up to a threshold; past
+ * it they go to a temporary file, so a huge output costs disk space instead of heap.
+ * Whichever way it was held, the output is read back byte for byte as written.
+ *
+ * Write it, close it, read it with writeTo or contentEquals, then discard it to remove
+ * the temporary file.
+ */
+public final class OutputBuffer extends OutputStream {
+
+    /** Default threshold, in bytes, read from the gwentstone.output.spillBytes property. */
+    public static final int DEFAULT_SPILL_BYTES = 64 << 20;
+
+    private static final int INITIAL_CAPACITY = 8192;
+    private static final int COPY_CHUNK = 64 << 10;
+
+    private final int threshold;
+    private byte[] memory = new byte[INITIAL_CAPACITY];
+    private int count;
+    private long size;
+    private Path spillFile;
+    private OutputStream spill;
+    private boolean closed;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param threshold the number of bytes kept in memory before spilling to disk
+     */
+    public OutputBuffer(final int threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Creates a buffer with the threshold set by gwentstone.output.spillBytes.
+     *
+     * @return the buffer
+     */
+    public static OutputBuffer fromProperties() {
+        return new OutputBuffer(Integer.getInteger("gwentstone.output.spillBytes",
+                DEFAULT_SPILL_BYTES));
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] bytes, final int offset, final int length)
+            throws IOException {
+        if (closed) {
+            throw new IOException("Output buffer is closed");
+        }
+        size += length;
+        if (spill == null && count + length <= threshold) {
+            if (count + length > memory.length) {
+                memory = Arrays.copyOf(memory, Math.min(threshold,
+                        Math.max(memory.length * 2, count + length)));
+            }
+            System.arraycopy(bytes, offset, memory, count, length);
+            count += length;
+            return;
+        }
+        if (spill == null) {
+            spillFile = Files.createTempFile("gwentstone-output", ".json");
+            spill = new BufferedOutputStream(Files.newOutputStream(spillFile), COPY_CHUNK);
+            spill.write(memory, 0, count);
+            memory = null;
+            count = 0;
+        }
+        spill.write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (spill != null) {
+            spill.flush();
+        }
+    }
+
+    /**
+     * Ends writing; the content can be read from now on.
+     *
+     * @throws IOException if the temporary file cannot be completed
+     */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (spill != null) {
+                spill.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of bytes written.
+     *
+     * @return the size
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Tells whether the content went to a temporary file.
+     *
+     * @return true once the threshold was passed
+     */
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Copies the content to a stream.
+     *
+     * @param out the stream, left open
+     * @throws IOException if the content cannot be read or written
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        checkClosed();
+        if (spillFile == null) {
+            out.write(memory, 0, count);
+        } else {
+            Files.copy(spillFile, out);
+        }
+    }
+
+    /**
+     * Writes the content to a file, replacing it.
+     *
+     * @param target the file
+     * @throws IOException if the content cannot be read or written
+     */
+    public void writeTo(final Path target) throws IOException {
+        checkClosed();
+        if (spillFile == null) {
+            Files.write(target, Arrays.copyOf(memory, count));
+        } else {
+            Files.copy(spillFile, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Compares the content with a file, reading both a chunk at a time.
+     *
+     * @param other the file
+     * @return true if the file holds exactly the same bytes
+     * @throws IOException if either cannot be read
+     */
+    public boolean contentEquals(final Path other) throws IOException {
+        checkClosed();
+        if (Files.size(other) != size) {
+            return false;
+        }
+        if (spillFile == null) {
+            return Arrays.equals(memory, 0, count, Files.readAllBytes(other), 0, count);
+        }
+        try (InputStream mine = Files.newInputStream(spillFile);
+             InputStream theirs = Files.newInputStream(other)) {
+            byte[] left = new byte[COPY_CHUNK];
+            byte[] right = new byte[COPY_CHUNK];
+            int read;
+            while ((read = mine.readNBytes(left, 0, left.length)) > 0) {
+                if (theirs.readNBytes(right, 0, read) != read
+                        || !Arrays.equals(left, 0, read, right, 0, read)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Closes the buffer and removes its temporary file, if any.
+     */
+    public void discard() {
+        try {
+            close();
+        } catch (IOException e) {
+            // the content is being dropped anyway
+        }
+        memory = null;
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                System.err.println("Could not remove " + spillFile + ": " + e);
+            }
+        }
+    }
+
+    private void checkClosed() {
+        if (!closed) {
+            throw new IllegalStateException("Output buffer is still being written");
+        }
+    }
+}
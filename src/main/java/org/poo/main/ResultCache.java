@@ -0,0 +1,245 @@
+package org.poo.main;
+
+import org.poo.gamethread.GameExecutor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of output files, keyed by the SHA-256 of ENGINE_VERSION and the bytes
+ * of the input file. Main.action consults it when the gwentstone.cache.dir property
+ * names a directory; an unchanged input then gets its stored output back without
+ * running the engine.
+ *
+ * Entries never go stale on their own: bump ENGINE_VERSION whenever a change alters
+ * the output of the engine, or clear the cache. With gwentstone.cache.verify set to a
+ * fraction between 0 and 1, that share of hits is recomputed and compared, and a
+ * mismatching entry is reported and replaced.
+ */
+public final class ResultCache {
+
+    /** Tag mixed into every key; change it to invalidate all entries at once. */
+    public static final String ENGINE_VERSION = "gwentstone-1";
+
+    private static final String SUFFIX = ".json";
+    private static final String DRAW_ON_DEMAND_TAG = "+drawOnDemand";
+    private static final int HEX_RADIX = 16;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int NIBBLE_BITS = 4;
+
+    private final Path directory;
+    private final double verifyRate;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+
+    /**
+     * Creates a cache over a directory, creating the directory if needed.
+     *
+     * @param directory  the cache directory
+     * @param verifyRate the share of hits to recompute, 0 for none
+     * @throws IOException if the directory cannot be created
+     */
+    public ResultCache(final Path directory, final double verifyRate) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.verifyRate = verifyRate;
+    }
+
+    /**
+     * Creates the cache configured by the gwentstone.cache.dir and
+     * gwentstone.cache.verify properties.
+     *
+     * @return the cache, or null when gwentstone.cache.dir is not set
+     * @throws IOException if the directory cannot be created
+     */
+    public static ResultCache fromProperties() throws IOException {
+        String dir = System.getProperty("gwentstone.cache.dir");
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        return new ResultCache(Paths.get(dir),
+                Double.parseDouble(System.getProperty("gwentstone.cache.verify", "0")));
+    }
+
+    /**
+     * Gets the cache configured by the system properties, created on first use.
+     *
+     * @return the cache, or null when caching is off
+     */
+    public static ResultCache shared() {
+        return Shared.CACHE;
+    }
+
+    /**
+     * Computes the key of an input.
+     *
+     * @param input the bytes of the input file
+     * @return the key, a hex string
+     */
+    public String keyOf(final byte[] input) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every JVM", e);
+        }
+        digest.update(ENGINE_VERSION.getBytes(StandardCharsets.UTF_8));
+        if (GameExecutor.isDrawOnDemandDefault()) {
+            // the on-demand shuffle deals other cards, so its outputs are kept apart
+            digest.update(DRAW_ON_DEMAND_TAG.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        byte[] hash = digest.digest(input);
+        StringBuilder key = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            key.append(Character.forDigit((b & BYTE_MASK) >>> NIBBLE_BITS, HEX_RADIX));
+            key.append(Character.forDigit(b & (HEX_RADIX - 1), HEX_RADIX));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Looks up an output.
+     *
+     * @param key the key of the input
+     * @return the file holding the stored output, or null on a miss
+     */
+    public Path find(final String key) {
+        Path entry = entry(key);
+        if (Files.isRegularFile(entry)) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores an output. The entry is written to a temporary file and moved into place,
+     * so a concurrent reader sees either no entry or the whole of it.
+     *
+     * @param key    the key of the input
+     * @param output the closed buffer holding the output
+     * @throws IOException if the entry cannot be written
+     */
+    public void put(final String key, final OutputBuffer output) throws IOException {
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            output.writeTo(temp);
+            Files.move(temp, entry(key), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Decides whether a hit should be recomputed, according to the verify rate.
+     *
+     * @return true for the sampled share of hits
+     */
+    public boolean shouldVerify() {
+        return verifyRate > 0 && ThreadLocalRandom.current().nextDouble() < verifyRate;
+    }
+
+    /**
+     * Records that a verified entry did not match a fresh run.
+     */
+    public void recordMismatch() {
+        mismatches.incrementAndGet();
+    }
+
+    /**
+     * Removes the entry of one input.
+     *
+     * @param key the key of the input
+     * @return true if there was an entry
+     * @throws IOException if the entry cannot be deleted
+     */
+    public boolean invalidate(final String key) throws IOException {
+        return Files.deleteIfExists(entry(key));
+    }
+
+    /**
+     * Removes every entry.
+     *
+     * @return the number of entries removed
+     * @throws IOException if the directory cannot be listed or an entry deleted
+     */
+    public int clear() throws IOException {
+        int removed = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path entry : entries) {
+                Files.delete(entry);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Summarizes the lookups made through this instance.
+     *
+     * @return hits, misses and verification mismatches on one line
+     */
+    public String summary() {
+        return "result cache: " + hits.get() + " hits, " + misses.get() + " misses, "
+                + mismatches.get() + " mismatches";
+    }
+
+    private Path entry(final String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    /**
+     * Holds the shared instance, read from the properties when first needed.
+     */
+    private static final class Shared {
+        private static final ResultCache CACHE = load();
+
+        private static ResultCache load() {
+            try {
+                return fromProperties();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Maintains the cache named by gwentstone.cache.dir.
+     * Usage: clear | invalidate input.json...
+     *
+     * @param args the command line arguments
+     * @throws IOException if the cache cannot be changed
+     */
+    public static void main(final String[] args) throws IOException {
+        ResultCache cache = fromProperties();
+        if (cache == null || args.length == 0) {
+            System.err.println("Usage: -Dgwentstone.cache.dir=<dir> ResultCache"
+                    + " clear | invalidate <input.json>...");
+            return;
+        }
+        if ("clear".equals(args[0])) {
+            System.out.println("removed " + cache.clear() + " entries");
+        } else if ("invalidate".equals(args[0])) {
+            for (int i = 1; i < args.length; i++) {
+                boolean removed = cache.invalidate(cache.keyOf(
+                        Files.readAllBytes(Paths.get(args[i]))));
+                System.out.println(args[i] + (removed ? ": removed" : ": not cached"));
+            }
+        } else {
+            System.err.println("Unknown command " + args[0]);
+        }
+    }
+}
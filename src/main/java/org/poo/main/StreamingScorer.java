@@ -0,0 +1,253 @@
+package org.poo.main;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scores outputs against reference files while the remaining inputs still run. Main
+ * submits each output as soon as it is written; a background pool compares it with the
+ * reference of the same name, and finish prints the results once the last one is in.
+ *
+ * Both documents are streamed with a JsonParser. An output file is one array of output
+ * nodes, so only one node of each side is held at a time; nodes are compared as trees,
+ * so the order of fields inside an object does not matter, as with tree equality. The
+ * first difference is reported with its path, for example $[12].output[3].health.
+ */
+public final class StreamingScorer {
+
+    private static final int MAX_SHOWN = 60;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path referenceDirectory;
+    private final ExecutorService pool;
+    private final List<Future<Result>> results = new ArrayList<>();
+
+    /**
+     * Creates a scorer.
+     *
+     * @param referenceDirectory the directory holding a reference named like each input
+     * @param threads            the number of comparisons run at the same time
+     */
+    public StreamingScorer(final Path referenceDirectory, final int threads) {
+        this.referenceDirectory = referenceDirectory;
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "streaming-scorer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the scorer configured by the gwentstone.score.refDir property, using every
+     * processor but the one running the engine.
+     *
+     * @return the scorer, or null when the property is not set
+     */
+    public static StreamingScorer fromProperties() {
+        String dir = System.getProperty("gwentstone.score.refDir");
+        if (dir == null || dir.isBlank()) {
+            return null;
+        }
+        return new StreamingScorer(Paths.get(dir),
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * Queues the comparison of one output with its reference.
+     *
+     * @param inputName the name of the input file, also the name of the reference
+     * @param output    the output file, complete
+     */
+    public synchronized void submit(final String inputName, final Path output) {
+        Path reference = referenceDirectory.resolve(inputName);
+        results.add(pool.submit(() -> new Result(inputName, compare(output, reference))));
+    }
+
+    /**
+     * Waits for every comparison and prints one line per file and a total.
+     *
+     * @param out where to print
+     * @return the number of files that matched their reference
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public int finish(final PrintStream out) throws InterruptedException {
+        List<Result> done = new ArrayList<>();
+        synchronized (this) {
+            for (Future<Result> future : results) {
+                try {
+                    done.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+        pool.shutdown();
+        done.sort(Comparator.comparing(result -> result.name));
+        int passed = 0;
+        for (Result result : done) {
+            if (result.divergence == null) {
+                passed++;
+                out.println(result.name + ": OK");
+            } else {
+                out.println(result.name + ": FAILED at " + result.divergence);
+            }
+        }
+        out.println("passed " + passed + "/" + done.size());
+        return passed;
+    }
+
+    /**
+     * Compares a document with its reference.
+     *
+     * @param actual    the document to check
+     * @param reference the expected document
+     * @return null if they match, otherwise the first difference
+     */
+    public String compare(final Path actual, final Path reference) {
+        if (!Files.isRegularFile(reference)) {
+            return "$: no reference " + reference;
+        }
+        try (JsonParser mine = objectMapper.createParser(actual.toFile());
+             JsonParser theirs = objectMapper.createParser(reference.toFile())) {
+            JsonToken first = mine.nextToken();
+            JsonToken expectedFirst = theirs.nextToken();
+            if (first != JsonToken.START_ARRAY || expectedFirst != JsonToken.START_ARRAY) {
+                // not an array of nodes, compare the documents whole
+                return difference("$", theirs.readValueAsTree(), mine.readValueAsTree());
+            }
+            for (int index = 0;; index++) {
+                JsonToken token = mine.nextToken();
+                JsonToken expectedToken = theirs.nextToken();
+                if (token == JsonToken.END_ARRAY || expectedToken == JsonToken.END_ARRAY) {
+                    if (token == expectedToken) {
+                        return null;
+                    }
+                    return token == JsonToken.END_ARRAY
+                            ? "$[" + index + "]: missing, expected " + shorten(
+                                    theirs.readValueAsTree())
+                            : "$[" + index + "]: unexpected " + shorten(mine.readValueAsTree());
+                }
+                String divergence = difference("$[" + index + "]", theirs.readValueAsTree(),
+                        mine.readValueAsTree());
+                if (divergence != null) {
+                    return divergence;
+                }
+            }
+        } catch (IOException e) {
+            return "$: unreadable, " + e.getMessage();
+        }
+    }
+
+    /**
+     * Finds the first difference between two trees.
+     *
+     * @return null if equal, otherwise the path and both values
+     */
+    private static String difference(final String path, final JsonNode expected,
+                                     final JsonNode actual) {
+        if (expected == null || actual == null) {
+            return expected == actual ? null : path + ": expected " + shorten(expected)
+                    + ", got " + shorten(actual);
+        }
+        if (expected.equals(actual)) {
+            return null;
+        }
+        if (expected.isObject() && actual.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!actual.has(field.getKey())) {
+                    return path + "." + field.getKey() + ": missing";
+                }
+                String divergence = difference(path + "." + field.getKey(), field.getValue(),
+                        actual.get(field.getKey()));
+                if (divergence != null) {
+                    return divergence;
+                }
+            }
+            Iterator<String> names = actual.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!expected.has(name)) {
+                    return path + "." + name + ": unexpected";
+                }
+            }
+        }
+        if (expected.isArray() && actual.isArray()) {
+            for (int i = 0; i < Math.min(expected.size(), actual.size()); i++) {
+                String divergence = difference(path + "[" + i + "]", expected.get(i),
+                        actual.get(i));
+                if (divergence != null) {
+                    return divergence;
+                }
+            }
+            return path + ": expected " + expected.size() + " elements, got "
+                    + actual.size();
+        }
+        return path + ": expected " + shorten(expected) + ", got " + shorten(actual);
+    }
+
+    private static String shorten(final JsonNode node) {
+        String text = String.valueOf(node);
+        return text.length() <= MAX_SHOWN ? text : text.substring(0, MAX_SHOWN) + "...";
+    }
+
+    /**
+     * The outcome of one file.
+     */
+    private static final class Result {
+        private final String name;
+        private final String divergence;
+
+        Result(final String name, final String divergence) {
+            this.name = name;
+            this.divergence = divergence;
+        }
+    }
+
+    /**
+     * Scores finished outputs against references.
+     * Usage: refDir [resultDir [outputPrefix]], by default the checker's result
+     * directory and the out_ prefix.
+     *
+     * @param args the command line arguments
+     * @throws IOException if the reference directory cannot be listed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Usage: StreamingScorer <refDir> [resultDir [outputPrefix]]");
+            return;
+        }
+        Path referenceDirectory = Paths.get(args[0]);
+        Path outPath = Paths.get(org.poo.checker.CheckerConstants.OUT_PATH);
+        Path resultDirectory = args.length > 1 ? Paths.get(args[1]) : outPath.getParent();
+        String prefix = args.length > 2 ? args[2] : outPath.getFileName().toString();
+        StreamingScorer scorer = new StreamingScorer(referenceDirectory,
+                Runtime.getRuntime().availableProcessors());
+        try (java.util.stream.Stream<Path> references = Files.list(referenceDirectory)) {
+            references.filter(Files::isRegularFile).forEach(reference -> {
+                String name = reference.getFileName().toString();
+                scorer.submit(name, resultDirectory.resolve(prefix + name));
+            });
+        }
+        scorer.finish(System.out);
+    }
+}
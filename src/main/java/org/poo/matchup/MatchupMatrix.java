@@ -0,0 +1,256 @@
+package org.poo.matchup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.bots.Policies;
+import org.poo.bots.Policy;
+import org.poo.bots.SelfPlayGame;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.InputCopy;
+import org.poo.utils.StartGameInputCopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays every pair of playerOneDecks and playerTwoDecks over a range of shuffle seeds
+ * and both starting players, and reports player one's win rate per pair with a 95%
+ * Wilson confidence interval. Draws count as half a win.
+ */
+public final class MatchupMatrix {
+
+    private static final int SPLIT_THRESHOLD = 32;
+    private static final int STARTING_PLAYERS = 2;
+    private static final double Z_95 = 1.96;
+    private static final double HALF = 0.5;
+    private static final int DEFAULT_MAX_ROUNDS = 50;
+    private static final int ARG_POLICY_ONE = 1;
+    private static final int ARG_POLICY_TWO = 2;
+    private static final int ARG_SEEDS = 3;
+    private static final int ARG_JSON = 4;
+
+    private final InputCopy inputData;
+    private final Policy playerOnePolicy;
+    private final Policy playerTwoPolicy;
+    private final int firstSeed;
+    private final int seeds;
+    private final int maxRounds;
+    private final int playerOneDecks;
+    private final int playerTwoDecks;
+    private final ThreadLocal<GameExecutor> executors;
+    private MatchupTally tally;
+
+    /**
+     * Constructs a matchup job.
+     *
+     * @param inputData       the input providing the decks and, through its games, the heroes
+     * @param playerOnePolicy the policy playing player one's decks
+     * @param playerTwoPolicy the policy playing player two's decks
+     * @param firstSeed       the first shuffle seed
+     * @param seeds           the number of consecutive seeds per deck pair
+     * @param maxRounds       the round after which a game is a draw
+     */
+    public MatchupMatrix(final InputCopy inputData, final Policy playerOnePolicy,
+                         final Policy playerTwoPolicy, final int firstSeed, final int seeds,
+                         final int maxRounds) {
+        if (inputData.getGames().isEmpty()) {
+            throw new IllegalArgumentException("The input needs at least one game for heroes.");
+        }
+        this.inputData = inputData;
+        this.playerOnePolicy = playerOnePolicy;
+        this.playerTwoPolicy = playerTwoPolicy;
+        this.firstSeed = firstSeed;
+        this.seeds = seeds;
+        this.maxRounds = maxRounds;
+        this.playerOneDecks = inputData.getPlayerOneDecks().getDecks().size();
+        this.playerTwoDecks = inputData.getPlayerTwoDecks().getDecks().size();
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.executors = ThreadLocal.withInitial(
+                () -> new GameExecutor(inputData, objectMapper.createArrayNode()));
+    }
+
+    /**
+     * Plays all games on the given pool.
+     *
+     * @param pool the fork/join pool to run on
+     * @return the merged tally
+     */
+    public MatchupTally compute(final ForkJoinPool pool) {
+        long total = (long) playerOneDecks * playerTwoDecks * seeds * STARTING_PLAYERS;
+        tally = pool.invoke(new Slice(0, total));
+        return tally;
+    }
+
+    private void play(final long index, final MatchupTally local) {
+        int startingPlayer = 1 + (int) (index % STARTING_PLAYERS);
+        long rest = index / STARTING_PLAYERS;
+        int seed = firstSeed + (int) (rest % seeds);
+        rest /= seeds;
+        int deckTwo = (int) (rest % playerTwoDecks);
+        int deckOne = (int) (rest / playerTwoDecks);
+
+        StartGameInputCopy heroes = inputData.getGames()
+                .get(Math.floorMod(seed, inputData.getGames().size())).getStartGame();
+        StartGameInputCopy startGame = new StartGameInputCopy(deckOne, deckTwo, seed,
+                heroes.getPlayerOneHero(), heroes.getPlayerTwoHero(), startingPlayer);
+        SelfPlayGame game = new SelfPlayGame(executors.get(), playerOnePolicy,
+                playerTwoPolicy, maxRounds);
+        local.record(deckOne, deckTwo, game.play(startGame, new Random(index)));
+    }
+
+    /**
+     * Gets player one's score rate for a deck pair.
+     *
+     * @param deckOne the deck of player one
+     * @param deckTwo the deck of player two
+     * @return the win rate, draws counting as half a win
+     */
+    public double winRate(final int deckOne, final int deckTwo) {
+        long games = games(deckOne, deckTwo);
+        return games == 0 ? 0 : points(deckOne, deckTwo) / games;
+    }
+
+    /**
+     * Computes a 95% Wilson score interval around player one's win rate.
+     *
+     * @param deckOne the deck of player one
+     * @param deckTwo the deck of player two
+     * @return the lower and upper bound
+     */
+    public double[] confidenceInterval(final int deckOne, final int deckTwo) {
+        long games = games(deckOne, deckTwo);
+        if (games == 0) {
+            return new double[] {0, 1};
+        }
+        double rate = winRate(deckOne, deckTwo);
+        double z2 = Z_95 * Z_95;
+        double denominator = 1 + z2 / games;
+        double centre = (rate + z2 / (2 * games)) / denominator;
+        double margin = Z_95 * Math.sqrt(rate * (1 - rate) / games + z2 / (4.0 * games * games))
+                / denominator;
+        return new double[] {Math.max(0, centre - margin), Math.min(1, centre + margin)};
+    }
+
+    private long games(final int deckOne, final int deckTwo) {
+        return tally.getWins(deckOne, deckTwo) + tally.getLosses(deckOne, deckTwo)
+                + tally.getDraws(deckOne, deckTwo);
+    }
+
+    private double points(final int deckOne, final int deckTwo) {
+        return tally.getWins(deckOne, deckTwo) + HALF * tally.getDraws(deckOne, deckTwo);
+    }
+
+    /**
+     * Formats the matrix, player one decks as rows and player two decks as columns.
+     *
+     * @return the formatted matrix
+     */
+    public String formatTable() {
+        StringBuilder table = new StringBuilder(String.format("%-8s", "P1\\P2"));
+        for (int deckTwo = 0; deckTwo < playerTwoDecks; deckTwo++) {
+            table.append(String.format(" %-19s", "deck " + deckTwo));
+        }
+        table.append(System.lineSeparator());
+        for (int deckOne = 0; deckOne < playerOneDecks; deckOne++) {
+            table.append(String.format("%-8s", "deck " + deckOne));
+            for (int deckTwo = 0; deckTwo < playerTwoDecks; deckTwo++) {
+                double[] interval = confidenceInterval(deckOne, deckTwo);
+                table.append(String.format(" %.3f [%.3f,%.3f]", winRate(deckOne, deckTwo),
+                        interval[0], interval[1]));
+            }
+            table.append(System.lineSeparator());
+        }
+        return table.toString();
+    }
+
+    /**
+     * Builds a JSON view of the matrix, one object per deck pair.
+     *
+     * @param objectMapper the mapper used to create the nodes
+     * @return the matrix as a JSON array
+     */
+    public ArrayNode toJson(final ObjectMapper objectMapper) {
+        ArrayNode cells = objectMapper.createArrayNode();
+        for (int deckOne = 0; deckOne < playerOneDecks; deckOne++) {
+            for (int deckTwo = 0; deckTwo < playerTwoDecks; deckTwo++) {
+                double[] interval = confidenceInterval(deckOne, deckTwo);
+                ObjectNode cell = cells.addObject();
+                cell.put("playerOneDeckIdx", deckOne);
+                cell.put("playerTwoDeckIdx", deckTwo);
+                cell.put("wins", tally.getWins(deckOne, deckTwo));
+                cell.put("losses", tally.getLosses(deckOne, deckTwo));
+                cell.put("draws", tally.getDraws(deckOne, deckTwo));
+                cell.put("winRate", winRate(deckOne, deckTwo));
+                cell.put("low", interval[0]);
+                cell.put("high", interval[1]);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Plays a range of flattened game indices, splitting it in halves until it is
+     * small enough, and returns the merged tally of the range.
+     */
+    private final class Slice extends RecursiveTask<MatchupTally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Slice(final long from, final long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected MatchupTally compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                MatchupTally local = new MatchupTally(playerOneDecks, playerTwoDecks);
+                for (long i = from; i < to; i++) {
+                    play(i, local);
+                }
+                return local;
+            }
+            long middle = (from + to) >>> 1;
+            Slice left = new Slice(from, middle);
+            left.fork();
+            MatchupTally right = new Slice(middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Computes a matchup matrix from the command line.
+     * Usage: input.json policyOne policyTwo seeds [output.json]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the input cannot be read or the output written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length <= ARG_SEEDS) {
+            System.err.println("Usage: MatchupMatrix <input.json> <policyOne> <policyTwo>"
+                    + " <seeds> [output.json]");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        InputCopy inputData = new InputCopy(objectMapper.readValue(new File(args[0]),
+                Input.class));
+        MatchupMatrix matrix = new MatchupMatrix(inputData,
+                Policies.byName(args[ARG_POLICY_ONE]), Policies.byName(args[ARG_POLICY_TWO]),
+                0, Integer.parseInt(args[ARG_SEEDS]), DEFAULT_MAX_ROUNDS);
+
+        matrix.compute(ForkJoinPool.commonPool());
+        System.out.print(matrix.formatTable());
+        if (args.length > ARG_JSON) {
+            objectMapper.writerWithDefaultPrettyPrinter()
+                    .writeValue(new File(args[ARG_JSON]), matrix.toJson(objectMapper));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.poo.matchup;
+
+/**
+ * Game outcomes per deck pair, counted from player one's point of view. Each fork/join
+ * leaf fills its own tally and tallies are summed on join, so workers never share one.
+ */
+public final class MatchupTally {
+
+    private final int playerTwoDecks;
+    private final long[] wins;
+    private final long[] losses;
+    private final long[] draws;
+
+    /**
+     * Constructs an empty tally.
+     *
+     * @param playerOneDecks the number of player one decks
+     * @param playerTwoDecks the number of player two decks
+     */
+    public MatchupTally(final int playerOneDecks, final int playerTwoDecks) {
+        this.playerTwoDecks = playerTwoDecks;
+        this.wins = new long[playerOneDecks * playerTwoDecks];
+        this.losses = new long[playerOneDecks * playerTwoDecks];
+        this.draws = new long[playerOneDecks * playerTwoDecks];
+    }
+
+    /**
+     * Records one game.
+     *
+     * @param deckOne the deck of player one
+     * @param deckTwo the deck of player two
+     * @param winner  1 or 2 for the winning player, 0 for a draw
+     */
+    void record(final int deckOne, final int deckTwo, final int winner) {
+        int cell = deckOne * playerTwoDecks + deckTwo;
+        if (winner == 1) {
+            wins[cell]++;
+        } else if (winner == 2) {
+            losses[cell]++;
+        } else {
+            draws[cell]++;
+        }
+    }
+
+    /**
+     * Adds the counts of another tally to this one.
+     *
+     * @param other the tally to merge
+     * @return this tally
+     */
+    MatchupTally merge(final MatchupTally other) {
+        for (int i = 0; i < wins.length; i++) {
+            wins[i] += other.wins[i];
+            losses[i] += other.losses[i];
+            draws[i] += other.draws[i];
+        }
+        return this;
+    }
+
+    /**
+     * Gets the games player one won with the given decks.
+     *
+     * @param deckOne the deck of player one
+     * @param deckTwo the deck of player two
+     * @return the wins
+     */
+    public long getWins(final int deckOne, final int deckTwo) {
+        return wins[deckOne * playerTwoDecks + deckTwo];
+    }
+
+    /**
+     * Gets the games player one lost with the given decks.
+     *
+     * @param deckOne the deck of player one
+     * @param deckTwo the deck of player two
+     * @return the losses
+     */
+    public long getLosses(final int deckOne, final int deckTwo) {
+        return losses[deckOne * playerTwoDecks + deckTwo];
+    }
+
+    /**
+     * Gets the games that reached the round limit with the given decks.
+     *
+     * @param deckOne the deck of player one
+     * @param deckTwo the deck of player two
+     * @return the draws
+     */
+    public long getDraws(final int deckOne, final int deckTwo) {
+        return draws[deckOne * playerTwoDecks + deckTwo];
+    }
+}
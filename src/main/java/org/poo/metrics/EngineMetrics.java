@@ -0,0 +1,294 @@
+package org.poo.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide counters and latency histograms for the commands handled by
+ * GameExecutor.processAction.
+ *
+ * Recording is off unless the system property gwentstone.metrics is true or
+ * setEnabled(true) is called; when off, processAction only reads one volatile flag.
+ */
+public final class EngineMetrics {
+
+    /**
+     * The commands understood by processAction, in report order.
+     */
+    public static final String[] COMMANDS = {"getPlayerDeck", "getPlayerHero",
+        "getPlayerTurn", "placeCard", "endPlayerTurn", "getPlayerMana", "getCardsInHand",
+        "getCardsOnTable", "cardUsesAttack", "cardUsesAbility", "useHeroAbility",
+        "useAttackHero", "getCardAtPosition", "getFrozenCardsOnTable", "getPlayerOneWins",
+        "getPlayerTwoWins", "getTotalGamesPlayed", "unknown"};
+
+    private static final int UNKNOWN = COMMANDS.length - 1;
+    private static final double P50 = 50.0;
+    private static final double P90 = 90.0;
+    private static final double P99 = 99.0;
+    private static final double P999 = 99.9;
+    private static final Map<String, Integer> OPCODES = new ConcurrentHashMap<>();
+    private static final LongAdder[] INVOCATIONS = new LongAdder[COMMANDS.length];
+    private static final LongAdder[] ERRORS = new LongAdder[COMMANDS.length];
+    private static final LatencyHistogram[] LATENCIES = new LatencyHistogram[COMMANDS.length];
+    private static final Map<String, Map<String, LongAdder>> ERROR_MESSAGES =
+            new ConcurrentHashMap<>();
+    private static final LongAdder GAMES_PLAYED = new LongAdder();
+    private static final LongAdder GAMES_WON_PLAYER_ONE = new LongAdder();
+    private static final LongAdder GAMES_WON_PLAYER_TWO = new LongAdder();
+    private static final LongAdder ACTIVE_MATCHES = new LongAdder();
+    private static final Map<String, LongSupplier> QUEUES = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled = Boolean.getBoolean("gwentstone.metrics");
+
+    static {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            OPCODES.put(COMMANDS[i], i);
+            INVOCATIONS[i] = new LongAdder();
+            ERRORS[i] = new LongAdder();
+            LATENCIES[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * for coding style
+     */
+    private EngineMetrics() {
+    }
+
+    /**
+     * Checks whether recording is on.
+     *
+     * @return true if processAction records metrics
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns recording on or off.
+     *
+     * @param on true to record metrics
+     */
+    public static void setEnabled(final boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Gets the opcode of a command, the index of the command in COMMANDS.
+     *
+     * @param command the command name
+     * @return the opcode, the one of "unknown" for unrecognized commands
+     */
+    public static int opcodeOf(final String command) {
+        Integer opcode = command == null ? null : OPCODES.get(command);
+        return opcode == null ? UNKNOWN : opcode;
+    }
+
+    /**
+     * Records one processed action.
+     *
+     * @param command the command of the action
+     * @param error   the error message the action produced, or null
+     * @param nanos   the time spent in processAction
+     */
+    public static void record(final String command, final String error, final long nanos) {
+        int opcode = opcodeOf(command);
+        INVOCATIONS[opcode].increment();
+        LATENCIES[opcode].record(nanos);
+        if (error != null) {
+            ERRORS[opcode].increment();
+            ERROR_MESSAGES.computeIfAbsent(COMMANDS[opcode], k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(error, k -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Records that a game was set up.
+     */
+    public static void recordGameStarted() {
+        ACTIVE_MATCHES.increment();
+    }
+
+    /**
+     * Records that a game finished.
+     *
+     * @param winner 1 or 2 for the player who killed the enemy hero, 0 if nobody did
+     */
+    public static void recordGameFinished(final int winner) {
+        ACTIVE_MATCHES.decrement();
+        GAMES_PLAYED.increment();
+        if (winner == 1) {
+            GAMES_WON_PLAYER_ONE.increment();
+        } else if (winner == 2) {
+            GAMES_WON_PLAYER_TWO.increment();
+        }
+    }
+
+    /**
+     * Registers a queue whose depth is exported with the metrics.
+     *
+     * @param name  the queue name
+     * @param depth supplies the current number of queued items
+     */
+    public static void registerQueue(final String name, final LongSupplier depth) {
+        QUEUES.put(name, depth);
+    }
+
+    /**
+     * Removes a queue registered with registerQueue.
+     *
+     * @param name the queue name
+     */
+    public static void unregisterQueue(final String name) {
+        QUEUES.remove(name);
+    }
+
+    /**
+     * Gets the registered queues.
+     *
+     * @return the depth supplier of every queue, by name
+     */
+    public static Map<String, LongSupplier> getQueues() {
+        return QUEUES;
+    }
+
+    /**
+     * Gets the number of finished games.
+     *
+     * @return the game count
+     */
+    public static long getGamesPlayed() {
+        return GAMES_PLAYED.sum();
+    }
+
+    /**
+     * Gets the number of games won by player one.
+     *
+     * @return the win count
+     */
+    public static long getGamesWonPlayerOne() {
+        return GAMES_WON_PLAYER_ONE.sum();
+    }
+
+    /**
+     * Gets the number of games won by player two.
+     *
+     * @return the win count
+     */
+    public static long getGamesWonPlayerTwo() {
+        return GAMES_WON_PLAYER_TWO.sum();
+    }
+
+    /**
+     * Gets the number of games set up but not finished yet.
+     *
+     * @return the active game count
+     */
+    public static long getActiveMatches() {
+        return ACTIVE_MATCHES.sum();
+    }
+
+    /**
+     * Gets the number of invocations of a command.
+     *
+     * @param opcode the opcode of the command
+     * @return the invocation count
+     */
+    public static long getInvocations(final int opcode) {
+        return INVOCATIONS[opcode].sum();
+    }
+
+    /**
+     * Gets the number of invocations of a command that produced an error.
+     *
+     * @param opcode the opcode of the command
+     * @return the error count
+     */
+    public static long getErrors(final int opcode) {
+        return ERRORS[opcode].sum();
+    }
+
+    /**
+     * Gets the latency histogram of a command.
+     *
+     * @param opcode the opcode of the command
+     * @return the histogram
+     */
+    public static LatencyHistogram getLatency(final int opcode) {
+        return LATENCIES[opcode];
+    }
+
+    /**
+     * Clears every counter and histogram.
+     */
+    public static void reset() {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            INVOCATIONS[i].reset();
+            ERRORS[i].reset();
+            LATENCIES[i].reset();
+        }
+        ERROR_MESSAGES.clear();
+        GAMES_PLAYED.reset();
+        GAMES_WON_PLAYER_ONE.reset();
+        GAMES_WON_PLAYER_TWO.reset();
+    }
+
+    /**
+     * Builds a JSON report of all commands that were invoked at least once.
+     *
+     * @param objectMapper the mapper used to create the nodes
+     * @return the report
+     */
+    public static ObjectNode report(final ObjectMapper objectMapper) {
+        ObjectNode report = objectMapper.createObjectNode();
+        report.put("gamesPlayed", GAMES_PLAYED.sum());
+        report.put("gamesWonPlayerOne", GAMES_WON_PLAYER_ONE.sum());
+        report.put("gamesWonPlayerTwo", GAMES_WON_PLAYER_TWO.sum());
+        ObjectNode commands = report.putObject("commands");
+        for (int i = 0; i < COMMANDS.length; i++) {
+            long invocations = INVOCATIONS[i].sum();
+            if (invocations == 0) {
+                continue;
+            }
+            ObjectNode command = commands.putObject(COMMANDS[i]);
+            command.put("invocations", invocations);
+            command.put("errors", ERRORS[i].sum());
+
+            LatencyHistogram histogram = LATENCIES[i];
+            ObjectNode latency = command.putObject("latencyNanos");
+            latency.put("mean", histogram.getMean());
+            latency.put("p50", histogram.getPercentile(P50));
+            latency.put("p90", histogram.getPercentile(P90));
+            latency.put("p99", histogram.getPercentile(P99));
+            latency.put("p999", histogram.getPercentile(P999));
+            latency.put("max", histogram.getMax());
+
+            Map<String, LongAdder> messages = ERROR_MESSAGES.get(COMMANDS[i]);
+            if (messages != null) {
+                ObjectNode byMessage = command.putObject("errorsByMessage");
+                for (Map.Entry<String, LongAdder> entry : messages.entrySet()) {
+                    byMessage.put(entry.getKey(), entry.getValue().sum());
+                }
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Writes the JSON report to a file.
+     *
+     * @param file the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeReport(final File file) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report(objectMapper));
+    }
+}
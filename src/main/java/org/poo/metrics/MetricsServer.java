@@ -0,0 +1,189 @@
+package org.poo.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+/**
+ * Serves EngineMetrics in the Prometheus text format on a loopback-only port.
+ * Scrapes are answered on a single daemon thread and only read the LongAdders and
+ * histograms, so they never block the game threads.
+ */
+public final class MetricsServer {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final int HTTP_OK = 200;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * Binds the server to the loopback interface. Call start to begin serving.
+     *
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public MetricsServer(final int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                0);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    /**
+     * Starts serving and turns metric recording on.
+     */
+    public void start() {
+        EngineMetrics.setEnabled(true);
+        server.start();
+    }
+
+    /**
+     * Stops serving.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Starts a server if the system property gwentstone.metrics.port is set.
+     *
+     * @return the started server, or null if the property is not set
+     * @throws IOException if the port cannot be bound
+     */
+    public static MetricsServer startFromProperties() throws IOException {
+        String port = System.getProperty("gwentstone.metrics.port");
+        if (port == null) {
+            return null;
+        }
+        MetricsServer metricsServer = new MetricsServer(Integer.parseInt(port));
+        metricsServer.start();
+        return metricsServer;
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(HTTP_OK, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text format.
+     *
+     * @return the exposition text
+     */
+    public String scrape() {
+        StringBuilder text = new StringBuilder();
+
+        header(text, "gwentstone_games_played_total", "counter", "Games finished.");
+        sample(text, "gwentstone_games_played_total", "", EngineMetrics.getGamesPlayed());
+        header(text, "gwentstone_games_won_total", "counter", "Games won, by side.");
+        sample(text, "gwentstone_games_won_total", "{player=\"one\"}",
+                EngineMetrics.getGamesWonPlayerOne());
+        sample(text, "gwentstone_games_won_total", "{player=\"two\"}",
+                EngineMetrics.getGamesWonPlayerTwo());
+        long active = EngineMetrics.getActiveMatches();
+        header(text, "gwentstone_active_matches", "gauge", "Games set up and not finished.");
+        sample(text, "gwentstone_active_matches", "", active);
+
+        // throughput is rate(gwentstone_actions_total[...]) on the Prometheus side
+        header(text, "gwentstone_actions_total", "counter", "Actions processed, by command.");
+        for (int i = 0; i < EngineMetrics.COMMANDS.length; i++) {
+            sample(text, "gwentstone_actions_total", command(i), EngineMetrics.getInvocations(i));
+        }
+        header(text, "gwentstone_action_errors_total", "counter",
+                "Actions that produced an error, by command.");
+        for (int i = 0; i < EngineMetrics.COMMANDS.length; i++) {
+            sample(text, "gwentstone_action_errors_total", command(i),
+                    EngineMetrics.getErrors(i));
+        }
+
+        header(text, "gwentstone_action_latency_seconds", "summary",
+                "Time spent in processAction, by command.");
+        for (int i = 0; i < EngineMetrics.COMMANDS.length; i++) {
+            LatencyHistogram histogram = EngineMetrics.getLatency(i);
+            if (EngineMetrics.getInvocations(i) == 0) {
+                continue;
+            }
+            String name = EngineMetrics.COMMANDS[i];
+            for (int q = 0; q < QUANTILES.length; q++) {
+                sample(text, "gwentstone_action_latency_seconds",
+                        "{command=\"" + name + "\",quantile=\"" + QUANTILES[q] + "\"}",
+                        histogram.getPercentile(PERCENTILES[q]) / NANOS_PER_SECOND);
+            }
+            sample(text, "gwentstone_action_latency_seconds_sum", command(i),
+                    histogram.getSum() / NANOS_PER_SECOND);
+            sample(text, "gwentstone_action_latency_seconds_count", command(i),
+                    histogram.getCount());
+        }
+
+        long heapUsed = memoryBean.getHeapMemoryUsage().getUsed();
+        header(text, "gwentstone_heap_used_bytes", "gauge", "Heap in use.");
+        sample(text, "gwentstone_heap_used_bytes", "", heapUsed);
+        header(text, "gwentstone_heap_used_per_active_match_bytes", "gauge",
+                "Heap in use divided by the number of active matches.");
+        sample(text, "gwentstone_heap_used_per_active_match_bytes", "",
+                (double) heapUsed / Math.max(1, active));
+
+        header(text, "gwentstone_queue_depth", "gauge", "Items waiting in registered queues.");
+        for (Map.Entry<String, LongSupplier> queue : EngineMetrics.getQueues().entrySet()) {
+            sample(text, "gwentstone_queue_depth", "{queue=\"" + queue.getKey() + "\"}",
+                    queue.getValue().getAsLong());
+        }
+        return text.toString();
+    }
+
+    private static String command(final int opcode) {
+        return "{command=\"" + EngineMetrics.COMMANDS[opcode] + "\"}";
+    }
+
+    private static void header(final StringBuilder text, final String name, final String type,
+                               final String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(final StringBuilder text, final String name,
+                               final String labels, final double value) {
+        text.append(name).append(labels).append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            text.append((long) value);
+        } else {
+            text.append(value);
+        }
+        text.append('\n');
+    }
+}
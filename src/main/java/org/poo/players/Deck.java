@@ -1,17 +1,32 @@
 package org.poo.players;
 
 import org.poo.cards.Card;
+import org.poo.utils.CardInputCopy;
+
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
 
 /**
  * Represents a deck of cards used by a player in the game.
  * This class is final to prevent subclassing.
+ *
+ * A deck built from templates is lazy: it keeps the card inputs and the shuffled order,
+ * and creates a Card only when one is drawn. Any other change first turns the rest of
+ * the deck into Card objects. With a LazyShuffle even the order is only worked out as
+ * far as the deck is drawn or looked at.
  */
 public final class Deck {
 
     private List<Card> cards = new ArrayList<>();
+    private List<CardInputCopy> templates;
+    private int[] order;
+    private LazyShuffle lazyOrder;
+    private int next;
+    private Function<CardInputCopy, Card> factory;
 
     /**
      * Default constructor.
@@ -27,6 +42,51 @@ public final class Deck {
         this.cards = new ArrayList<>(cards); // Deep copy to avoid external modification
     }
 
+    /**
+     * Constructs a lazy deck, shuffled in the order Collections.shuffle would give the
+     * template list with the same random source.
+     *
+     * @param templates the card inputs, which are not copied and must not change
+     * @param random    the shuffle source, for example new Random(shuffleSeed)
+     * @param factory   creates the card drawn from a template
+     */
+    public Deck(final List<CardInputCopy> templates, final Random random,
+                final Function<CardInputCopy, Card> factory) {
+        this(templates, random, factory, false);
+    }
+
+    /**
+     * Constructs a lazy deck. With drawOnDemand the order comes from a LazyShuffle, so
+     * setting the deck up costs the same for any size, but the order differs from the
+     * one Collections.shuffle gives; otherwise the whole order is shuffled up front,
+     * exactly as Collections.shuffle would shuffle the template list.
+     *
+     * @param templates    the card inputs, which are not copied and must not change
+     * @param random       the shuffle source, for example new Random(shuffleSeed)
+     * @param factory      creates the card drawn from a template
+     * @param drawOnDemand whether to work the order out only as cards are drawn
+     */
+    public Deck(final List<CardInputCopy> templates, final Random random,
+                final Function<CardInputCopy, Card> factory, final boolean drawOnDemand) {
+        this.templates = templates;
+        this.factory = factory;
+        if (drawOnDemand) {
+            this.lazyOrder = new LazyShuffle(templates.size(), random);
+            return;
+        }
+        this.order = new int[templates.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        // the same swaps as Collections.shuffle on a random access list
+        for (int i = order.length; i > 1; i--) {
+            int j = random.nextInt(i);
+            int swapped = order[i - 1];
+            order[i - 1] = order[j];
+            order[j] = swapped;
+        }
+    }
+
     /**
      * Copy constructor to create a deep copy of another deck.
      *
@@ -34,6 +94,77 @@ public final class Deck {
      */
     public Deck(final Deck other) {
         this.cards = new ArrayList<>(other.cards); // Deep copy to avoid external modification
+        // an order only ever gets resolved further, never changed, so it can be shared
+        this.templates = other.templates;
+        this.order = other.order;
+        this.lazyOrder = other.lazyOrder;
+        this.next = other.next;
+        this.factory = other.factory;
+    }
+
+    /**
+     * Tells whether the deck still holds templates rather than cards.
+     *
+     * @return true for a lazy deck
+     */
+    public boolean isLazy() {
+        return templates != null;
+    }
+
+    /**
+     * Gets the templates of the cards left, the next draw first, without creating cards.
+     *
+     * @return a read-only view, or null once the deck holds Card objects
+     */
+    public List<CardInputCopy> getTemplates() {
+        if (templates == null) {
+            return null;
+        }
+        return new AbstractList<CardInputCopy>() {
+            @Override
+            public CardInputCopy get(final int index) {
+                return templates.get(orderAt(next + index));
+            }
+
+            @Override
+            public int size() {
+                return orderSize() - next;
+            }
+        };
+    }
+
+    /**
+     * Turns the cards left into Card objects, so the deck can be changed freely.
+     */
+    private void materialize() {
+        if (templates == null) {
+            return;
+        }
+        cards = materializeRest();
+        dropTemplates();
+    }
+
+    private void dropTemplates() {
+        templates = null;
+        order = null;
+        lazyOrder = null;
+        factory = null;
+    }
+
+    private List<Card> materializeRest() {
+        List<Card> rest = new ArrayList<>(orderSize() - next);
+        for (int i = next; i < orderSize(); i++) {
+            rest.add(factory.apply(templates.get(orderAt(i))));
+        }
+        return rest;
+    }
+
+    private int orderSize() {
+        return lazyOrder != null ? lazyOrder.size() : order.length;
+    }
+
+    private int orderAt(final int position) {
+        return lazyOrder != null ? lazyOrder.get(position) : order[position];
     }
 
     /**
@@ -42,6 +173,7 @@ public final class Deck {
      * @param card The card to add.
      */
     public void addCard(final Card card) {
+        materialize();
         cards.add(card);
     }
 
@@ -51,6 +183,9 @@ public final class Deck {
      * @return The first card in the deck, or null if the deck is empty.
      */
     public Card drawCard() {
+        if (templates != null) {
+            return next < orderSize() ? factory.apply(templates.get(orderAt(next++))) : null;
+        }
         if (cards.isEmpty()) {
             return null;
         }
@@ -61,6 +196,7 @@ public final class Deck {
      * Shuffles the deck of cards.
      */
     public void shuffleDeck() {
+        materialize();
         Collections.shuffle(cards);
     }
 
@@ -70,6 +206,7 @@ public final class Deck {
      * @param newCards The new list of cards to reset the deck with.
      */
     public void resetDeck(final List<Card> newCards) {
+        dropTemplates();
         cards.clear();
         cards.addAll(newCards);
         shuffleDeck();
@@ -81,7 +218,7 @@ public final class Deck {
      * @return The size of the deck.
      */
     public int getDeckSize() {
-        return cards.size();
+        return templates != null ? orderSize() - next : cards.size();
     }
 
     /**
@@ -90,15 +227,19 @@ public final class Deck {
      * @return True if the deck is empty; false otherwise.
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return getDeckSize() == 0;
     }
 
     /**
-     * Gets the list of cards in the deck.
+     * Gets the list of cards in the deck. A lazy deck creates fresh cards for the call
+     * and stays lazy.
      *
      * @return A list of cards in the deck.
      */
     public List<Card> getCards() {
+        if (templates != null) {
+            return materializeRest();
+        }
         return new ArrayList<>(cards); // Return a copy to avoid external modification
     }
 
@@ -108,6 +249,7 @@ public final class Deck {
      * @param newCards The new list of cards to set.
      */
     public void setCards(final List<Card> newCards) {
+        dropTemplates();
         this.cards = new ArrayList<>(newCards);
     }
 
@@ -115,6 +257,7 @@ public final class Deck {
      * Clears all cards from the deck.
      */
     public void clear() {
+        dropTemplates();
         cards.clear();
     }
 
@@ -124,6 +267,7 @@ public final class Deck {
      * @param newCards The list of cards to add.
      */
     public void addAll(final List<Card> newCards) {
+        materialize();
         cards.addAll(newCards);
     }
 
@@ -133,6 +277,7 @@ public final class Deck {
      * @param card The card to remove.
      */
     public void remove(final Card card) {
+        materialize();
         cards.remove(card);
     }
 
@@ -142,6 +287,7 @@ public final class Deck {
      * @param index The index of the card to remove.
      */
     public void remove(final int index) {
+        materialize();
         cards.remove(index);
     }
 
@@ -152,6 +298,7 @@ public final class Deck {
      * @return The card at the specified index.
      */
     public Card get(final int index) {
+        materialize();
         return cards.get(index);
     }
 
@@ -161,6 +308,7 @@ public final class Deck {
      * @param card The card to add.
      */
     public void add(final Card card) {
+        materialize();
         cards.add(card);
     }
 }
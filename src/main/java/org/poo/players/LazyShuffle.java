@@ -0,0 +1,150 @@
+package org.poo.players;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A random permutation of 0..size-1 worked out one position at a time, for decks far
+ * larger than the part of them a game ever draws.
+ *
+ * It runs Fisher-Yates from the front: position i swaps with a random position in
+ * i..size-1. Only positions touched by a swap differ from the identity, so they are
+ * kept in a small hash map, and setting up a permutation of any size costs nothing.
+ * Positions are resolved in order, so the result depends only on the seed, whatever
+ * order the positions are asked for in. The permutation is not the one
+ * Collections.shuffle gives for the same seed.
+ */
+public final class LazyShuffle {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int EMPTY = -1;
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+    private final int size;
+    private final Random random;
+    private int[] resolved = new int[INITIAL_CAPACITY];
+    private int resolvedCount;
+    // open addressing map from a swapped position to the value it now holds
+    private int[] keys = newTable(INITIAL_CAPACITY);
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int entries;
+
+    /**
+     * Creates a permutation; nothing is computed yet.
+     *
+     * @param size   the number of positions
+     * @param random the source of the swaps
+     */
+    public LazyShuffle(final int size, final Random random) {
+        this.size = size;
+        this.random = random;
+    }
+
+    /**
+     * Gets the number of positions.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the value at a position, resolving the positions before it if needed.
+     *
+     * @param position the position, 0 to size-1
+     * @return the value, 0 to size-1
+     * @throws IndexOutOfBoundsException if the position is outside the permutation
+     */
+    public int get(final int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + ", size " + size);
+        }
+        while (resolvedCount <= position) {
+            resolveNext();
+        }
+        return resolved[position];
+    }
+
+    private void resolveNext() {
+        int i = resolvedCount;
+        int j = i + random.nextInt(size - i);
+        int atI = valueAt(i);
+        int atJ = valueAt(j);
+        if (j != i) {
+            put(j, atI);
+        }
+        // position i is final now and never read from the map again
+        remove(i);
+        if (resolvedCount == resolved.length) {
+            resolved = Arrays.copyOf(resolved, resolved.length * 2);
+        }
+        resolved[resolvedCount++] = atJ;
+    }
+
+    private int valueAt(final int position) {
+        int slot = find(position);
+        return keys[slot] == EMPTY ? position : values[slot];
+    }
+
+    private int find(final int key) {
+        int mask = keys.length - 1;
+        int slot = (key * HASH_MULTIPLIER >>> 1) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void put(final int key, final int value) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            if ((entries + 1) * 2 > keys.length) {
+                grow();
+                slot = find(key);
+            }
+            keys[slot] = key;
+            entries++;
+        }
+        values[slot] = value;
+    }
+
+    private void remove(final int key) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            return;
+        }
+        keys[slot] = EMPTY;
+        entries--;
+        // move back the entries of the probe run that follows, so lookups still find them
+        int mask = keys.length - 1;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int movedKey = keys[next];
+            int movedValue = values[next];
+            keys[next] = EMPTY;
+            entries--;
+            put(movedKey, movedValue);
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = newTable(oldKeys.length * 2);
+        values = new int[oldKeys.length * 2];
+        entries = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int[] newTable(final int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
@@ -0,0 +1,127 @@
+package org.poo.players;
+
+import java.util.Arrays;
+
+/**
+ * Compact variant of GameBoard holding cards encoded by PackedCard. The whole board is
+ * one long array of four rows of five cells, so copying a board is one arraycopy.
+ */
+public final class PackedBoard {
+
+    private static final int ROW_COUNT = 4;
+    private static final int MAX_CARDS_PER_ROW = 5;
+
+    private final long[] cells = new long[ROW_COUNT * MAX_CARDS_PER_ROW];
+    private final int[] rowSizes = new int[ROW_COUNT];
+
+    /**
+     * Creates an empty board.
+     */
+    public PackedBoard() {
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other the board to copy
+     */
+    public PackedBoard(final PackedBoard other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Makes this board equal to another one, without allocating.
+     *
+     * @param other the board to copy
+     */
+    public void copyFrom(final PackedBoard other) {
+        System.arraycopy(other.cells, 0, cells, 0, cells.length);
+        System.arraycopy(other.rowSizes, 0, rowSizes, 0, rowSizes.length);
+    }
+
+    /**
+     * Checks if a card can be placed on the specified row.
+     *
+     * @param rowIndex the index of the row
+     * @return true if the row has room
+     */
+    public boolean canPlaceCardOnRow(final int rowIndex) {
+        return rowSizes[rowIndex] < MAX_CARDS_PER_ROW;
+    }
+
+    /**
+     * Adds a card at the end of a row.
+     *
+     * @param rowIndex the index of the row
+     * @param card     the packed card
+     * @throws IllegalStateException if the row is full
+     */
+    public void addCardToRow(final int rowIndex, final long card) {
+        if (!canPlaceCardOnRow(rowIndex)) {
+            throw new IllegalStateException("Row " + rowIndex + " is full");
+        }
+        cells[rowIndex * MAX_CARDS_PER_ROW + rowSizes[rowIndex]++] = card;
+    }
+
+    /**
+     * Removes a card, shifting the cards after it to the left.
+     *
+     * @param rowIndex  the index of the row
+     * @param cardIndex the index of the card within the row
+     * @return the removed card
+     * @throws IndexOutOfBoundsException if there is no such card
+     */
+    public long removeCardFromRow(final int rowIndex, final int cardIndex) {
+        long card = getCard(rowIndex, cardIndex);
+        int cell = rowIndex * MAX_CARDS_PER_ROW + cardIndex;
+        System.arraycopy(cells, cell + 1, cells, cell, rowSizes[rowIndex] - cardIndex - 1);
+        rowSizes[rowIndex]--;
+        return card;
+    }
+
+    /**
+     * Gets a card.
+     *
+     * @param rowIndex  the index of the row
+     * @param cardIndex the index of the card within the row
+     * @return the packed card
+     * @throws IndexOutOfBoundsException if there is no such card
+     */
+    public long getCard(final int rowIndex, final int cardIndex) {
+        if (cardIndex < 0 || cardIndex >= rowSizes[rowIndex]) {
+            throw new IndexOutOfBoundsException("Row " + rowIndex + " has no card "
+                    + cardIndex);
+        }
+        return cells[rowIndex * MAX_CARDS_PER_ROW + cardIndex];
+    }
+
+    /**
+     * Replaces a card, for example after it took damage.
+     *
+     * @param rowIndex  the index of the row
+     * @param cardIndex the index of the card within the row
+     * @param card      the packed card
+     * @throws IndexOutOfBoundsException if there is no such card
+     */
+    public void setCard(final int rowIndex, final int cardIndex, final long card) {
+        getCard(rowIndex, cardIndex);
+        cells[rowIndex * MAX_CARDS_PER_ROW + cardIndex] = card;
+    }
+
+    /**
+     * Gets the number of cards on a row.
+     *
+     * @param rowIndex the index of the row
+     * @return the row size
+     */
+    public int getRowSize(final int rowIndex) {
+        return rowSizes[rowIndex];
+    }
+
+    /**
+     * Clears every row.
+     */
+    public void resetBoard() {
+        Arrays.fill(rowSizes, 0);
+    }
+}
@@ -0,0 +1,122 @@
+package org.poo.players;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Compact variant of Deck holding cards encoded by PackedCard in a long array.
+ * Cards are drawn from the front by moving a start index, so a draw copies nothing.
+ */
+public final class PackedDeck {
+
+    private long[] cards;
+    private int start;
+    private int end;
+
+    /**
+     * Creates a deck from packed cards, the first one drawn first.
+     *
+     * @param cards the packed cards, copied
+     */
+    public PackedDeck(final long[] cards) {
+        this.cards = Arrays.copyOf(cards, cards.length);
+        this.end = cards.length;
+    }
+
+    /**
+     * Copy constructor; one array copy of the cards left.
+     *
+     * @param other the deck to copy
+     */
+    public PackedDeck(final PackedDeck other) {
+        this.cards = Arrays.copyOfRange(other.cards, other.start, other.end);
+        this.end = cards.length;
+    }
+
+    /**
+     * Shuffles the deck exactly as Collections.shuffle shuffles a list with the same
+     * random source, so a packed deck keeps the order GameExecutor would give it.
+     *
+     * @param random the random source, for example new Random(shuffleSeed)
+     */
+    public void shuffle(final Random random) {
+        for (int i = end - start; i > 1; i--) {
+            int j = start + random.nextInt(i);
+            long swapped = cards[start + i - 1];
+            cards[start + i - 1] = cards[j];
+            cards[j] = swapped;
+        }
+    }
+
+    /**
+     * Draws the first card of the deck.
+     *
+     * @return the packed card
+     * @throws IllegalStateException if the deck is empty
+     */
+    public long drawCard() {
+        if (isEmpty()) {
+            throw new IllegalStateException("The deck is empty");
+        }
+        return cards[start++];
+    }
+
+    /**
+     * Adds a card at the bottom of the deck.
+     *
+     * @param card the packed card
+     */
+    public void addCard(final long card) {
+        if (end == cards.length) {
+            int size = getDeckSize();
+            long[] grown = new long[Math.max(1, size * 2)];
+            System.arraycopy(cards, start, grown, 0, size);
+            cards = grown;
+            start = 0;
+            end = size;
+        }
+        cards[end++] = card;
+    }
+
+    /**
+     * Gets a card.
+     *
+     * @param index the position in the deck, 0 is drawn next
+     * @return the packed card
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long get(final int index) {
+        if (index < 0 || index >= getDeckSize()) {
+            throw new IndexOutOfBoundsException("Deck index " + index + ", size "
+                    + getDeckSize());
+        }
+        return cards[start + index];
+    }
+
+    /**
+     * Returns the number of cards left in the deck.
+     *
+     * @return the size of the deck
+     */
+    public int getDeckSize() {
+        return end - start;
+    }
+
+    /**
+     * Checks if the deck is empty.
+     *
+     * @return true if the deck is empty
+     */
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Copies the cards left out.
+     *
+     * @return a new array holding the cards, the next draw first
+     */
+    public long[] toArray() {
+        return Arrays.copyOfRange(cards, start, end);
+    }
+}
@@ -0,0 +1,126 @@
+package org.poo.players;
+
+import org.poo.cards.PackedCard;
+
+import java.util.Arrays;
+
+/**
+ * Compact variant of Hand holding cards encoded by PackedCard in a long array.
+ */
+public final class PackedHand {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] cards;
+    private int size;
+
+    /**
+     * Creates an empty hand.
+     */
+    public PackedHand() {
+        cards = new long[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Copy constructor; one array copy.
+     *
+     * @param other the hand to copy
+     */
+    public PackedHand(final PackedHand other) {
+        cards = Arrays.copyOf(other.cards, Math.max(other.size, INITIAL_CAPACITY));
+        size = other.size;
+    }
+
+    /**
+     * Adds a card at the end of the hand.
+     *
+     * @param card the packed card
+     */
+    public void addCard(final long card) {
+        if (size == cards.length) {
+            cards = Arrays.copyOf(cards, cards.length * 2);
+        }
+        cards[size++] = card;
+    }
+
+    /**
+     * Removes a card, shifting the cards after it to the left.
+     *
+     * @param index the index of the card
+     * @return the removed card
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long removeCard(final int index) {
+        long card = getCard(index);
+        System.arraycopy(cards, index + 1, cards, index, size - index - 1);
+        size--;
+        return card;
+    }
+
+    /**
+     * Gets a card.
+     *
+     * @param index the index of the card
+     * @return the packed card
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public long getCard(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Hand index " + index + ", size " + size);
+        }
+        return cards[index];
+    }
+
+    /**
+     * Replaces a card.
+     *
+     * @param index the index of the card
+     * @param card  the packed card
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    public void setCard(final int index, final long card) {
+        getCard(index);
+        cards[index] = card;
+    }
+
+    /**
+     * Counts the cards that cost at most the given mana.
+     *
+     * @param currentMana the mana available
+     * @return the number of playable cards
+     */
+    public int countPlayable(final int currentMana) {
+        int playable = 0;
+        for (int i = 0; i < size; i++) {
+            if (PackedCard.mana(cards[i]) <= currentMana) {
+                playable++;
+            }
+        }
+        return playable;
+    }
+
+    /**
+     * Returns the number of cards in the hand.
+     *
+     * @return the size of the hand
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Clears all cards from the hand.
+     */
+    public void clearHand() {
+        size = 0;
+    }
+
+    /**
+     * Copies the cards out.
+     *
+     * @return a new array holding the cards in order
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(cards, size);
+    }
+}
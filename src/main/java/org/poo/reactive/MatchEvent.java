@@ -0,0 +1,108 @@
+package org.poo.reactive;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * One event of a match published by MatchPublisher. An ACTION or ERROR event is
+ * emitted for every action processed, and a single GAME_END event when a hero falls
+ * or the actions run out.
+ */
+public final class MatchEvent {
+
+    /**
+     * The kinds of event a match emits.
+     */
+    public enum Type {
+        /** An action was applied; output holds what GameExecutor wrote for it. */
+        ACTION,
+        /** An action was rejected; error holds the reason. */
+        ERROR,
+        /** The game is over; winner is 1 or 2, or 0 if the actions ran out first. */
+        GAME_END
+    }
+
+    private final Type type;
+    private final int actionIndex;
+    private final String command;
+    private final ObjectNode output;
+    private final String error;
+    private final int winner;
+
+    private MatchEvent(final Type type, final int actionIndex, final String command,
+                       final ObjectNode output, final String error, final int winner) {
+        this.type = type;
+        this.actionIndex = actionIndex;
+        this.command = command;
+        this.output = output;
+        this.error = error;
+        this.winner = winner;
+    }
+
+    static MatchEvent action(final int actionIndex, final String command,
+                             final ObjectNode output) {
+        return new MatchEvent(Type.ACTION, actionIndex, command, output, null, 0);
+    }
+
+    static MatchEvent error(final int actionIndex, final String command,
+                            final ObjectNode output, final String error) {
+        return new MatchEvent(Type.ERROR, actionIndex, command, output, error, 0);
+    }
+
+    static MatchEvent gameEnd(final int actionIndex, final int winner) {
+        return new MatchEvent(Type.GAME_END, actionIndex, null, null, null, winner);
+    }
+
+    /**
+     * Gets the event type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the index of the action in the game, or of the last action for GAME_END.
+     *
+     * @return the index, -1 for a game with no actions
+     */
+    public int getActionIndex() {
+        return actionIndex;
+    }
+
+    /**
+     * Gets the command of the action.
+     *
+     * @return the command, null for GAME_END
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the output node of the action, empty for actions that print nothing.
+     *
+     * @return the output, null for GAME_END
+     */
+    public ObjectNode getOutput() {
+        return output;
+    }
+
+    /**
+     * Gets the error of a rejected action.
+     *
+     * @return the error, null unless the type is ERROR
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Gets the winner.
+     *
+     * @return 1 or 2, 0 for no winner or for events other than GAME_END
+     */
+    public int getWinner() {
+        return winner;
+    }
+}
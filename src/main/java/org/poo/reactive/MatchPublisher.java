@@ -0,0 +1,184 @@
+package org.poo.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.GameInputCopy;
+import org.poo.utils.InputCopy;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes one game of an input as a stream of MatchEvents. The publisher is cold:
+ * every subscriber gets its own engine and sees the game from the start.
+ *
+ * Actions are processed only when the subscriber has demand for their events (the
+ * engine runs at most one action ahead), so a slow subscriber holds the game back
+ * instead of letting output pile up in memory.
+ * Signals are delivered on the given executor, never from inside request.
+ */
+public final class MatchPublisher implements Flow.Publisher<MatchEvent> {
+
+    private final InputCopy inputData;
+    private final GameInputCopy game;
+    private final Executor executor;
+
+    /**
+     * Creates a publisher for one game.
+     *
+     * @param inputData the decks and games
+     * @param gameIndex the game to publish
+     * @param executor  runs the engine and delivers the signals
+     */
+    public MatchPublisher(final InputCopy inputData, final int gameIndex,
+                          final Executor executor) {
+        this.inputData = inputData;
+        this.game = inputData.getGames().get(gameIndex);
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super MatchEvent> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        subscriber.onSubscribe(new MatchSubscription(subscriber));
+    }
+
+    /**
+     * The state of one subscriber. The engine is only touched from run, and the work
+     * counter makes sure at most one run is active at a time.
+     */
+    private final class MatchSubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super MatchEvent> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private final Queue<MatchEvent> pending = new ArrayDeque<>();
+        private final Iterator<ActionsInputCopy> actions = game.getActions().iterator();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+        private GameExecutor engine;
+        private int actionIndex = -1;
+        private boolean endReported;
+        private boolean gameClosed;
+        private boolean finished;
+
+        MatchSubscription(final Flow.Subscriber<? super MatchEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                // signalled from drain, so it never overlaps or follows another signal
+                if (invalidRequest == null) {
+                    invalidRequest = new IllegalArgumentException(
+                            "request must be positive: " + n);
+                }
+                schedule();
+                return;
+            }
+            long current;
+            long next;
+            do {
+                current = requested.get();
+                next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            } while (!requested.compareAndSet(current, next));
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void schedule() {
+            if (work.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            while (!cancelled && !finished) {
+                if (invalidRequest != null) {
+                    finished = true;
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                try {
+                    if (pending.isEmpty() && !produce()) {
+                        // completion needs no demand
+                        finished = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    finished = true;
+                    subscriber.onError(e);
+                    return;
+                }
+                if (requested.get() == 0) {
+                    return;
+                }
+                if (requested.get() != Long.MAX_VALUE) {
+                    requested.decrementAndGet();
+                }
+                subscriber.onNext(pending.poll());
+            }
+        }
+
+        /**
+         * Runs the engine until it has something to say.
+         *
+         * @return false once the game is over and every event has been queued
+         */
+        private boolean produce() {
+            if (engine == null) {
+                engine = new GameExecutor(inputData, new ObjectMapper().createArrayNode());
+                engine.beginGame(game.getStartGame());
+            }
+            if (actions.hasNext()) {
+                ActionsInputCopy action = actions.next();
+                actionIndex++;
+                ObjectNode output = engine.executeAction(action);
+                String error = GameExecutor.errorOf(output);
+                pending.add(error == null
+                        ? MatchEvent.action(actionIndex, action.getCommand(), output)
+                        : MatchEvent.error(actionIndex, action.getCommand(), output, error));
+                if (!endReported && engine.isGameEnded()) {
+                    endReported = true;
+                    pending.add(MatchEvent.gameEnd(actionIndex, engine.getWinner()));
+                }
+                return true;
+            }
+            if (gameClosed) {
+                return false;
+            }
+            gameClosed = true;
+            engine.endGame();
+            if (endReported) {
+                return false;
+            }
+            endReported = true;
+            pending.add(MatchEvent.gameEnd(actionIndex, 0));
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.poo.replay;
+
+import org.poo.fileio.Coordinates;
+import org.poo.metrics.EngineMetrics;
+import org.poo.utils.ActionsInputCopy;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary form of one action: the opcode of the command (its index in
+ * EngineMetrics.COMMANDS), a mask of the arguments that differ from their defaults, and
+ * those arguments as varints. A typical action takes two to four bytes.
+ */
+final class ActionCodec {
+
+    private static final int UNKNOWN = EngineMetrics.COMMANDS.length - 1;
+    private static final int HAND_IDX = 1;
+    private static final int ATTACKER = 1 << 1;
+    private static final int ATTACKED = 1 << 2;
+    private static final int AFFECTED_ROW = 1 << 3;
+    private static final int PLAYER_IDX = 1 << 4;
+    private static final int X = 1 << 5;
+    private static final int Y = 1 << 6;
+
+    /**
+     * for coding style
+     */
+    private ActionCodec() {
+    }
+
+    /**
+     * Writes an action.
+     *
+     * @param out    the output
+     * @param action the action
+     * @throws IOException if the output fails
+     */
+    static void write(final DataOutput out, final ActionsInputCopy action) throws IOException {
+        int opcode = EngineMetrics.opcodeOf(action.getCommand());
+        out.writeByte(opcode);
+        if (opcode == UNKNOWN) {
+            Varints.writeString(out, action.getCommand());
+        }
+        int mask = (action.getHandIdx() != 0 ? HAND_IDX : 0)
+                | (action.getCardAttacker() != null ? ATTACKER : 0)
+                | (action.getCardAttacked() != null ? ATTACKED : 0)
+                | (action.getAffectedRow() != 0 ? AFFECTED_ROW : 0)
+                | (action.getPlayerIdx() != 0 ? PLAYER_IDX : 0)
+                | (action.getX() != 0 ? X : 0)
+                | (action.getY() != 0 ? Y : 0);
+        out.writeByte(mask);
+        writeIf(out, mask, HAND_IDX, action.getHandIdx());
+        if ((mask & ATTACKER) != 0) {
+            writeCoordinates(out, action.getCardAttacker());
+        }
+        if ((mask & ATTACKED) != 0) {
+            writeCoordinates(out, action.getCardAttacked());
+        }
+        writeIf(out, mask, AFFECTED_ROW, action.getAffectedRow());
+        writeIf(out, mask, PLAYER_IDX, action.getPlayerIdx());
+        writeIf(out, mask, X, action.getX());
+        writeIf(out, mask, Y, action.getY());
+    }
+
+    /**
+     * Reads an action written by write.
+     *
+     * @param in the input
+     * @return the action
+     * @throws IOException if the input fails
+     */
+    static ActionsInputCopy read(final DataInput in) throws IOException {
+        int opcode = in.readUnsignedByte();
+        String command = opcode == UNKNOWN ? Varints.readString(in)
+                : EngineMetrics.COMMANDS[opcode];
+        int mask = in.readUnsignedByte();
+        int handIdx = readIf(in, mask, HAND_IDX);
+        Coordinates attacker = (mask & ATTACKER) != 0 ? readCoordinates(in) : null;
+        Coordinates attacked = (mask & ATTACKED) != 0 ? readCoordinates(in) : null;
+        int affectedRow = readIf(in, mask, AFFECTED_ROW);
+        int playerIdx = readIf(in, mask, PLAYER_IDX);
+        int x = readIf(in, mask, X);
+        int y = readIf(in, mask, Y);
+        return new ActionsInputCopy(command, handIdx, attacker, attacked, affectedRow,
+                playerIdx, x, y);
+    }
+
+    private static void writeIf(final DataOutput out, final int mask, final int bit,
+                                final int value) throws IOException {
+        if ((mask & bit) != 0) {
+            Varints.writeInt(out, value);
+        }
+    }
+
+    private static int readIf(final DataInput in, final int mask, final int bit)
+            throws IOException {
+        return (mask & bit) != 0 ? Varints.readInt(in) : 0;
+    }
+
+    private static void writeCoordinates(final DataOutput out, final Coordinates coordinates)
+            throws IOException {
+        Varints.writeInt(out, coordinates.getX());
+        Varints.writeInt(out, coordinates.getY());
+    }
+
+    private static Coordinates readCoordinates(final DataInput in) throws IOException {
+        Coordinates coordinates = new Coordinates();
+        coordinates.setX(Varints.readInt(in));
+        coordinates.setY(Varints.readInt(in));
+        return coordinates;
+    }
+}
@@ -0,0 +1,26 @@
+package org.poo.replay;
+
+/**
+ * Layout of the binary match log written by MatchLogWriter.
+ *
+ * The file starts with MAGIC, FORMAT_VERSION and the snapshot interval as a varint,
+ * followed by records. An ACTION record is the tag and one action in ActionCodec form.
+ * A SNAPSHOT record is the tag, the number of actions applied before it as a varint,
+ * the payload length as an int and a StateCodec payload. A snapshot is written before
+ * the first action and then before every interval-th action, so any action index can
+ * be reached by decoding one snapshot and replaying fewer than interval actions.
+ */
+final class MatchLog {
+
+    static final int MAGIC = 0x47534C47;
+    static final int FORMAT_VERSION = 1;
+    static final int TAG_ACTION = 1;
+    static final int TAG_SNAPSHOT = 2;
+    static final int DEFAULT_INTERVAL = 1024;
+
+    /**
+     * for coding style
+     */
+    private MatchLog() {
+    }
+}
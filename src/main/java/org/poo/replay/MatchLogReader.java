@@ -0,0 +1,139 @@
+package org.poo.replay;
+
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Reads a log written by MatchLogWriter. Opening the log scans the records once and
+ * remembers where every action and snapshot starts; seek then decodes the nearest
+ * snapshot at or before the target and replays only the actions after it.
+ */
+public final class MatchLogReader {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final byte[] data;
+    private final int interval;
+    private int[] actionOffsets = new int[INITIAL_CAPACITY];
+    private int actionCount;
+    private int[] snapshotActions = new int[INITIAL_CAPACITY];
+    private int[] snapshotOffsets = new int[INITIAL_CAPACITY];
+    private int snapshotCount;
+
+    /**
+     * Loads and indexes a log.
+     *
+     * @param file the log file
+     * @throws IOException if the file cannot be read or is not a match log
+     */
+    public MatchLogReader(final File file) throws IOException {
+        data = Files.readAllBytes(file.toPath());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MatchLog.MAGIC
+                || in.readUnsignedByte() != MatchLog.FORMAT_VERSION) {
+            throw new IOException(file + " is not a match log");
+        }
+        interval = Varints.readUnsigned(in);
+        while (in.available() > 0) {
+            int offset = data.length - in.available();
+            int tag = in.readUnsignedByte();
+            if (tag == MatchLog.TAG_ACTION) {
+                addAction(offset);
+                ActionCodec.read(in);
+            } else if (tag == MatchLog.TAG_SNAPSHOT) {
+                int actionIndex = Varints.readUnsigned(in);
+                int length = in.readInt();
+                addSnapshot(actionIndex, data.length - in.available());
+                in.skipBytes(length);
+            } else {
+                throw new IOException("Unknown record tag " + tag + " at byte " + offset);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of actions in the log.
+     *
+     * @return the count
+     */
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Gets the snapshot interval the log was written with.
+     *
+     * @return the interval
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Reads one action.
+     *
+     * @param index the action index
+     * @return the action
+     * @throws IOException if the log is truncated
+     */
+    public ActionsInputCopy getAction(final int index) throws IOException {
+        if (index < 0 || index >= actionCount) {
+            throw new IndexOutOfBoundsException("action " + index + " of " + actionCount);
+        }
+        DataInputStream in = at(actionOffsets[index] + 1);
+        return ActionCodec.read(in);
+    }
+
+    /**
+     * Rebuilds the game as it was just before an action.
+     *
+     * @param actionIndex the index of the next action to apply, up to getActionCount
+     * @return an engine holding the state before that action
+     * @throws IOException if the log is truncated
+     */
+    public GameExecutor seek(final int actionIndex) throws IOException {
+        if (actionIndex < 0 || actionIndex > actionCount) {
+            throw new IndexOutOfBoundsException("action " + actionIndex + " of " + actionCount);
+        }
+        int snapshot = Arrays.binarySearch(snapshotActions, 0, snapshotCount, actionIndex);
+        if (snapshot < 0) {
+            snapshot = -snapshot - 2;
+        }
+        if (snapshot < 0) {
+            throw new IOException("No snapshot before action " + actionIndex);
+        }
+        GameExecutor game = StateCodec.decode(at(snapshotOffsets[snapshot]));
+        for (int i = snapshotActions[snapshot]; i < actionIndex; i++) {
+            game.executeAction(getAction(i));
+        }
+        return game;
+    }
+
+    private DataInputStream at(final int offset) {
+        return new DataInputStream(new ByteArrayInputStream(data, offset, data.length - offset));
+    }
+
+    private void addAction(final int offset) {
+        if (actionCount == actionOffsets.length) {
+            actionOffsets = Arrays.copyOf(actionOffsets, actionCount * 2);
+        }
+        actionOffsets[actionCount++] = offset;
+    }
+
+    private void addSnapshot(final int actionIndex, final int offset) {
+        if (snapshotCount == snapshotActions.length) {
+            snapshotActions = Arrays.copyOf(snapshotActions, snapshotCount * 2);
+            snapshotOffsets = Arrays.copyOf(snapshotOffsets, snapshotCount * 2);
+        }
+        snapshotActions[snapshotCount] = actionIndex;
+        snapshotOffsets[snapshotCount] = offset;
+        snapshotCount++;
+    }
+}
@@ -0,0 +1,107 @@
+package org.poo.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.poo.bots.Moves;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.GameInputCopy;
+import org.poo.utils.InputCopy;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Command line front end of the match log: records one game of an input file, or
+ * seeks into a log and prints the state of the game at that point.
+ */
+public final class MatchLogTool {
+
+    private static final int ARG_INPUT = 1;
+    private static final int ARG_GAME = 2;
+    private static final int ARG_LOG = 3;
+    private static final int ARG_INTERVAL = 4;
+    private static final int ARG_ACTION = 2;
+
+    /**
+     * for coding style
+     */
+    private MatchLogTool() {
+    }
+
+    /**
+     * Records a game into a log.
+     *
+     * @param inputData the input holding the game
+     * @param gameIndex the game to record
+     * @param log       the log file
+     * @param interval  the number of actions between two snapshots
+     * @return the number of actions recorded
+     * @throws IOException if the log cannot be written
+     */
+    public static int record(final InputCopy inputData, final int gameIndex, final File log,
+                             final int interval) throws IOException {
+        GameInputCopy game = inputData.getGames().get(gameIndex);
+        GameExecutor engine = new GameExecutor(inputData, new ObjectMapper().createArrayNode());
+        try (MatchLogWriter writer = new MatchLogWriter(log, interval)) {
+            engine.beginGame(game.getStartGame());
+            engine.setActionRecorder(writer);
+            for (ActionsInputCopy action : game.getActions()) {
+                engine.executeAction(action);
+            }
+            engine.setActionRecorder(null);
+            engine.endGame();
+            return writer.getActions();
+        }
+    }
+
+    /**
+     * Describes a game the way the query commands would: turn, mana, heroes, hands,
+     * decks and board.
+     *
+     * @param game the engine
+     * @return one output node per query
+     */
+    public static ArrayNode describe(final GameExecutor game) {
+        ArrayNode state = new ObjectMapper().createArrayNode();
+        state.add(game.executeAction(Moves.query("getPlayerTurn", 0, 0, 0)));
+        for (int player = 1; player <= 2; player++) {
+            state.add(game.executeAction(Moves.query("getPlayerMana", player, 0, 0)));
+            state.add(game.executeAction(Moves.query("getPlayerHero", player, 0, 0)));
+            state.add(game.executeAction(Moves.query("getCardsInHand", player, 0, 0)));
+            state.add(game.executeAction(Moves.query("getPlayerDeck", player, 0, 0)));
+        }
+        state.add(game.executeAction(Moves.query("getCardsOnTable", 0, 0, 0)));
+        return state;
+    }
+
+    /**
+     * Usage: record input.json gameIndex out.log [interval]
+     *        | seek match.log actionIndex
+     *
+     * @param args the command line arguments
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        if (args.length > ARG_LOG && "record".equals(args[0])) {
+            InputCopy inputData = new InputCopy(objectMapper.readValue(new File(args[ARG_INPUT]),
+                    Input.class));
+            int interval = args.length > ARG_INTERVAL ? Integer.parseInt(args[ARG_INTERVAL])
+                    : MatchLog.DEFAULT_INTERVAL;
+            File log = new File(args[ARG_LOG]);
+            int actions = record(inputData, Integer.parseInt(args[ARG_GAME]), log, interval);
+            System.out.println(actions + " actions, " + log.length() + " bytes");
+        } else if (args.length > ARG_ACTION && "seek".equals(args[0])) {
+            MatchLogReader reader = new MatchLogReader(new File(args[ARG_INPUT]));
+            GameExecutor game = reader.seek(Integer.parseInt(args[ARG_ACTION]));
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(System.out, describe(game));
+            System.out.println();
+        } else {
+            System.err.println("Usage: MatchLogTool record <input.json> <gameIndex> <out.log>"
+                    + " [interval]");
+            System.err.println("       MatchLogTool seek <match.log> <actionIndex>");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.poo.replay;
+
+import org.poo.gamethread.ActionRecorder;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Appends every action of one match to a binary log, with a state snapshot every
+ * interval actions. Attach it with GameExecutor.setActionRecorder after beginGame.
+ */
+public final class MatchLogWriter implements ActionRecorder, Closeable {
+
+    private final DataOutputStream out;
+    private final int interval;
+    private int actions;
+
+    /**
+     * Creates the log file.
+     *
+     * @param file     the log file
+     * @param interval the number of actions between two snapshots
+     * @throws IOException if the file cannot be created
+     */
+    public MatchLogWriter(final File file, final int interval) throws IOException {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.interval = interval;
+        out.writeInt(MatchLog.MAGIC);
+        out.writeByte(MatchLog.FORMAT_VERSION);
+        Varints.writeUnsigned(out, interval);
+    }
+
+    @Override
+    public void onAction(final GameExecutor game, final ActionsInputCopy action) {
+        try {
+            if (actions % interval == 0) {
+                byte[] snapshot = StateCodec.encode(game);
+                out.writeByte(MatchLog.TAG_SNAPSHOT);
+                Varints.writeUnsigned(out, actions);
+                out.writeInt(snapshot.length);
+                out.write(snapshot);
+            }
+            out.writeByte(MatchLog.TAG_ACTION);
+            ActionCodec.write(out, action);
+            actions++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the number of actions logged so far.
+     *
+     * @return the count
+     */
+    public int getActions() {
+        return actions;
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
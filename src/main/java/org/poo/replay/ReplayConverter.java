@@ -0,0 +1,61 @@
+package org.poo.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.fileio.Input;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Converts input files between the JSON format of org.poo.fileio and ReplayFile.
+ */
+public final class ReplayConverter {
+
+    private static final int ARG_COUNT = 3;
+
+    /**
+     * for coding style
+     */
+    private ReplayConverter() {
+    }
+
+    /**
+     * Converts a JSON input file to a replay file.
+     *
+     * @param json   the JSON input
+     * @param replay the replay file to create
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void toReplay(final File json, final File replay) throws IOException {
+        ReplayFile.write(new ObjectMapper().readValue(json, Input.class), replay);
+    }
+
+    /**
+     * Converts a replay file back to a JSON input file.
+     *
+     * @param replay the replay file
+     * @param json   the JSON file to create
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void toJson(final File replay, final File json) throws IOException {
+        new ObjectMapper().writerWithDefaultPrettyPrinter()
+                .writeValue(json, ReplayFile.open(replay).toInput());
+    }
+
+    /**
+     * Usage: toReplay in.json out.gsr | toJson in.gsr out.json
+     *
+     * @param args the command line arguments
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == ARG_COUNT && "toReplay".equals(args[0])) {
+            toReplay(new File(args[1]), new File(args[2]));
+        } else if (args.length == ARG_COUNT && "toJson".equals(args[0])) {
+            toJson(new File(args[1]), new File(args[2]));
+        } else {
+            System.err.println("Usage: ReplayConverter toReplay <in.json> <out.gsr>");
+            System.err.println("       ReplayConverter toJson <in.gsr> <out.json>");
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package org.poo.replay;
+
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.CardInput;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.utils.ActionsInputCopy;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Compact binary container for the data of an input file, opened through a memory
+ * mapping so a worker can jump straight to game K without decoding the games before it.
+ *
+ * Layout: MAGIC and FORMAT_VERSION; the decks of player one and player two; the games,
+ * each a start game followed by its action count and ActionCodec actions; the index,
+ * the game count followed by the offset of every game as a long; and last the offset
+ * of the index as a long. Numbers are varints wherever the format allows it.
+ *
+ * An opened ReplayFile is safe to share between threads: every read works on its own
+ * view of the mapping. Files must be below 2 GB, the limit of one mapping.
+ */
+public final class ReplayFile {
+
+    static final int MAGIC = 0x47535250;
+    static final int FORMAT_VERSION = 1;
+
+    private final MappedByteBuffer mapping;
+    private final long[] gameOffsets;
+    private final DecksInput playerOneDecks;
+    private final DecksInput playerTwoDecks;
+
+    private ReplayFile(final MappedByteBuffer mapping) throws IOException {
+        this.mapping = mapping;
+        DataInputStream in = at(0);
+        if (in.readInt() != MAGIC || in.readUnsignedByte() != FORMAT_VERSION) {
+            throw new IOException("Not a replay file");
+        }
+        playerOneDecks = readDecks(in);
+        playerTwoDecks = readDecks(in);
+
+        DataInputStream trailer = at(mapping.limit() - Long.BYTES);
+        DataInputStream index = at((int) trailer.readLong());
+        gameOffsets = new long[index.readInt()];
+        for (int i = 0; i < gameOffsets.length; i++) {
+            gameOffsets[i] = index.readLong();
+        }
+    }
+
+    /**
+     * Maps a replay file.
+     *
+     * @param file the file
+     * @return the opened file
+     * @throws IOException if the file cannot be mapped or is not a replay file
+     */
+    public static ReplayFile open(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new ReplayFile(channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    channel.size()));
+        }
+    }
+
+    /**
+     * Writes an input in the replay format.
+     *
+     * @param input the input, as read from JSON
+     * @param file  the replay file to create
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(final Input input, final File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            writeDecks(out, input.getPlayerOneDecks());
+            writeDecks(out, input.getPlayerTwoDecks());
+
+            long[] offsets = new long[input.getGames().size()];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = out.size();
+                GameInput game = input.getGames().get(i);
+                writeStartGame(out, game.getStartGame());
+                Varints.writeUnsigned(out, game.getActions().size());
+                for (ActionsInput action : game.getActions()) {
+                    ActionCodec.write(out, new ActionsInputCopy(action));
+                }
+            }
+            long indexOffset = out.size();
+            out.writeInt(offsets.length);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            out.writeLong(indexOffset);
+        }
+    }
+
+    /**
+     * Gets the number of games.
+     *
+     * @return the count
+     */
+    public int getGameCount() {
+        return gameOffsets.length;
+    }
+
+    /**
+     * Gets the decks of player one.
+     *
+     * @return the decks
+     */
+    public DecksInput getPlayerOneDecks() {
+        return playerOneDecks;
+    }
+
+    /**
+     * Gets the decks of player two.
+     *
+     * @return the decks
+     */
+    public DecksInput getPlayerTwoDecks() {
+        return playerTwoDecks;
+    }
+
+    /**
+     * Decodes one game, reading only that game's bytes.
+     *
+     * @param index the game index
+     * @return the game
+     * @throws IOException if the file is truncated
+     */
+    public GameInput getGame(final int index) throws IOException {
+        DataInputStream in = at((int) gameOffsets[index]);
+        GameInput game = new GameInput();
+        game.setStartGame(readStartGame(in));
+        int count = Varints.readUnsigned(in);
+        ArrayList<ActionsInput> actions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            actions.add(toActionsInput(ActionCodec.read(in)));
+        }
+        game.setActions(actions);
+        return game;
+    }
+
+    /**
+     * Decodes the whole file back into the shape read from JSON.
+     *
+     * @return the input
+     * @throws IOException if the file is truncated
+     */
+    public Input toInput() throws IOException {
+        Input input = new Input();
+        input.setPlayerOneDecks(playerOneDecks);
+        input.setPlayerTwoDecks(playerTwoDecks);
+        ArrayList<GameInput> games = new ArrayList<>(gameOffsets.length);
+        for (int i = 0; i < gameOffsets.length; i++) {
+            games.add(getGame(i));
+        }
+        input.setGames(games);
+        return input;
+    }
+
+    private DataInputStream at(final int offset) {
+        ByteBuffer view = mapping.duplicate();
+        view.position(offset);
+        return new DataInputStream(new ByteBufferInputStream(view));
+    }
+
+    private static void writeDecks(final DataOutput out, final DecksInput decks)
+            throws IOException {
+        Varints.writeUnsigned(out, decks.getNrCardsInDeck());
+        Varints.writeUnsigned(out, decks.getNrDecks());
+        Varints.writeUnsigned(out, decks.getDecks().size());
+        for (ArrayList<CardInput> deck : decks.getDecks()) {
+            Varints.writeUnsigned(out, deck.size());
+            for (CardInput card : deck) {
+                writeCard(out, card);
+            }
+        }
+    }
+
+    private static DecksInput readDecks(final DataInput in) throws IOException {
+        DecksInput decks = new DecksInput();
+        decks.setNrCardsInDeck(Varints.readUnsigned(in));
+        decks.setNrDecks(Varints.readUnsigned(in));
+        int deckCount = Varints.readUnsigned(in);
+        ArrayList<ArrayList<CardInput>> list = new ArrayList<>(deckCount);
+        for (int d = 0; d < deckCount; d++) {
+            int size = Varints.readUnsigned(in);
+            ArrayList<CardInput> deck = new ArrayList<>(size);
+            for (int c = 0; c < size; c++) {
+                deck.add(readCard(in));
+            }
+            list.add(deck);
+        }
+        decks.setDecks(list);
+        return decks;
+    }
+
+    private static void writeStartGame(final DataOutput out, final StartGameInput startGame)
+            throws IOException {
+        Varints.writeInt(out, startGame.getPlayerOneDeckIdx());
+        Varints.writeInt(out, startGame.getPlayerTwoDeckIdx());
+        Varints.writeInt(out, startGame.getShuffleSeed());
+        Varints.writeInt(out, startGame.getStartingPlayer());
+        writeCard(out, startGame.getPlayerOneHero());
+        writeCard(out, startGame.getPlayerTwoHero());
+    }
+
+    private static StartGameInput readStartGame(final DataInput in) throws IOException {
+        StartGameInput startGame = new StartGameInput();
+        startGame.setPlayerOneDeckIdx(Varints.readInt(in));
+        startGame.setPlayerTwoDeckIdx(Varints.readInt(in));
+        startGame.setShuffleSeed(Varints.readInt(in));
+        startGame.setStartingPlayer(Varints.readInt(in));
+        startGame.setPlayerOneHero(readCard(in));
+        startGame.setPlayerTwoHero(readCard(in));
+        return startGame;
+    }
+
+    private static void writeCard(final DataOutput out, final CardInput card)
+            throws IOException {
+        Varints.writeInt(out, card.getMana());
+        Varints.writeInt(out, card.getAttackDamage());
+        Varints.writeInt(out, card.getHealth());
+        Varints.writeString(out, card.getDescription());
+        Varints.writeString(out, card.getName());
+        Varints.writeUnsigned(out, card.getColors() == null ? 0 : card.getColors().size());
+        if (card.getColors() != null) {
+            for (String color : card.getColors()) {
+                Varints.writeString(out, color);
+            }
+        }
+    }
+
+    private static CardInput readCard(final DataInput in) throws IOException {
+        CardInput card = new CardInput();
+        card.setMana(Varints.readInt(in));
+        card.setAttackDamage(Varints.readInt(in));
+        card.setHealth(Varints.readInt(in));
+        card.setDescription(Varints.readString(in));
+        card.setName(Varints.readString(in));
+        int colorCount = Varints.readUnsigned(in);
+        ArrayList<String> colors = new ArrayList<>(colorCount);
+        for (int i = 0; i < colorCount; i++) {
+            colors.add(Varints.readString(in));
+        }
+        card.setColors(colors);
+        return card;
+    }
+
+    private static ActionsInput toActionsInput(final ActionsInputCopy copy) {
+        ActionsInput action = new ActionsInput();
+        action.setCommand(copy.getCommand());
+        action.setHandIdx(copy.getHandIdx());
+        action.setCardAttacker(copy.getCardAttacker());
+        action.setCardAttacked(copy.getCardAttacked());
+        action.setAffectedRow(copy.getAffectedRow());
+        action.setPlayerIdx(copy.getPlayerIdx());
+        action.setX(copy.getX());
+        action.setY(copy.getY());
+        return action;
+    }
+}
@@ -0,0 +1,254 @@
+package org.poo.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.cards.Minion;
+import org.poo.gamethread.GameExecutor;
+import org.poo.players.Deck;
+import org.poo.players.Hand;
+import org.poo.players.Player;
+import org.poo.utils.StartGameInputCopy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary snapshot of everything a game needs to continue: board, hands, decks, heroes,
+ * mana, round, turn and the per-card flags. The fixed part of each distinct card (name,
+ * description, colors, mana cost) is written once in a template table at the start of
+ * the snapshot; every card then takes a template index, health, attack and a flag byte.
+ *
+ * A snapshot is self-contained, so a reader can decode any one of them on its own.
+ */
+final class StateCodec {
+
+    private static final int BOARD_ROWS = 4;
+    private static final int KIND_CARD = 0;
+    private static final int KIND_MINION = 1;
+    private static final int KIND_HERO = 2;
+    private static final int FROZEN = 1;
+    private static final int ATTACKED = 1 << 1;
+    private static final int USED_ABILITY = 1 << 2;
+
+    /**
+     * for coding style
+     */
+    private StateCodec() {
+    }
+
+    /**
+     * Encodes the game in progress.
+     *
+     * @param game the engine
+     * @return the snapshot bytes
+     * @throws IOException never, the output is in memory
+     */
+    static byte[] encode(final GameExecutor game) throws IOException {
+        Map<String, Integer> templateIds = new HashMap<>();
+        List<Card> templates = new ArrayList<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(body);
+
+        StartGameInputCopy startGame = game.getCurrentStartGame();
+        Varints.writeInt(out, startGame.getPlayerOneDeckIdx());
+        Varints.writeInt(out, startGame.getPlayerTwoDeckIdx());
+        Varints.writeInt(out, startGame.getShuffleSeed());
+        Varints.writeInt(out, startGame.getStartingPlayer());
+        Varints.writeInt(out, game.getCurrentRound());
+        out.writeBoolean(game.isGameEnded());
+        Varints.writeInt(out, game.getGamesPlayed());
+        Varints.writeInt(out, game.getGamesWonPlayerOne());
+        Varints.writeInt(out, game.getGamesWonPlayerTwo());
+
+        for (Player player : new Player[] {game.getPlayerOne(), game.getPlayerTwo()}) {
+            Varints.writeInt(out, player.getMana());
+            Varints.writeInt(out, player.getMaxMana());
+            Varints.writeInt(out, player.getHealth());
+            out.writeBoolean(player.isTurn());
+            Varints.writeInt(out, player.getGamesWon());
+            Varints.writeInt(out, player.getGamesPlayed());
+            writeCard(out, player.getHero(), templateIds, templates);
+            writeCards(out, player.getHand().getCards(), templateIds, templates);
+            writeCards(out, player.getDeck().getCards(), templateIds, templates);
+        }
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            writeCards(out, game.getBoard().getRow(row), templateIds, templates);
+        }
+        out.flush();
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream(body.size() + body.size());
+        DataOutputStream header = new DataOutputStream(snapshot);
+        Varints.writeUnsigned(header, templates.size());
+        for (Card template : templates) {
+            header.writeByte(kindOf(template));
+            Varints.writeString(header, template.getName());
+            Varints.writeString(header, template.getDescription());
+            Varints.writeString(header, template.getType());
+            Varints.writeInt(header, template.getMana());
+            List<String> colors = template.getColors();
+            Varints.writeUnsigned(header, colors == null ? 0 : colors.size());
+            if (colors != null) {
+                for (String color : colors) {
+                    Varints.writeString(header, color);
+                }
+            }
+        }
+        header.flush();
+        body.writeTo(snapshot);
+        return snapshot.toByteArray();
+    }
+
+    /**
+     * Decodes a snapshot into a fresh engine, ready to take the next action.
+     *
+     * @param in the snapshot
+     * @return the engine
+     * @throws IOException if the snapshot is truncated
+     */
+    static GameExecutor decode(final DataInput in) throws IOException {
+        int templateCount = Varints.readUnsigned(in);
+        Card[] templates = new Card[templateCount];
+        for (int i = 0; i < templateCount; i++) {
+            int kind = in.readUnsignedByte();
+            String name = Varints.readString(in);
+            String description = Varints.readString(in);
+            String type = Varints.readString(in);
+            int mana = Varints.readInt(in);
+            int colorCount = Varints.readUnsigned(in);
+            ArrayList<String> colors = new ArrayList<>(colorCount);
+            for (int c = 0; c < colorCount; c++) {
+                colors.add(Varints.readString(in));
+            }
+            templates[i] = newCard(kind, mana, 0, 0, description, name, colors, type);
+        }
+
+        int playerOneDeckIdx = Varints.readInt(in);
+        int playerTwoDeckIdx = Varints.readInt(in);
+        int shuffleSeed = Varints.readInt(in);
+        int startingPlayer = Varints.readInt(in);
+        int round = Varints.readInt(in);
+        boolean ended = in.readBoolean();
+        int gamesPlayed = Varints.readInt(in);
+        int wonOne = Varints.readInt(in);
+        int wonTwo = Varints.readInt(in);
+
+        Player[] players = new Player[2];
+        for (int p = 0; p < players.length; p++) {
+            int mana = Varints.readInt(in);
+            int maxMana = Varints.readInt(in);
+            int health = Varints.readInt(in);
+            boolean turn = in.readBoolean();
+            int gamesWon = Varints.readInt(in);
+            int playerGames = Varints.readInt(in);
+            Hero hero = (Hero) readCard(in, templates);
+            Hand hand = new Hand();
+            for (Card card : readCards(in, templates)) {
+                hand.addCard(card);
+            }
+            Deck deck = new Deck(readCards(in, templates));
+            players[p] = new Player(hand, deck, hero, turn, gamesWon, playerGames, p + 1);
+            players[p].setMana(mana);
+            players[p].setMaxMana(maxMana);
+            players[p].setHealth(health);
+        }
+        List<List<Card>> rows = new ArrayList<>(BOARD_ROWS);
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            rows.add(readCards(in, templates));
+        }
+
+        // heroes and decks come from the snapshot, so the deck input is never read
+        GameExecutor game = new GameExecutor(null, new ObjectMapper().createArrayNode());
+        game.restoreGame(new StartGameInputCopy(playerOneDeckIdx, playerTwoDeckIdx, shuffleSeed,
+                        null, null, startingPlayer), players[0], players[1], rows, round, ended);
+        game.restoreCounters(gamesPlayed, wonOne, wonTwo);
+        return game;
+    }
+
+    private static void writeCards(final DataOutput out, final List<Card> cards,
+                                   final Map<String, Integer> templateIds,
+                                   final List<Card> templates) throws IOException {
+        Varints.writeUnsigned(out, cards.size());
+        for (Card card : cards) {
+            writeCard(out, card, templateIds, templates);
+        }
+    }
+
+    private static void writeCard(final DataOutput out, final Card card,
+                                  final Map<String, Integer> templateIds,
+                                  final List<Card> templates) throws IOException {
+        String key = kindOf(card) + "\u0000" + card.getName() + "\u0000"
+                + card.getDescription() + "\u0000" + card.getType() + "\u0000"
+                + card.getMana() + "\u0000" + card.getColors();
+        Integer id = templateIds.get(key);
+        if (id == null) {
+            id = templates.size();
+            templateIds.put(key, id);
+            templates.add(card);
+        }
+        Varints.writeUnsigned(out, id);
+        Varints.writeInt(out, card.getHealth());
+        Varints.writeInt(out, card.getAttackDamage());
+        out.writeByte((card.getIsFrozen(card) ? FROZEN : 0)
+                | (card.getHasAttacked(card) ? ATTACKED : 0)
+                | (card.getHasUsedAbility(card) ? USED_ABILITY : 0));
+    }
+
+    private static List<Card> readCards(final DataInput in, final Card[] templates)
+            throws IOException {
+        int count = Varints.readUnsigned(in);
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(readCard(in, templates));
+        }
+        return cards;
+    }
+
+    private static Card readCard(final DataInput in, final Card[] templates)
+            throws IOException {
+        Card template = templates[Varints.readUnsigned(in)];
+        int health = Varints.readInt(in);
+        int attackDamage = Varints.readInt(in);
+        int flags = in.readUnsignedByte();
+        Card card = newCard(kindOf(template), template.getMana(), health, attackDamage,
+                template.getDescription(), template.getName(),
+                new ArrayList<>(template.getColors()), template.getType());
+        card.setIsFrozen((flags & FROZEN) != 0);
+        card.setHasAttacked(card, (flags & ATTACKED) != 0);
+        card.setHasUsedAbility((flags & USED_ABILITY) != 0);
+        return card;
+    }
+
+    private static int kindOf(final Card card) {
+        if (card instanceof Hero) {
+            return KIND_HERO;
+        }
+        return card instanceof Minion ? KIND_MINION : KIND_CARD;
+    }
+
+    /**
+     * Builds a card of the same class GameExecutor would have created for it.
+     */
+    private static Card newCard(final int kind, final int mana, final int health,
+                                final int attackDamage, final String description,
+                                final String name, final ArrayList<String> colors,
+                                final String type) {
+        switch (kind) {
+            case KIND_HERO:
+                return new Hero(mana, health, attackDamage, description, name, colors, type,
+                        name, "Ability");
+            case KIND_MINION:
+                return new Minion(mana, health, attackDamage, description, name, colors, type,
+                        false, false);
+            default:
+                return new Card(mana, health, attackDamage, description, name, colors, type);
+        }
+    }
+}
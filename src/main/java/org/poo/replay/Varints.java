@@ -0,0 +1,106 @@
+package org.poo.replay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variable-length integers for the binary replay formats. Small values, which is
+ * nearly everything in a match, take one byte; signed values are zigzag encoded first
+ * so that -1 is as cheap as 1.
+ */
+final class Varints {
+
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD_MASK = 0x7F;
+    private static final int CONTINUATION = 0x80;
+
+    /**
+     * for coding style
+     */
+    private Varints() {
+    }
+
+    /**
+     * Writes a signed int.
+     *
+     * @param out   the output
+     * @param value the value
+     * @throws IOException if the output fails
+     */
+    static void writeInt(final DataOutput out, final int value) throws IOException {
+        writeUnsigned(out, (value << 1) ^ (value >> (Integer.SIZE - 1)));
+    }
+
+    /**
+     * Reads a signed int written by writeInt.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if the input fails
+     */
+    static int readInt(final DataInput in) throws IOException {
+        int zigzag = readUnsigned(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Writes an int as unsigned; negative values take five bytes.
+     *
+     * @param out   the output
+     * @param value the value
+     * @throws IOException if the output fails
+     */
+    static void writeUnsigned(final DataOutput out, final int value) throws IOException {
+        int rest = value;
+        while ((rest & ~PAYLOAD_MASK) != 0) {
+            out.writeByte((rest & PAYLOAD_MASK) | CONTINUATION);
+            rest >>>= PAYLOAD_BITS;
+        }
+        out.writeByte(rest);
+    }
+
+    /**
+     * Reads an int written by writeUnsigned.
+     *
+     * @param in the input
+     * @return the value
+     * @throws IOException if the input fails
+     */
+    static int readUnsigned(final DataInput in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & PAYLOAD_MASK) << shift;
+            shift += PAYLOAD_BITS;
+        } while ((b & CONTINUATION) != 0);
+        return value;
+    }
+
+    /**
+     * Writes a string that may be null.
+     *
+     * @param out   the output
+     * @param value the string or null
+     * @throws IOException if the output fails
+     */
+    static void writeString(final DataOutput out, final String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param in the input
+     * @return the string or null
+     * @throws IOException if the input fails
+     */
+    static String readString(final DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
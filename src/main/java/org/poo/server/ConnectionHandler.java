@@ -0,0 +1,270 @@
+package org.poo.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.ActionsInput;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.StartGameInput;
+import org.poo.utils.ActionsInputCopy;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves one client connection: reads newline-delimited JSON requests and writes one
+ * JSON line back for each. After a spectate request the connection stops reading and
+ * only streams the frames of the watched match.
+ */
+final class ConnectionHandler implements Runnable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final long SPECTATOR_POLL_MILLIS = 1000;
+    private static final long KEEPALIVE_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final Socket socket;
+    private final Map<String, MatchSession> matches;
+    private final Set<Socket> openSockets;
+    private MatchSession match;
+
+    ConnectionHandler(final Socket socket, final Map<String, MatchSession> matches,
+                      final Set<Socket> openSockets) {
+        this.socket = socket;
+        this.matches = matches;
+        this.openSockets = openSockets;
+    }
+
+    @Override
+    public void run() {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     client.getInputStream(), StandardCharsets.UTF_8));
+             OutputStream out = new BufferedOutputStream(client.getOutputStream())) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (isSpectate(line)) {
+                    spectate(line, out);
+                    return;
+                }
+                out.write(MAPPER.writeValueAsBytes(handle(line)));
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            // the client went away or the server is stopping; nothing to answer
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    /**
+     * Handles one request line.
+     *
+     * @param line the request
+     * @return the response node
+     */
+    ObjectNode handle(final String line) {
+        JsonNode request;
+        try {
+            request = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            return error(null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        String command = request.path("command").asText(null);
+        if (command == null) {
+            return error(null, "Missing command.");
+        }
+        try {
+            switch (command) {
+                case "createMatch":
+                    return createMatch(request);
+                case "joinMatch":
+                    return joinMatch(request);
+                case "getChanges":
+                    return getChanges(request);
+                case "batch":
+                    return applyBatch(request);
+                default:
+                    return applyAction(request);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            // missing coordinates, bad deck indices and the like must not kill the thread
+            return error(command, "Invalid request: " + e);
+        }
+    }
+
+    private static boolean isSpectate(final String line) {
+        if (!line.contains("spectate")) {
+            return false;
+        }
+        try {
+            return "spectate".equals(MAPPER.readTree(line).path("command").asText());
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Streams the frames of a match until its game ends, the server drops it, or the
+     * spectator or the server goes away. Frames already queued are written together and
+     * flushed once. A stream with nothing to send writes an empty line every
+     * KEEPALIVE_NANOS, so a spectator that disconnected fails a write and is dropped.
+     */
+    private void spectate(final String line, final OutputStream out)
+            throws IOException, InterruptedException {
+        String matchId = MAPPER.readTree(line).path("matchId").asText(null);
+        MatchSession session = matchId == null ? null : matches.get(matchId);
+        if (session == null) {
+            out.write(MAPPER.writeValueAsBytes(error("spectate", "No such match.")));
+            out.write('\n');
+            out.flush();
+            return;
+        }
+        Spectator spectator = session.subscribe();
+        long lastWrite = System.nanoTime();
+        try {
+            while (!socket.isClosed() && !spectator.isClosed()) {
+                Frame frame = spectator.poll(SPECTATOR_POLL_MILLIS);
+                if (frame == null) {
+                    if (session.isGameEnded()) {
+                        // the last frames were queued before the end was visible
+                        writeQueued(spectator, out);
+                        return;
+                    }
+                    if (System.nanoTime() - lastWrite >= KEEPALIVE_NANOS) {
+                        out.write('\n');
+                        out.flush();
+                        lastWrite = System.nanoTime();
+                    }
+                    continue;
+                }
+                frame.writeTo(out);
+                writeQueued(spectator, out);
+                lastWrite = System.nanoTime();
+            }
+        } finally {
+            session.unsubscribe(spectator);
+        }
+    }
+
+    private static void writeQueued(final Spectator spectator, final OutputStream out)
+            throws IOException {
+        for (Frame frame = spectator.pollNow(); frame != null; frame = spectator.pollNow()) {
+            frame.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private ObjectNode createMatch(final JsonNode request) throws JsonProcessingException {
+        String matchId = request.path("matchId").asText(null);
+        if (matchId == null || !request.has("playerOneDecks")
+                || !request.has("playerTwoDecks") || !request.has("startGame")) {
+            return error("createMatch",
+                    "createMatch needs matchId, playerOneDecks, playerTwoDecks and startGame.");
+        }
+        if (matches.containsKey(matchId)) {
+            return error("createMatch", "Match already exists.");
+        }
+        MatchSession session = new MatchSession(matchId,
+                MAPPER.treeToValue(request.get("playerOneDecks"), DecksInput.class),
+                MAPPER.treeToValue(request.get("playerTwoDecks"), DecksInput.class),
+                MAPPER.treeToValue(request.get("startGame"), StartGameInput.class));
+        if (matches.putIfAbsent(matchId, session) != null) {
+            // another connection created the same id in between
+            session.close();
+            return error("createMatch", "Match already exists.");
+        }
+        match = session;
+        return ok("createMatch", matchId);
+    }
+
+    private ObjectNode joinMatch(final JsonNode request) {
+        String matchId = request.path("matchId").asText(null);
+        MatchSession session = matchId == null ? null : matches.get(matchId);
+        if (session == null) {
+            return error("joinMatch", "No such match.");
+        }
+        match = session;
+        return ok("joinMatch", matchId);
+    }
+
+    private ObjectNode getChanges(final JsonNode request) {
+        MatchSession target = targetOf(request);
+        if (target == null) {
+            return error("getChanges", "Not in a match.");
+        }
+        return target.changesSince(request.path("sinceVersion").asLong(-1));
+    }
+
+    private MatchSession targetOf(final JsonNode request) {
+        if (request.has("matchId")) {
+            return matches.get(request.get("matchId").asText());
+        }
+        return match;
+    }
+
+    private ObjectNode applyAction(final JsonNode request) throws JsonProcessingException {
+        MatchSession target = targetOf(request);
+        if (target == null) {
+            return error(request.path("command").asText(), "Not in a match.");
+        }
+        ActionsInput action = MAPPER.treeToValue(request, ActionsInput.class);
+        return target.apply(new ActionsInputCopy(action));
+    }
+
+    /**
+     * Applies {"command":"batch","actions":[...],"stopOnError":true}. Every action is
+     * parsed before the first one is applied, so a malformed entry rejects the whole
+     * batch rather than half of it.
+     */
+    private ObjectNode applyBatch(final JsonNode request) throws JsonProcessingException {
+        MatchSession target = targetOf(request);
+        if (target == null) {
+            return error("batch", "Not in a match.");
+        }
+        JsonNode actions = request.get("actions");
+        if (actions == null || !actions.isArray()) {
+            return error("batch", "batch needs an actions array.");
+        }
+        List<ActionsInputCopy> batch = new ArrayList<>(actions.size());
+        for (JsonNode action : actions) {
+            batch.add(new ActionsInputCopy(MAPPER.treeToValue(action, ActionsInput.class)));
+        }
+        return target.applyBatch(batch, request.path("stopOnError").asBoolean(true));
+    }
+
+    private static ObjectNode ok(final String command, final String matchId) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("command", command);
+        node.put("matchId", matchId);
+        node.put("output", "ok");
+        return node;
+    }
+
+    private static ObjectNode error(final String command, final String message) {
+        ObjectNode node = MAPPER.createObjectNode();
+        if (command != null) {
+            node.put("command", command);
+        }
+        node.put("error", message);
+        return node;
+    }
+}
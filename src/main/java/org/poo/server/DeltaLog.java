@@ -0,0 +1,57 @@
+package org.poo.server;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.gamethread.StateChange;
+import org.poo.gamethread.StateChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned change stream of one match. Every state change the engine reports is
+ * encoded once, numbered and kept in a ring of the most recent CAPACITY changes, so a
+ * client that knows version v can catch up by fetching the changes after v. A client
+ * whose version has already left the ring gets a snapshot instead.
+ *
+ * Not thread safe; MatchSession only touches it while holding its lock.
+ */
+final class DeltaLog implements StateChangeListener {
+
+    static final int CAPACITY = 1024;
+
+    private final ObjectNode[] ring = new ObjectNode[CAPACITY];
+    private long version;
+
+    @Override
+    public void onChange(final StateChange change) {
+        version++;
+        ring[(int) (version % CAPACITY)] = StateEncoder.change(version, change);
+    }
+
+    /**
+     * Gets the version of the newest change, 0 for the game as dealt.
+     *
+     * @return the version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the changes made after a version, oldest first.
+     *
+     * @param sinceVersion the last version the client has applied
+     * @return the changes, or null when they are no longer all kept (or the client is
+     *         ahead of the log) and the client has to resync from a snapshot
+     */
+    List<ObjectNode> changesSince(final long sinceVersion) {
+        if (sinceVersion < version - CAPACITY || sinceVersion > version) {
+            return null;
+        }
+        List<ObjectNode> changes = new ArrayList<>((int) (version - sinceVersion));
+        for (long v = sinceVersion + 1; v <= version; v++) {
+            changes.add(ring[(int) (v % CAPACITY)]);
+        }
+        return changes;
+    }
+}
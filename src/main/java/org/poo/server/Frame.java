@@ -0,0 +1,58 @@
+package org.poo.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One encoded message for spectators, newline included. The bytes are produced once
+ * and the same Frame is queued for every spectator, so it must never be modified.
+ */
+final class Frame {
+
+    private final long version;
+    private final boolean snapshot;
+    private final byte[] bytes;
+
+    Frame(final long version, final boolean snapshot, final byte[] bytes) {
+        this.version = version;
+        this.snapshot = snapshot;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Writes the frame to a spectator's stream.
+     *
+     * @param out the stream
+     * @throws IOException if the spectator went away
+     */
+    void writeTo(final OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    /**
+     * Gets the version of the newest change the frame covers.
+     *
+     * @return the version
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * Tells whether the frame holds a full snapshot rather than a batch of changes.
+     *
+     * @return true for snapshots
+     */
+    boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the encoded size.
+     *
+     * @return the number of bytes
+     */
+    int size() {
+        return bytes.length;
+    }
+}
@@ -0,0 +1,117 @@
+package org.poo.server;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays the games of an input file against a running match server, one connection
+ * per match, and reports round-trip latency and throughput.
+ */
+public final class LoadDriver {
+
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double P50 = 50.0;
+    private static final double P99 = 99.0;
+    private static final int ARG_INPUT = 1;
+    private static final int ARG_CONNECTIONS = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    /**
+     * for coding style
+     */
+    private LoadDriver() {
+    }
+
+    private void replay(final int port, final JsonNode input, final int connection)
+            throws IOException {
+        JsonNode games = input.get("games");
+        JsonNode game = games.get(connection % games.size());
+        String matchId = "load-" + connection;
+
+        ObjectNode create = objectMapper.createObjectNode();
+        create.put("command", "createMatch");
+        create.put("matchId", matchId);
+        create.set("playerOneDecks", input.get("playerOneDecks"));
+        create.set("playerTwoDecks", input.get("playerTwoDecks"));
+        create.set("startGame", game.get("startGame"));
+
+        try (MatchClient client = new MatchClient(port)) {
+            timed(client, objectMapper.writeValueAsString(create));
+            for (JsonNode action : game.get("actions")) {
+                timed(client, objectMapper.writeValueAsString(action));
+            }
+        }
+    }
+
+    private void timed(final MatchClient client, final String request) throws IOException {
+        long start = System.nanoTime();
+        String response = client.send(request);
+        latency.record(System.nanoTime() - start);
+        requests.incrementAndGet();
+        if (response == null) {
+            throw new IOException("Server closed the connection.");
+        }
+    }
+
+    /**
+     * Replays an input file over many concurrent connections.
+     * Usage: port input.json connections
+     *
+     * @param args the command line arguments
+     * @throws Exception if the input cannot be read or a connection thread fails
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length <= ARG_CONNECTIONS) {
+            System.err.println("Usage: LoadDriver <port> <input.json> <connections>");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        int connections = Integer.parseInt(args[ARG_CONNECTIONS]);
+        LoadDriver driver = new LoadDriver();
+        JsonNode input = driver.objectMapper.readTree(new File(args[ARG_INPUT]));
+
+        ExecutorService pool = MatchServer.newConnectionExecutor();
+        long start = System.nanoTime();
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            final int connection = i;
+            results.add(pool.submit(() -> {
+                try {
+                    driver.replay(port, input, connection);
+                } catch (IOException e) {
+                    driver.failures.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> result : results) {
+            result.get();
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+        System.out.printf("%d requests over %d connections in %.2f s (%.0f req/s),"
+                        + " %d failed connections%n", driver.requests.get(), connections,
+                seconds, driver.requests.get() / seconds, driver.failures.get());
+        System.out.printf("round trip p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                driver.latency.getPercentile(P50) / NANOS_PER_MICRO,
+                driver.latency.getPercentile(P99) / NANOS_PER_MICRO,
+                driver.latency.getMax() / NANOS_PER_MICRO);
+    }
+}
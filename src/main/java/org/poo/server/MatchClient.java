@@ -0,0 +1,95 @@
+package org.poo.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A blocking client for the match server: one request line out, one response line in.
+ * Run it from the command line to type requests by hand.
+ */
+public final class MatchClient implements Closeable {
+
+    private static final int DEFAULT_PORT = 7070;
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+
+    /**
+     * Connects to a server on the loopback interface.
+     *
+     * @param port the server port
+     * @throws IOException if the connection fails
+     */
+    public MatchClient(final int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                StandardCharsets.UTF_8));
+        out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(),
+                StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Sends one request and waits for its response.
+     *
+     * @param request a JSON object on a single line
+     * @return the response line, or null if the server closed the connection
+     * @throws IOException if the connection fails
+     */
+    public String send(final String request) throws IOException {
+        out.write(request);
+        out.write('\n');
+        out.flush();
+        return in.readLine();
+    }
+
+    /**
+     * Waits for the next line the server pushes, such as a frame of a spectated match.
+     *
+     * @return the line, or null if the server closed the connection
+     * @throws IOException if the connection fails
+     */
+    public String readLine() throws IOException {
+        return in.readLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * Forwards standard input to the server line by line and prints the responses.
+     * Usage: [port]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the connection fails
+     */
+    public static void main(final String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (MatchClient client = new MatchClient(port);
+             BufferedReader console = new BufferedReader(new InputStreamReader(System.in,
+                     StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = console.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String response = client.send(line);
+                if (response == null) {
+                    break;
+                }
+                System.out.println(response);
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.poo.server;
+
+import org.poo.metrics.MetricsServer;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts live matches over TCP. Each line a client sends is a JSON object: either a
+ * control command (createMatch, joinMatch, getChanges, batch) or an action in the ActionsInput
+ * shape, which is applied to the client's match and answered with GameExecutor's output
+ * node on one line. A spectate request turns the connection into a one-way stream of
+ * the watched match's changes.
+ *
+ * A match is dropped, and its spectators disconnected, once its game has ended and no
+ * client has touched it for ENDED_GRACE_SECONDS, or once nobody has touched it for
+ * IDLE_MINUTES; a reaper thread checks every REAP_SECONDS.
+ *
+ * Connections run one per thread. On a JVM with virtual threads every connection gets
+ * a virtual thread, so idle players cost a few hundred bytes; on older JVMs the server
+ * falls back to a cached platform thread pool.
+ */
+public final class MatchServer {
+
+    private static final int BACKLOG = 1024;
+    private static final int SHUTDOWN_SECONDS = 5;
+    private static final int DEFAULT_PORT = 7070;
+    private static final long REAP_SECONDS = 30;
+    private static final long ENDED_GRACE_SECONDS = 60;
+    private static final long IDLE_MINUTES = 30;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = newConnectionExecutor();
+    private final Map<String, MatchSession> matches = new ConcurrentHashMap<>();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private final ScheduledExecutorService reaper = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "match-server-reaper");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private volatile boolean running = true;
+
+    /**
+     * Binds the server to the loopback interface. Call start to accept connections.
+     *
+     * @param port the port, 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public MatchServer(final int port) throws IOException {
+        serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                BACKLOG);
+        acceptor = new Thread(this::acceptLoop, "match-server-acceptor");
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        acceptor.start();
+        reaper.scheduleWithFixedDelay(this::reap, REAP_SECONDS, REAP_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones and waits for their threads.
+     *
+     * @throws IOException if the server socket cannot be closed
+     */
+    public void stop() throws IOException {
+        running = false;
+        reaper.shutdownNow();
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        connections.shutdown();
+        try {
+            connections.awaitTermination(SHUTDOWN_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Gets the live matches, by id.
+     *
+     * @return the matches
+     */
+    public Map<String, MatchSession> getMatches() {
+        return matches;
+    }
+
+    /**
+     * Drops the matches that are over or abandoned.
+     */
+    void reap() {
+        long endedGrace = TimeUnit.SECONDS.toNanos(ENDED_GRACE_SECONDS);
+        long idle = TimeUnit.MINUTES.toNanos(IDLE_MINUTES);
+        for (Map.Entry<String, MatchSession> entry : matches.entrySet()) {
+            MatchSession session = entry.getValue();
+            if (session.isIdle(idle) || (session.isIdle(endedGrace) && session.isGameEnded())) {
+                if (matches.remove(entry.getKey(), session)) {
+                    session.close();
+                }
+            }
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                openSockets.add(socket);
+                connections.execute(new ConnectionHandler(socket, matches, openSockets));
+            } catch (SocketException e) {
+                // closed by stop
+                return;
+            } catch (IOException e) {
+                System.err.println("Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor when the JVM has one, looked up
+     * reflectively so the server still builds and runs on JDK 11.
+     *
+     * @return the executor for connection handlers
+     */
+    static ExecutorService newConnectionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped, with the metrics endpoint when
+     * gwentstone.metrics.port is set.
+     * Usage: [port]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(final String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        MatchServer server = new MatchServer(port);
+        MetricsServer metricsServer = MetricsServer.startFromProperties();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop();
+            } catch (IOException e) {
+                System.err.println("Shutdown failed: " + e.getMessage());
+            }
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+        }));
+        server.start();
+        System.out.println("Match server listening on 127.0.0.1:" + server.getPort());
+    }
+}
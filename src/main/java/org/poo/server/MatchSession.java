@@ -0,0 +1,253 @@
+package org.poo.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.DecksInput;
+import org.poo.fileio.GameInput;
+import org.poo.fileio.Input;
+import org.poo.fileio.StartGameInput;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.InputCopy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One live game hosted by the match server. Actions from every connection attached to
+ * the match go through apply, which holds the session lock, so the engine only ever
+ * sees one action at a time. The lock is a ReentrantLock rather than the monitor of the
+ * session: connections may run on virtual threads, and one blocked in a synchronized
+ * method, or publishing to spectators inside one, would pin its carrier thread.
+ *
+ * The session also records every state change in a DeltaLog, so clients can follow the
+ * match with getChanges instead of polling the full board after each move, and pushes
+ * the changes of every action to the spectators of the match.
+ */
+public final class MatchSession {
+
+    private final String matchId;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GameExecutor executor;
+    private final DeltaLog deltaLog = new DeltaLog();
+    private final SpectatorHub spectators = new SpectatorHub(this, deltaLog);
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long lastUsedNanos = System.nanoTime();
+    private boolean closed;
+
+    /**
+     * Creates a match and deals the opening hands.
+     *
+     * @param matchId        the id clients use to address the match
+     * @param playerOneDecks the decks of player one
+     * @param playerTwoDecks the decks of player two
+     * @param startGame      the starting parameters of the game
+     */
+    public MatchSession(final String matchId, final DecksInput playerOneDecks,
+                        final DecksInput playerTwoDecks, final StartGameInput startGame) {
+        GameInput game = new GameInput();
+        game.setStartGame(startGame);
+        game.setActions(new ArrayList<>());
+        ArrayList<GameInput> games = new ArrayList<>();
+        games.add(game);
+
+        Input input = new Input();
+        input.setPlayerOneDecks(playerOneDecks);
+        input.setPlayerTwoDecks(playerTwoDecks);
+        input.setGames(games);
+        InputCopy inputData = new InputCopy(input);
+
+        this.matchId = matchId;
+        this.executor = new GameExecutor(inputData, objectMapper.createArrayNode());
+        executor.setStateChangeListener(deltaLog);
+        executor.beginGame(inputData.getGames().get(0).getStartGame());
+    }
+
+    /**
+     * Applies one action to the match.
+     *
+     * @param action the action
+     * @return the output node GameExecutor produced, empty for silent actions, or an
+     *         error once the server has dropped the match
+     */
+    public ObjectNode apply(final ActionsInputCopy action) {
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            if (closed) {
+                return closedError(action.getCommand());
+            }
+            ObjectNode output = executor.executeAction(action);
+            spectators.publish();
+            return output;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a batch of actions under a single acquisition of the match, so no other
+     * connection's action can land in between. Spectators get the changes of the whole
+     * batch as one frame.
+     *
+     * @param actions     the actions, in order
+     * @param stopOnError whether to stop at the first rejected action
+     * @return {"command":"batch","applied":n,"errors":e,"outputs":[...]} with one output
+     *         per applied action, plus "stoppedAt" when the batch stopped on an error
+     */
+    public ObjectNode applyBatch(final List<ActionsInputCopy> actions,
+                                 final boolean stopOnError) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("command", "batch");
+        ArrayNode outputs = objectMapper.createArrayNode();
+        int applied;
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            if (closed) {
+                return closedError("batch");
+            }
+            applied = executor.executeBatch(actions, stopOnError, outputs);
+            spectators.publish();
+        } finally {
+            lock.unlock();
+        }
+
+        int errors = 0;
+        for (int i = 0; i < outputs.size(); i++) {
+            if (GameExecutor.errorOf((ObjectNode) outputs.get(i)) != null) {
+                errors++;
+            }
+        }
+        result.put("applied", applied);
+        result.put("errors", errors);
+        if (stopOnError && errors > 0) {
+            result.put("stoppedAt", applied - 1);
+        }
+        result.set("outputs", outputs);
+        return result;
+    }
+
+    /**
+     * Starts following the match as a spectator.
+     *
+     * @return the spectator, with the current snapshot already queued
+     */
+    Spectator subscribe() {
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            return spectators.subscribe();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops following the match.
+     *
+     * @param spectator the spectator returned by subscribe
+     */
+    void unsubscribe(final Spectator spectator) {
+        spectators.unsubscribe(spectator);
+    }
+
+    /**
+     * Answers getChanges: the changes after sinceVersion, or a full snapshot when the
+     * client has none yet (sinceVersion below 0) or missed changes the log dropped.
+     *
+     * @param sinceVersion the last version the client has applied
+     * @return {"command":"getChanges","version":v,"changes":[...]} or the same with
+     *         "snapshot" in place of "changes"
+     */
+    public ObjectNode changesSince(final long sinceVersion) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("command", "getChanges");
+        lock.lock();
+        lastUsedNanos = System.nanoTime();
+        try {
+            node.put("version", deltaLog.getVersion());
+            List<ObjectNode> changes = sinceVersion < 0 ? null
+                    : deltaLog.changesSince(sinceVersion);
+            if (changes == null) {
+                node.set("snapshot", StateEncoder.snapshot(deltaLog.getVersion(), executor));
+            } else {
+                ArrayNode array = node.putArray("changes");
+                array.addAll(changes);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return node;
+    }
+
+    /**
+     * Tells whether the game of the match is over. Once it is, the frames of the final
+     * action have already been queued for every spectator.
+     *
+     * @return true once a hero has fallen
+     */
+    boolean isGameEnded() {
+        lock.lock();
+        try {
+            return executor.isGameEnded();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tells whether no client has used the match for a while.
+     *
+     * @param timeoutNanos how long the match must have been left alone
+     * @return true if the last action, query or subscription is at least that old
+     */
+    boolean isIdle(final long timeoutNanos) {
+        return System.nanoTime() - lastUsedNanos >= timeoutNanos;
+    }
+
+    /**
+     * Ends every spectator stream and the game, once the server has dropped the match;
+     * later actions are answered with an error. A game abandoned before a hero fell is
+     * counted as finished without a winner.
+     */
+    void close() {
+        lock.lock();
+        try {
+            if (!closed) {
+                closed = true;
+                spectators.closeAll();
+                executor.endGame();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ObjectNode closedError(final String command) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("command", command);
+        node.put("error", "Match is closed.");
+        return node;
+    }
+
+    /**
+     * Gets the match id.
+     *
+     * @return the id
+     */
+    public String getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Gets the engine of the match. Callers must hold the session lock.
+     *
+     * @return the executor
+     */
+    GameExecutor getExecutor() {
+        return executor;
+    }
+}
@@ -0,0 +1,93 @@
+package org.poo.server;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outgoing queue of one spectator. The match thread offers frames without ever
+ * blocking; when the queue is full the spectator is too slow to follow the changes, so
+ * its backlog is thrown away and replaced by a single snapshot it can restart from.
+ */
+final class Spectator {
+
+    private final BlockingQueue<Frame> queue;
+    private volatile boolean closed;
+    private volatile long resyncs;
+
+    Spectator(final int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Queues a frame, falling back to the snapshot when the spectator is behind.
+     * Called with the match lock held.
+     *
+     * @param frame    the frame
+     * @param snapshot supplies the snapshot of the state after frame
+     */
+    void offer(final Frame frame, final SnapshotSource snapshot) {
+        if (!queue.offer(frame)) {
+            queue.clear();
+            resyncs++;
+            queue.offer(snapshot.snapshotFrame());
+        }
+    }
+
+    /**
+     * Waits for the next frame.
+     *
+     * @param timeoutMillis how long to wait
+     * @return the frame, or null on timeout
+     * @throws InterruptedException if the connection thread is interrupted
+     */
+    Frame poll(final long timeoutMillis) throws InterruptedException {
+        return queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the next frame if one is already queued.
+     *
+     * @return the frame or null
+     */
+    Frame pollNow() {
+        return queue.poll();
+    }
+
+    /**
+     * Gets how many times the spectator fell behind and was sent a snapshot.
+     *
+     * @return the count
+     */
+    long getResyncs() {
+        return resyncs;
+    }
+
+    /**
+     * Marks the spectator as gone; the hub drops it on the next publish.
+     */
+    void close() {
+        closed = true;
+    }
+
+    /**
+     * Tells whether the spectator is gone.
+     *
+     * @return true once closed
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Encodes the current state of the match on demand.
+     */
+    interface SnapshotSource {
+        /**
+         * Gets the snapshot frame of the current version.
+         *
+         * @return the frame
+         */
+        Frame snapshotFrame();
+    }
+}
@@ -0,0 +1,123 @@
+package org.poo.server;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans the changes of one match out to its spectators. After every action the new
+ * changes are encoded once into a Frame and the same bytes are queued for every
+ * spectator, so the serialization cost grows with the number of actions, not with
+ * actions times viewers. Snapshots for joining or lagging spectators are encoded at
+ * most once per version as well.
+ *
+ * Every method except removal is called with the match lock held.
+ */
+final class SpectatorHub implements Spectator.SnapshotSource {
+
+    static final int QUEUE_CAPACITY = 256;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final MatchSession session;
+    private final DeltaLog deltaLog;
+    private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+    private long publishedVersion;
+    private Frame snapshot;
+
+    SpectatorHub(final MatchSession session, final DeltaLog deltaLog) {
+        this.session = session;
+        this.deltaLog = deltaLog;
+    }
+
+    /**
+     * Adds a spectator. Its first frame is the snapshot of the current version.
+     *
+     * @return the spectator
+     */
+    Spectator subscribe() {
+        Spectator spectator = new Spectator(QUEUE_CAPACITY);
+        spectator.offer(snapshotFrame(), this);
+        spectators.add(spectator);
+        return spectator;
+    }
+
+    /**
+     * Removes a spectator that went away.
+     *
+     * @param spectator the spectator
+     */
+    void unsubscribe(final Spectator spectator) {
+        spectator.close();
+        spectators.remove(spectator);
+    }
+
+    /**
+     * Closes every spectator; their connections end on their next poll.
+     */
+    void closeAll() {
+        for (Spectator spectator : spectators) {
+            spectator.close();
+        }
+        spectators.clear();
+    }
+
+    /**
+     * Sends the changes made since the last publish to every spectator.
+     */
+    void publish() {
+        long version = deltaLog.getVersion();
+        long previous = publishedVersion;
+        if (version == previous) {
+            return;
+        }
+        publishedVersion = version;
+        if (spectators.isEmpty()) {
+            return;
+        }
+        ObjectNode changes = session.changesSince(previous);
+        Frame frame = changes.has("snapshot") ? snapshotFrame() : encode(version, false, changes);
+        for (Spectator spectator : spectators) {
+            if (spectator.isClosed()) {
+                spectators.remove(spectator);
+            } else {
+                spectator.offer(frame, this);
+            }
+        }
+    }
+
+    @Override
+    public Frame snapshotFrame() {
+        long version = deltaLog.getVersion();
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = encode(version, true, session.changesSince(-1));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the number of spectators.
+     *
+     * @return the count
+     */
+    int size() {
+        return spectators.size();
+    }
+
+    private static Frame encode(final long version, final boolean isSnapshot,
+                                final ObjectNode node) {
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(node);
+            byte[] bytes = new byte[json.length + 1];
+            System.arraycopy(json, 0, bytes, 0, json.length);
+            bytes[json.length] = '\n';
+            return new Frame(version, isSnapshot, bytes);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
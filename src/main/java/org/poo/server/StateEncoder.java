@@ -0,0 +1,120 @@
+package org.poo.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.cards.Card;
+import org.poo.cards.Hero;
+import org.poo.gamethread.GameExecutor;
+import org.poo.gamethread.StateChange;
+import org.poo.players.GameBoard;
+import org.poo.players.Player;
+
+/**
+ * Turns engine state into the JSON the delta protocol sends: one small node per
+ * StateChange, and a full snapshot for clients that join late or fall behind.
+ */
+final class StateEncoder {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int BOARD_ROWS = 4;
+
+    /**
+     * for coding style
+     */
+    private StateEncoder() {
+    }
+
+    /**
+     * Encodes one change. Only the fields that apply to the change type are written.
+     *
+     * @param version the version the change produces
+     * @param change  the change
+     * @return the encoded change
+     */
+    static ObjectNode change(final long version, final StateChange change) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("v", version);
+        node.put("type", change.getType().name());
+        putIfSet(node, "playerIdx", change.getPlayerIdx());
+        putIfSet(node, "handIdx", change.getHandIdx());
+        putIfSet(node, "row", change.getRow());
+        putIfSet(node, "column", change.getColumn());
+        putIfSet(node, "attackDamage", change.getAttackDamage());
+        putIfSet(node, "health", change.getHealth());
+        putIfSet(node, "mana", change.getMana());
+        putIfSet(node, "round", change.getRound());
+        if (change.getType() == StateChange.Type.CARD_UPDATED) {
+            node.put("hasAttacked", change.getHasAttacked());
+            node.put("hasUsedAbility", change.getHasUsedAbility());
+        }
+        if (change.getCard() != null) {
+            card(node.putObject("card"), change.getCard());
+        }
+        return node;
+    }
+
+    /**
+     * Encodes the whole visible state of a match: board, hands, heroes and mana, with the
+     * frozen, attacked and used ability flags of board cards and heroes.
+     *
+     * @param version  the version the snapshot corresponds to
+     * @param executor the engine of the match
+     * @return the snapshot
+     */
+    static ObjectNode snapshot(final long version, final GameExecutor executor) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("v", version);
+        node.put("round", executor.getCurrentRound());
+        node.put("currentPlayer", executor.getPlayerOne().isTurn() ? 1 : 2);
+
+        ArrayNode board = node.putArray("board");
+        GameBoard gameBoard = executor.getBoard();
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            ArrayNode rowNode = board.addArray();
+            for (Card card : gameBoard.getRow(row)) {
+                ObjectNode cardNode = card(rowNode.addObject(), card);
+                cardNode.put("isFrozen", card.getIsFrozen(card));
+                cardNode.put("hasAttacked", card.getHasAttacked(card));
+                cardNode.put("hasUsedAbility", card.getHasUsedAbility(card));
+            }
+        }
+        ArrayNode players = node.putArray("players");
+        player(players.addObject(), executor.getPlayerOne());
+        player(players.addObject(), executor.getPlayerTwo());
+        return node;
+    }
+
+    private static void player(final ObjectNode node, final Player player) {
+        node.put("playerIdx", player.getPlayerIdx());
+        node.put("mana", player.getMana());
+        Hero hero = player.getHero();
+        card(node.putObject("hero"), hero).put("hasUsedAbility", hero.getHasUsedAbility(hero));
+        ArrayNode hand = node.putArray("hand");
+        for (Card card : player.getHand().getCards()) {
+            card(hand.addObject(), card);
+        }
+    }
+
+    /**
+     * Writes a card the same way getCardsOnTable and getCardsInHand do.
+     */
+    private static ObjectNode card(final ObjectNode cardNode, final Card card) {
+        cardNode.put("mana", card.getMana());
+        cardNode.put("attackDamage", card.getAttackDamage());
+        cardNode.put("health", card.getHealth());
+        cardNode.put("description", card.getDescription());
+        ArrayNode colorsNode = cardNode.putArray("colors");
+        for (String color : card.getColors()) {
+            colorsNode.add(color);
+        }
+        cardNode.put("name", card.getName());
+        return cardNode;
+    }
+
+    private static void putIfSet(final ObjectNode node, final String field, final int value) {
+        if (value != StateChange.NONE) {
+            node.put(field, value);
+        }
+    }
+}
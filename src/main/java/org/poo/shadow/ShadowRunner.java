@@ -0,0 +1,549 @@
+package org.poo.shadow;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.utils.ActionsInputCopy;
+import org.poo.utils.GameInputCopy;
+import org.poo.utils.InputCopy;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs sampled inputs through the reference GameExecutor and a candidate engine side
+ * by side, action by action, comparing the output of every action and, optionally, the
+ * StateHash after it. The first divergence stops the shadowing and is written out as a
+ * reproducer: an input holding only the two decks and the game concerned, or when that
+ * game does not diverge alone the games up to it, its actions cut after the diverging
+ * one. The reproducer is then shrunk: earlier games are dropped, then the actions of
+ * every game, each removal kept while the engines still diverge.
+ *
+ * When the output production wrote is offered along with the input and state hashes are
+ * off, the candidate alone is run and its outputs are compared with a copy of that file
+ * taken at offer; the reference engine only runs again to locate a divergence, when the
+ * output cannot be read, and while shrinking, where every attempt runs both engines on
+ * an input production never saw. Shadow runs that fail are counted apart from checked
+ * ones.
+ *
+ * Shadow runs happen on one background thread behind a short queue, and an input that
+ * finds the queue full is not shadowed, so the production path never waits on them; the
+ * cost is bounded by the sampled fraction and by that single thread.
+ */
+public final class ShadowRunner {
+
+    /** Default directory for reproducers, changed by gwentstone.shadow.dir. */
+    public static final String DEFAULT_DIR = "shadow";
+
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int MAX_SHRINK_RUNS = 500;
+    private static final int MAX_SHOWN = 200;
+    private static final String EMPTY_OUTPUT = "{}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Function<InputCopy, GameExecutor> candidate;
+    private final double sample;
+    private final boolean hashState;
+    private final Path directory;
+    private final ThreadPoolExecutor worker;
+    private final AtomicInteger checked = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile Path reproducer;
+
+    /**
+     * Creates a shadow runner.
+     *
+     * @param candidate creates the engine compared with GameExecutor; it must accept
+     *                  beginGame, executeAction and endGame like GameExecutor does
+     * @param sample    the fraction of offered inputs shadowed, 0 to 1
+     * @param hashState whether to compare the state hash after every action as well
+     * @param directory where the reproducer is written
+     */
+    public ShadowRunner(final Function<InputCopy, GameExecutor> candidate, final double sample,
+                        final boolean hashState, final Path directory) {
+        this.candidate = candidate;
+        this.sample = sample;
+        this.hashState = hashState;
+        this.directory = directory;
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "shadow-runner");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, (runnable, executor) -> dropped.incrementAndGet());
+    }
+
+    /**
+     * Creates the runner configured by the system properties: gwentstone.shadow.sample
+     * (off when absent or 0), gwentstone.shadow.engine (the class name of a GameExecutor
+     * subclass with the (InputCopy, ArrayNode) constructor; GameExecutor itself by
+     * default, which catches nondeterminism), gwentstone.shadow.stateHash and
+     * gwentstone.shadow.dir.
+     *
+     * @return the runner, or null when shadowing is off
+     * @throws IllegalArgumentException if the engine class cannot be used
+     */
+    public static ShadowRunner fromProperties() {
+        double sample = Double.parseDouble(System.getProperty("gwentstone.shadow.sample", "0"));
+        if (sample <= 0) {
+            return null;
+        }
+        return new ShadowRunner(engineFactory(System.getProperty("gwentstone.shadow.engine",
+                GameExecutor.class.getName())), sample,
+                Boolean.getBoolean("gwentstone.shadow.stateHash"),
+                Paths.get(System.getProperty("gwentstone.shadow.dir", DEFAULT_DIR)));
+    }
+
+    /**
+     * Gets the runner configured by the system properties, created on first use.
+     *
+     * @return the runner, or null when shadowing is off
+     */
+    public static ShadowRunner shared() {
+        return Shared.RUNNER;
+    }
+
+    /**
+     * Creates engines of a GameExecutor subclass.
+     *
+     * @param className the class name
+     * @return the factory
+     * @throws IllegalArgumentException if the class is not a usable GameExecutor
+     */
+    public static Function<InputCopy, GameExecutor> engineFactory(final String className) {
+        Constructor<? extends GameExecutor> constructor;
+        try {
+            constructor = Class.forName(className).asSubclass(GameExecutor.class)
+                    .getConstructor(InputCopy.class, ArrayNode.class);
+        } catch (ClassNotFoundException | ClassCastException | NoSuchMethodException e) {
+            throw new IllegalArgumentException("Unusable shadow engine " + className, e);
+        }
+        return input -> {
+            try {
+                return constructor.newInstance(input, new ObjectMapper().createArrayNode());
+            } catch (InstantiationException | IllegalAccessException
+                     | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot create " + className, e);
+            }
+        };
+    }
+
+    /**
+     * Offers an input production has run. A sampled share of the inputs is shadowed in
+     * the background; the call never waits for the shadow run. The output of a sampled
+     * input is read before returning, since callers may move or overwrite the file.
+     *
+     * @param input      the bytes of the input file
+     * @param production the output file production wrote for it; null if production
+     *                   failed, then both engines run
+     */
+    public void offer(final byte[] input, final Path production) {
+        if (reproducer != null || ThreadLocalRandom.current().nextDouble() >= sample) {
+            return;
+        }
+        byte[] output = hashState ? null : readOutput(production);
+        worker.execute(() -> {
+            try {
+                check(input, output);
+            } catch (IOException | RuntimeException e) {
+                failed.incrementAndGet();
+                System.err.println("Shadow run failed: " + e);
+            }
+        });
+    }
+
+    /**
+     * Reads the output production wrote.
+     *
+     * @return its bytes, or null when there is none or it cannot be read
+     */
+    private static byte[] readOutput(final Path production) {
+        if (production == null) {
+            return null;
+        }
+        try {
+            return Files.readAllBytes(production);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Shadows one input now, on the calling thread, writing a reproducer if it diverges.
+     *
+     * @param input the bytes of the input file
+     * @return the first divergence, or null if the engines agreed
+     * @throws IOException if the input cannot be parsed or the reproducer not written
+     */
+    public Divergence check(final byte[] input) throws IOException {
+        return check(input, (byte[]) null);
+    }
+
+    /**
+     * Shadows one input now, on the calling thread, against the output production wrote
+     * for it, writing a reproducer if it diverges.
+     *
+     * @param input      the bytes of the input file
+     * @param production the bytes of the output file of the input, or null to run the
+     *                   reference
+     * @return the first divergence, or null if the engines agreed
+     * @throws IOException if the input cannot be parsed or the reproducer not written
+     */
+    public Divergence check(final byte[] input, final byte[] production) throws IOException {
+        InputCopy parsed = parse(input);
+        if (production != null && !hashState && matches(parsed, production)) {
+            checked.incrementAndGet();
+            return null;
+        }
+        Divergence divergence = compare(parsed);
+        checked.incrementAndGet();
+        if (divergence != null && reproducer == null) {
+            synchronized (this) {
+                if (reproducer == null) {
+                    reproducer = writeReproducer(objectMapper.readTree(input), divergence);
+                    System.err.println("Shadow divergence: " + divergence
+                            + ", reproducer " + reproducer);
+                }
+            }
+        }
+        return divergence;
+    }
+
+    /**
+     * Waits for the queued shadow runs and stops the background thread.
+     *
+     * @return a summary line
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public String finish() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        return "shadow: " + checked.get() + " checked, " + failed.get() + " failed, "
+                + dropped.get() + " skipped"
+                + (reproducer == null ? ", no divergence" : ", diverged, see " + reproducer);
+    }
+
+    /**
+     * Gets the reproducer written for the first divergence.
+     *
+     * @return its path, or null while the engines agree
+     */
+    public Path getReproducer() {
+        return reproducer;
+    }
+
+    /**
+     * Runs every game of an input through both engines and finds the first action they
+     * disagree on. An action that throws counts as output; once both engines have thrown
+     * alike the rest of the input is not compared.
+     *
+     * @param input the input
+     * @return the first divergence, or null
+     */
+    public Divergence compare(final InputCopy input) {
+        GameExecutor reference = new GameExecutor(input, objectMapper.createArrayNode());
+        GameExecutor shadow = candidate.apply(input);
+        List<GameInputCopy> games = input.getGames();
+        for (int game = 0; game < games.size(); game++) {
+            String expected = run(reference, null, game, games);
+            String actual = run(shadow, null, game, games);
+            Divergence divergence = differ(game, -1, expected, actual, reference, shadow);
+            if (divergence != null || expected != null) {
+                return divergence;
+            }
+            List<ActionsInputCopy> actions = games.get(game).getActions();
+            for (int index = 0; index < actions.size(); index++) {
+                expected = run(reference, actions.get(index), game, games);
+                actual = run(shadow, actions.get(index), game, games);
+                divergence = differ(game, index, expected, actual, reference, shadow);
+                if (divergence != null || expected.startsWith("threw ")) {
+                    return divergence;
+                }
+            }
+            reference.endGame();
+            shadow.endGame();
+        }
+        return null;
+    }
+
+    /**
+     * Runs the candidate alone and checks that its non-empty outputs are, in order, the
+     * nodes of the output file production wrote.
+     *
+     * @return true if they are; false on any difference, if the candidate threw or if
+     *         the output is not a readable array
+     */
+    private boolean matches(final InputCopy input, final byte[] production) {
+        GameExecutor shadow = candidate.apply(input);
+        List<GameInputCopy> games = input.getGames();
+        try (JsonParser expected = objectMapper.createParser(production)) {
+            if (expected.nextToken() != JsonToken.START_ARRAY) {
+                return false;
+            }
+            for (int game = 0; game < games.size(); game++) {
+                if (run(shadow, null, game, games) != null) {
+                    return false;
+                }
+                for (ActionsInputCopy action : games.get(game).getActions()) {
+                    String actual = run(shadow, action, game, games);
+                    if (actual.startsWith("threw ")) {
+                        return false;
+                    }
+                    if (!EMPTY_OUTPUT.equals(actual)
+                            && (expected.nextToken() != JsonToken.START_OBJECT
+                            || !actual.equals(expected.readValueAsTree().toString()))) {
+                        return false;
+                    }
+                }
+                shadow.endGame();
+            }
+            return expected.nextToken() == JsonToken.END_ARRAY;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Applies beginGame, when action is null, or one action.
+     *
+     * @return the output of the action, or for beginGame null; the exception if it threw
+     */
+    private static String run(final GameExecutor engine, final ActionsInputCopy action,
+                              final int game, final List<GameInputCopy> games) {
+        try {
+            if (action == null) {
+                engine.beginGame(games.get(game).getStartGame());
+                return null;
+            }
+            ObjectNode output = engine.executeAction(action);
+            return output.toString();
+        } catch (RuntimeException e) {
+            return "threw " + e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private Divergence differ(final int game, final int action, final String expected,
+                              final String actual, final GameExecutor reference,
+                              final GameExecutor shadow) {
+        if (!Objects.equals(expected, actual)) {
+            return new Divergence(game, action, "output", expected, actual);
+        }
+        if (hashState && (expected == null || !expected.startsWith("threw "))) {
+            long expectedHash = StateHash.of(reference);
+            long actualHash = StateHash.of(shadow);
+            if (expectedHash != actualHash) {
+                return new Divergence(game, action, "state hash",
+                        Long.toHexString(expectedHash), Long.toHexString(actualHash));
+            }
+        }
+        return null;
+    }
+
+    private InputCopy parse(final byte[] input) throws IOException {
+        return new InputCopy(objectMapper.readValue(input, Input.class));
+    }
+
+    private InputCopy parse(final JsonNode input) throws IOException {
+        return new InputCopy(objectMapper.treeToValue(input, Input.class));
+    }
+
+    /**
+     * Builds, checks and shrinks the reproducer of a divergence, then writes it.
+     *
+     * @return the file written
+     */
+    private Path writeReproducer(final JsonNode input, final Divergence divergence)
+            throws IOException {
+        ObjectNode candidateInput = isolate(input, divergence);
+        boolean diverges = compare(parse(candidateInput)) != null;
+        if (!diverges) {
+            // the game does not diverge on its own, keep the games played before it
+            candidateInput = prefix(input, divergence);
+            diverges = compare(parse(candidateInput)) != null;
+        }
+        if (diverges) {
+            shrink(candidateInput);
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve("repro-" + System.currentTimeMillis() + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), candidateInput);
+        return file;
+    }
+
+    /**
+     * Keeps only the two decks and the game of the divergence, its actions cut after the
+     * diverging one.
+     */
+    private ObjectNode isolate(final JsonNode input, final Divergence divergence) {
+        ObjectNode game = ((ObjectNode) input.get("games").get(divergence.getGame())).deepCopy();
+        ObjectNode startGame = (ObjectNode) game.get("startGame");
+        ObjectNode result = objectMapper.createObjectNode();
+        result.set("playerOneDecks", singleDeck(input.get("playerOneDecks"),
+                startGame.get("playerOneDeckIdx").asInt()));
+        result.set("playerTwoDecks", singleDeck(input.get("playerTwoDecks"),
+                startGame.get("playerTwoDeckIdx").asInt()));
+        startGame.put("playerOneDeckIdx", 0);
+        startGame.put("playerTwoDeckIdx", 0);
+        truncate(game, divergence.getAction());
+        result.putArray("games").add(game);
+        return result;
+    }
+
+    /**
+     * Keeps the games up to the one of the divergence, that one cut after the diverging
+     * action.
+     */
+    private ObjectNode prefix(final JsonNode input, final Divergence divergence) {
+        ObjectNode result = ((ObjectNode) input).deepCopy();
+        ArrayNode games = (ArrayNode) result.get("games");
+        while (games.size() > divergence.getGame() + 1) {
+            games.remove(games.size() - 1);
+        }
+        truncate((ObjectNode) games.get(divergence.getGame()), divergence.getAction());
+        return result;
+    }
+
+    private static void truncate(final ObjectNode game, final int lastAction) {
+        ArrayNode actions = (ArrayNode) game.get("actions");
+        while (actions.size() > lastAction + 1) {
+            actions.remove(actions.size() - 1);
+        }
+    }
+
+    private ObjectNode singleDeck(final JsonNode decks, final int index) {
+        ObjectNode result = ((ObjectNode) decks).deepCopy();
+        result.put("nrDecks", 1);
+        result.putArray("decks").add(decks.get("decks").get(index).deepCopy());
+        return result;
+    }
+
+    /**
+     * Drops the games before the last one, then the actions of every game, last game and
+     * latest action first, one at a time, keeping each removal after which the engines
+     * still diverge. The last action of the last game is the diverging one and stays.
+     * At most MAX_SHRINK_RUNS removals are tried.
+     */
+    private void shrink(final ObjectNode input) throws IOException {
+        ArrayNode games = (ArrayNode) input.get("games");
+        int runs = 0;
+        for (int game = games.size() - 2; game >= 0 && runs < MAX_SHRINK_RUNS; game--) {
+            JsonNode removed = games.remove(game);
+            runs++;
+            if (compare(parse(input)) == null) {
+                games.insert(game, removed);
+            }
+        }
+        for (int game = games.size() - 1; game >= 0; game--) {
+            ArrayNode actions = (ArrayNode) games.get(game).get("actions");
+            int last = game == games.size() - 1 ? actions.size() - 2 : actions.size() - 1;
+            for (int index = last; index >= 0 && runs < MAX_SHRINK_RUNS; index--) {
+                JsonNode removed = actions.remove(index);
+                runs++;
+                if (compare(parse(input)) == null) {
+                    actions.insert(index, removed);
+                }
+            }
+        }
+    }
+
+    /**
+     * The first point where the two engines disagreed.
+     */
+    public static final class Divergence {
+        private final int game;
+        private final int action;
+        private final String kind;
+        private final String expected;
+        private final String actual;
+
+        Divergence(final int game, final int action, final String kind,
+                   final String expected, final String actual) {
+            this.game = game;
+            this.action = action;
+            this.kind = kind;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        /**
+         * Gets the index of the game.
+         *
+         * @return the game index
+         */
+        public int getGame() {
+            return game;
+        }
+
+        /**
+         * Gets the index of the action in its game.
+         *
+         * @return the action index, -1 for the start of the game
+         */
+        public int getAction() {
+            return action;
+        }
+
+        @Override
+        public String toString() {
+            return "game " + game + (action < 0 ? " start" : " action " + action) + " "
+                    + kind + " expected " + shorten(expected) + ", got " + shorten(actual);
+        }
+
+        private static String shorten(final String text) {
+            return text == null || text.length() <= MAX_SHOWN ? text
+                    : text.substring(0, MAX_SHOWN) + "...";
+        }
+    }
+
+    /**
+     * Holds the shared instance, read from the properties when first needed.
+     */
+    private static final class Shared {
+        private static final ShadowRunner RUNNER = fromProperties();
+    }
+
+    /**
+     * Shadows every given input, in order, stopping at the first divergence.
+     * Usage: input.json..., configured by the same properties as the shared runner, and
+     * shadowing every input whatever gwentstone.shadow.sample says.
+     *
+     * @param args the input files
+     * @throws IOException if an input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ShadowRunner <input.json>...");
+            return;
+        }
+        ShadowRunner runner = new ShadowRunner(engineFactory(System.getProperty(
+                "gwentstone.shadow.engine", GameExecutor.class.getName())), 1,
+                Boolean.getBoolean("gwentstone.shadow.stateHash"),
+                Paths.get(System.getProperty("gwentstone.shadow.dir", DEFAULT_DIR)));
+        for (String arg : args) {
+            Divergence divergence = runner.check(Files.readAllBytes(Paths.get(arg)));
+            System.out.println(arg + ": " + (divergence == null ? "OK" : divergence));
+            if (divergence != null) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.poo.shadow;
+
+import org.poo.cards.Card;
+import org.poo.gamethread.GameExecutor;
+import org.poo.players.Deck;
+import org.poo.players.Player;
+import org.poo.utils.CardInputCopy;
+
+import java.util.List;
+
+/**
+ * A 64-bit digest of the visible state of a game: round, counters, both players with
+ * their hero, hand and the top of their deck, and every card on the board with its
+ * flags. Two engines that agree on every rule give equal hashes after every action,
+ * whatever their internals, so a differing hash points at the action that went wrong
+ * even when it printed nothing.
+ *
+ * Of the deck only the size and the next card are hashed, so a lazy deck stays lazy.
+ */
+public final class StateHash {
+
+    private static final long OFFSET = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+    private static final int BOARD_ROWS = 4;
+    private static final int FROZEN = 1;
+    private static final int ATTACKED = 1 << 1;
+    private static final int USED_ABILITY = 1 << 2;
+
+    /**
+     * for coding style
+     */
+    private StateHash() {
+    }
+
+    /**
+     * Hashes the game in progress.
+     *
+     * @param game the engine, between two actions
+     * @return the hash
+     */
+    public static long of(final GameExecutor game) {
+        long hash = OFFSET;
+        hash = mix(hash, game.getCurrentRound());
+        hash = mix(hash, game.isGameEnded() ? 1 : 0);
+        hash = mix(hash, game.getGamesPlayed());
+        hash = mix(hash, game.getGamesWonPlayerOne());
+        hash = mix(hash, game.getGamesWonPlayerTwo());
+        for (Player player : new Player[] {game.getPlayerOne(), game.getPlayerTwo()}) {
+            hash = mix(hash, player.getMana());
+            hash = mix(hash, player.getMaxMana());
+            hash = mix(hash, player.getHealth());
+            hash = mix(hash, player.isTurn() ? 1 : 0);
+            hash = mix(hash, player.getHero());
+            List<Card> hand = player.getHand().getCards();
+            hash = mix(hash, hand.size());
+            for (Card card : hand) {
+                hash = mix(hash, card);
+            }
+            hash = mixDeck(hash, player.getDeck());
+        }
+        for (int row = 0; row < BOARD_ROWS; row++) {
+            List<Card> cards = game.getBoard().getRow(row);
+            hash = mix(hash, cards.size());
+            for (Card card : cards) {
+                hash = mix(hash, card);
+            }
+        }
+        return hash;
+    }
+
+    private static long mixDeck(final long hash, final Deck deck) {
+        long mixed = mix(hash, deck.getDeckSize());
+        if (deck.isEmpty()) {
+            return mixed;
+        }
+        List<CardInputCopy> templates = deck.getTemplates();
+        if (templates != null) {
+            return mix(mixed, templates.get(0).getName());
+        }
+        return mix(mixed, deck.getCards().get(0).getName());
+    }
+
+    private static long mix(final long hash, final Card card) {
+        if (card == null) {
+            return mix(hash, -1);
+        }
+        long mixed = mix(hash, card.getName());
+        mixed = mix(mixed, card.getMana());
+        mixed = mix(mixed, card.getHealth());
+        mixed = mix(mixed, card.getAttackDamage());
+        int flags = (card.getIsFrozen(card) ? FROZEN : 0)
+                | (card.getHasAttacked(card) ? ATTACKED : 0)
+                | (card.getHasUsedAbility(card) ? USED_ABILITY : 0);
+        return mix(mixed, flags);
+    }
+
+    private static long mix(final long hash, final String text) {
+        return mix(hash, text == null ? 0 : text.hashCode());
+    }
+
+    private static long mix(final long hash, final int value) {
+        return (hash ^ value) * PRIME;
+    }
+}
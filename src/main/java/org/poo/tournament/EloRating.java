@@ -0,0 +1,47 @@
+package org.poo.tournament;
+
+/**
+ * Standard Elo rating arithmetic.
+ */
+public final class EloRating {
+
+    public static final double WIN = 1.0;
+    public static final double DRAW = 0.5;
+    public static final double LOSS = 0.0;
+
+    private static final double SCALE = 400.0;
+    private static final double BASE = 10.0;
+
+    /**
+     * for coding style
+     */
+    private EloRating() {
+    }
+
+    /**
+     * Computes the expected score of a player against an opponent.
+     *
+     * @param rating         the player's rating
+     * @param opponentRating the opponent's rating
+     * @return the expected score, between 0 and 1
+     */
+    public static double expectedScore(final double rating, final double opponentRating) {
+        return 1.0 / (1.0 + Math.pow(BASE, (opponentRating - rating) / SCALE));
+    }
+
+    /**
+     * Applies one game result to both players.
+     *
+     * @param first  the first player
+     * @param second the second player
+     * @param score  the score of the first player: WIN, DRAW or LOSS
+     * @param factor the K-factor
+     */
+    static void update(final Entrant first, final Entrant second, final double score,
+                       final double factor) {
+        double expected = expectedScore(first.getRating(), second.getRating());
+        double delta = factor * (score - expected);
+        first.setRating(first.getRating() + delta);
+        second.setRating(second.getRating() - delta);
+    }
+}
@@ -0,0 +1,137 @@
+package org.poo.tournament;
+
+import org.poo.bots.Policy;
+
+/**
+ * A bot taking part in a tournament, together with its running standings.
+ */
+public final class Entrant {
+
+    private static final double INITIAL_RATING = 1500.0;
+
+    private final String name;
+    private final Policy policy;
+    private double rating = INITIAL_RATING;
+    private int wins;
+    private int losses;
+    private int draws;
+    private long cpuNanos;
+
+    /**
+     * Constructs an entrant.
+     *
+     * @param name   the name shown in the results table
+     * @param policy the policy the entrant plays with
+     */
+    public Entrant(final String name, final Policy policy) {
+        this.name = name;
+        this.policy = policy;
+    }
+
+    /**
+     * Records the outcome of one game.
+     *
+     * @param score    1 for a win, 0.5 for a draw, 0 for a loss
+     * @param cpuShare the CPU time attributed to this entrant, in nanoseconds
+     */
+    void record(final double score, final long cpuShare) {
+        if (score > EloRating.DRAW) {
+            wins++;
+        } else if (score < EloRating.DRAW) {
+            losses++;
+        } else {
+            draws++;
+        }
+        cpuNanos += cpuShare;
+    }
+
+    /**
+     * Gets the entrant name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the policy of the entrant.
+     *
+     * @return the policy
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Gets the current Elo rating.
+     *
+     * @return the rating
+     */
+    public double getRating() {
+        return rating;
+    }
+
+    /**
+     * Sets the Elo rating.
+     *
+     * @param rating the new rating
+     */
+    void setRating(final double rating) {
+        this.rating = rating;
+    }
+
+    /**
+     * Gets the number of games won.
+     *
+     * @return the wins
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Gets the number of games lost.
+     *
+     * @return the losses
+     */
+    public int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Gets the number of games drawn by the round limit.
+     *
+     * @return the draws
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * Gets the number of games played.
+     *
+     * @return the games played
+     */
+    public int getGamesPlayed() {
+        return wins + losses + draws;
+    }
+
+    /**
+     * Gets the tournament score, one point per win and half a point per draw.
+     *
+     * @return the score
+     */
+    public double getScore() {
+        return wins + draws * EloRating.DRAW;
+    }
+
+    /**
+     * Gets the CPU time spent in this entrant's games.
+     *
+     * @return the CPU time in nanoseconds
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+}
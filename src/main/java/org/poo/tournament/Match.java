@@ -0,0 +1,131 @@
+package org.poo.tournament;
+
+/**
+ * One scheduled game between two entrants, and its result once played.
+ */
+public final class Match {
+
+    private final int seatOne;
+    private final int seatTwo;
+    private final int playerOneDeckIdx;
+    private final int playerTwoDeckIdx;
+    private final int shuffleSeed;
+    private final int startingPlayer;
+    private int winner;
+    private long cpuNanos;
+    private int actions;
+
+    /**
+     * Constructs a match.
+     *
+     * @param seatOne          the index of the entrant playing as player one
+     * @param seatTwo          the index of the entrant playing as player two
+     * @param playerOneDeckIdx the deck of player one
+     * @param playerTwoDeckIdx the deck of player two
+     * @param shuffleSeed      the shuffle seed
+     * @param startingPlayer   the player who moves first
+     */
+    public Match(final int seatOne, final int seatTwo, final int playerOneDeckIdx,
+                 final int playerTwoDeckIdx, final int shuffleSeed, final int startingPlayer) {
+        this.seatOne = seatOne;
+        this.seatTwo = seatTwo;
+        this.playerOneDeckIdx = playerOneDeckIdx;
+        this.playerTwoDeckIdx = playerTwoDeckIdx;
+        this.shuffleSeed = shuffleSeed;
+        this.startingPlayer = startingPlayer;
+    }
+
+    /**
+     * Stores the result of the match.
+     *
+     * @param matchWinner the winning player, see SelfPlayGame
+     * @param matchCpu    the CPU time of the match in nanoseconds
+     * @param matchActions the number of actions applied
+     */
+    void setResult(final int matchWinner, final long matchCpu, final int matchActions) {
+        this.winner = matchWinner;
+        this.cpuNanos = matchCpu;
+        this.actions = matchActions;
+    }
+
+    /**
+     * Gets the entrant playing as player one.
+     *
+     * @return the entrant index
+     */
+    public int getSeatOne() {
+        return seatOne;
+    }
+
+    /**
+     * Gets the entrant playing as player two.
+     *
+     * @return the entrant index
+     */
+    public int getSeatTwo() {
+        return seatTwo;
+    }
+
+    /**
+     * Gets the deck of player one.
+     *
+     * @return the deck index
+     */
+    public int getPlayerOneDeckIdx() {
+        return playerOneDeckIdx;
+    }
+
+    /**
+     * Gets the deck of player two.
+     *
+     * @return the deck index
+     */
+    public int getPlayerTwoDeckIdx() {
+        return playerTwoDeckIdx;
+    }
+
+    /**
+     * Gets the shuffle seed.
+     *
+     * @return the seed
+     */
+    public int getShuffleSeed() {
+        return shuffleSeed;
+    }
+
+    /**
+     * Gets the player who moves first.
+     *
+     * @return 1 or 2
+     */
+    public int getStartingPlayer() {
+        return startingPlayer;
+    }
+
+    /**
+     * Gets the winning player.
+     *
+     * @return 1, 2, or 0 for a draw
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Gets the CPU time of the match.
+     *
+     * @return the CPU time in nanoseconds
+     */
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * Gets the number of actions applied in the match.
+     *
+     * @return the action count
+     */
+    public int getActions() {
+        return actions;
+    }
+}
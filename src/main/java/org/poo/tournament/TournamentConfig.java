@@ -0,0 +1,110 @@
+package org.poo.tournament;
+
+/**
+ * Settings of a tournament run.
+ */
+public final class TournamentConfig {
+
+    /**
+     * How pairings are scheduled.
+     */
+    public enum Format {
+        ROUND_ROBIN,
+        SWISS
+    }
+
+    private final Format format;
+    private final int swissRounds;
+    private final int seedsPerDeckPair;
+    private final int baseSeed;
+    private final int maxRounds;
+    private final int parallelism;
+    private final double kFactor;
+
+    /**
+     * Constructs a tournament configuration.
+     *
+     * @param format           round-robin or Swiss scheduling
+     * @param swissRounds      the number of rounds of a Swiss tournament
+     * @param seedsPerDeckPair the shuffle seeds played for every deck pair
+     * @param baseSeed         the first shuffle seed
+     * @param maxRounds        the game round after which a game is a draw
+     * @param parallelism      the number of worker threads
+     * @param kFactor          the Elo K-factor
+     */
+    public TournamentConfig(final Format format, final int swissRounds,
+                            final int seedsPerDeckPair, final int baseSeed,
+                            final int maxRounds, final int parallelism,
+                            final double kFactor) {
+        this.format = format;
+        this.swissRounds = swissRounds;
+        this.seedsPerDeckPair = seedsPerDeckPair;
+        this.baseSeed = baseSeed;
+        this.maxRounds = maxRounds;
+        this.parallelism = parallelism;
+        this.kFactor = kFactor;
+    }
+
+    /**
+     * Gets the scheduling format.
+     *
+     * @return the format
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the number of Swiss rounds.
+     *
+     * @return the rounds
+     */
+    public int getSwissRounds() {
+        return swissRounds;
+    }
+
+    /**
+     * Gets the number of seeds per deck pair.
+     *
+     * @return the seeds
+     */
+    public int getSeedsPerDeckPair() {
+        return seedsPerDeckPair;
+    }
+
+    /**
+     * Gets the first shuffle seed.
+     *
+     * @return the seed
+     */
+    public int getBaseSeed() {
+        return baseSeed;
+    }
+
+    /**
+     * Gets the round limit of a game.
+     *
+     * @return the round limit
+     */
+    public int getMaxRounds() {
+        return maxRounds;
+    }
+
+    /**
+     * Gets the number of worker threads.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Gets the Elo K-factor.
+     *
+     * @return the K-factor
+     */
+    public double getKFactor() {
+        return kFactor;
+    }
+}
@@ -0,0 +1,345 @@
+package org.poo.tournament;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.poo.bots.Policies;
+import org.poo.bots.SelfPlayGame;
+import org.poo.fileio.Input;
+import org.poo.gamethread.GameExecutor;
+import org.poo.metrics.EngineMetrics;
+import org.poo.metrics.MetricsServer;
+import org.poo.utils.GameInputCopy;
+import org.poo.utils.InputCopy;
+import org.poo.utils.StartGameInputCopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Schedules self-play games between bots over every deck pair of an input, runs them on
+ * a work-stealing pool and rates the bots with Elo.
+ *
+ * Every worker thread keeps its own GameExecutor, so games never share engine state;
+ * the executor's win counters tell who won each game. Results are applied to the
+ * ratings in schedule order once a batch finishes, which keeps the ratings identical
+ * for any number of threads.
+ */
+public final class TournamentRunner {
+
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double PERCENT = 100.0;
+    private static final int DEFAULT_SEEDS = 10;
+    private static final int DEFAULT_SWISS_ROUNDS = 5;
+    private static final int DEFAULT_MAX_ROUNDS = 50;
+    private static final double DEFAULT_K_FACTOR = 16.0;
+    private static final int ARG_FORMAT = 1;
+    private static final int ARG_POLICIES = 2;
+    private static final int ARG_SEEDS = 3;
+    private static final int ARG_SWISS_ROUNDS = 4;
+
+    private final InputCopy inputData;
+    private final List<Entrant> entrants;
+    private final TournamentConfig config;
+    private final List<StartGameInputCopy> heroPairs = new ArrayList<>();
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final ThreadLocal<GameExecutor> executors;
+    private long gamesPlayed;
+    private long totalCpuNanos;
+
+    /**
+     * Constructs a tournament.
+     *
+     * @param inputData the input providing the decks and, through its games, the heroes
+     * @param entrants  the bots taking part
+     * @param config    the tournament settings
+     */
+    public TournamentRunner(final InputCopy inputData, final List<Entrant> entrants,
+                            final TournamentConfig config) {
+        if (inputData.getGames().isEmpty()) {
+            throw new IllegalArgumentException("The input needs at least one game for heroes.");
+        }
+        this.inputData = inputData;
+        this.entrants = entrants;
+        this.config = config;
+        for (GameInputCopy game : inputData.getGames()) {
+            heroPairs.add(game.getStartGame());
+        }
+        this.cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported();
+        if (cpuTimeSupported && !threadBean.isThreadCpuTimeEnabled()) {
+            threadBean.setThreadCpuTimeEnabled(true);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.executors = ThreadLocal.withInitial(
+                () -> new GameExecutor(inputData, objectMapper.createArrayNode()));
+    }
+
+    /**
+     * Runs the whole tournament.
+     */
+    public void run() {
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+        EngineMetrics.registerQueue("tournament",
+                () -> pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount());
+        try {
+            if (config.getFormat() == TournamentConfig.Format.ROUND_ROBIN) {
+                List<Match> matches = new ArrayList<>();
+                for (int i = 0; i < entrants.size(); i++) {
+                    for (int j = i + 1; j < entrants.size(); j++) {
+                        schedulePairing(i, j, matches);
+                    }
+                }
+                playAndRate(pool, matches);
+            } else {
+                boolean[][] played = new boolean[entrants.size()][entrants.size()];
+                boolean[] hadBye = new boolean[entrants.size()];
+                for (int round = 0; round < config.getSwissRounds(); round++) {
+                    playAndRate(pool, scheduleSwissRound(played, hadBye));
+                }
+            }
+        } finally {
+            EngineMetrics.unregisterQueue("tournament");
+            pool.shutdown();
+        }
+    }
+
+    private List<Match> scheduleSwissRound(final boolean[][] played, final boolean[] hadBye) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < entrants.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble((Integer i) -> -entrants.get(i).getScore())
+                .thenComparingDouble(i -> -entrants.get(i).getRating()));
+
+        List<Match> matches = new ArrayList<>();
+        boolean[] paired = new boolean[entrants.size()];
+        if (order.size() % 2 == 1) {
+            // the lowest ranked entrant that has not sat out yet gets the bye
+            for (int b = order.size() - 1; b >= 0; b--) {
+                if (!hadBye[order.get(b)]) {
+                    hadBye[order.get(b)] = true;
+                    paired[order.get(b)] = true;
+                    break;
+                }
+            }
+        }
+        for (int a = 0; a < order.size(); a++) {
+            int first = order.get(a);
+            if (paired[first]) {
+                continue;
+            }
+            int fallback = -1;
+            int second = -1;
+            for (int b = a + 1; b < order.size(); b++) {
+                int candidate = order.get(b);
+                if (paired[candidate]) {
+                    continue;
+                }
+                if (fallback < 0) {
+                    fallback = candidate;
+                }
+                if (!played[first][candidate]) {
+                    second = candidate;
+                    break;
+                }
+            }
+            if (second < 0) {
+                second = fallback;
+            }
+            if (second < 0) {
+                continue;
+            }
+            paired[first] = true;
+            paired[second] = true;
+            played[first][second] = true;
+            played[second][first] = true;
+            schedulePairing(first, second, matches);
+        }
+        return matches;
+    }
+
+    private void schedulePairing(final int first, final int second, final List<Match> matches) {
+        int decksOne = inputData.getPlayerOneDecks().getDecks().size();
+        int decksTwo = inputData.getPlayerTwoDecks().getDecks().size();
+        for (int deckOne = 0; deckOne < decksOne; deckOne++) {
+            for (int deckTwo = 0; deckTwo < decksTwo; deckTwo++) {
+                for (int s = 0; s < config.getSeedsPerDeckPair(); s++) {
+                    int seed = config.getBaseSeed() + s;
+                    int startingPlayer = 1 + s % 2;
+                    matches.add(new Match(first, second, deckOne, deckTwo, seed,
+                            startingPlayer));
+                    matches.add(new Match(second, first, deckOne, deckTwo, seed,
+                            startingPlayer));
+                }
+            }
+        }
+    }
+
+    private void playAndRate(final ForkJoinPool pool, final List<Match> matches) {
+        pool.invoke(new MatchBatch(matches, 0, matches.size()));
+        for (Match match : matches) {
+            Entrant one = entrants.get(match.getSeatOne());
+            Entrant two = entrants.get(match.getSeatTwo());
+            double score = EloRating.DRAW;
+            if (match.getWinner() == SelfPlayGame.PLAYER_ONE) {
+                score = EloRating.WIN;
+            } else if (match.getWinner() == SelfPlayGame.PLAYER_TWO) {
+                score = EloRating.LOSS;
+            }
+            EloRating.update(one, two, score, config.getKFactor());
+            one.record(score, match.getCpuNanos() / 2);
+            two.record(EloRating.WIN - score, match.getCpuNanos() - match.getCpuNanos() / 2);
+            totalCpuNanos += match.getCpuNanos();
+        }
+        gamesPlayed += matches.size();
+    }
+
+    private void play(final Match match) {
+        GameExecutor executor = executors.get();
+        StartGameInputCopy heroes = heroPairs.get(Math.floorMod(match.getShuffleSeed(),
+                heroPairs.size()));
+        StartGameInputCopy startGame = new StartGameInputCopy(match.getPlayerOneDeckIdx(),
+                match.getPlayerTwoDeckIdx(), match.getShuffleSeed(), heroes.getPlayerOneHero(),
+                heroes.getPlayerTwoHero(), match.getStartingPlayer());
+        SelfPlayGame game = new SelfPlayGame(executor,
+                entrants.get(match.getSeatOne()).getPolicy(),
+                entrants.get(match.getSeatTwo()).getPolicy(), config.getMaxRounds());
+        Random random = new Random(((long) match.getShuffleSeed() << Integer.SIZE)
+                ^ ((long) match.getSeatOne() << Short.SIZE) ^ match.getSeatTwo());
+
+        long start = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+        int winner = game.play(startGame, random);
+        long cpu = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() - start : 0;
+        match.setResult(winner, cpu, game.getActionsPlayed());
+    }
+
+    /**
+     * Formats the standings, best rating first.
+     *
+     * @return the results table
+     */
+    public String formatTable() {
+        List<Entrant> ranking = new ArrayList<>(entrants);
+        ranking.sort(Comparator.comparingDouble(Entrant::getRating).reversed());
+
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-4s %-16s %8s %8s %8s %8s %8s %7s %10s %10s%n", "Rank",
+                "Bot", "Elo", "Games", "Wins", "Losses", "Draws", "Win%", "CPU ms", "us/game"));
+        for (int i = 0; i < ranking.size(); i++) {
+            Entrant entrant = ranking.get(i);
+            int games = Math.max(1, entrant.getGamesPlayed());
+            table.append(String.format("%-4d %-16s %8.1f %8d %8d %8d %8d %6.1f%% %10.1f %10.1f%n",
+                    i + 1, entrant.getName(), entrant.getRating(), entrant.getGamesPlayed(),
+                    entrant.getWins(), entrant.getLosses(), entrant.getDraws(),
+                    PERCENT * entrant.getWins() / games,
+                    entrant.getCpuNanos() / NANOS_PER_MILLI,
+                    entrant.getCpuNanos() / NANOS_PER_MICRO / games));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Gets the number of games played so far.
+     *
+     * @return the game count
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    /**
+     * Gets the CPU time spent in games so far, summed over all workers.
+     *
+     * @return the CPU time in nanoseconds
+     */
+    public long getTotalCpuNanos() {
+        return totalCpuNanos;
+    }
+
+    /**
+     * Plays a range of matches, splitting it in halves until it is small enough.
+     */
+    private final class MatchBatch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<Match> matches;
+        private final int from;
+        private final int to;
+
+        MatchBatch(final List<Match> matches, final int from, final int to) {
+            this.matches = matches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    play(matches.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MatchBatch(matches, from, middle), new MatchBatch(matches, middle, to));
+        }
+    }
+
+    /**
+     * Runs a tournament from the command line.
+     * Usage: input.json round_robin|swiss policy1,policy2,... [seeds] [swissRounds]
+     *
+     * @param args the command line arguments
+     * @throws IOException if the input cannot be read
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length <= ARG_POLICIES) {
+            System.err.println("Usage: TournamentRunner <input.json> <round_robin|swiss>"
+                    + " <policy,policy,...> [seeds] [swissRounds]");
+            return;
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        InputCopy inputData = new InputCopy(objectMapper.readValue(new File(args[0]),
+                Input.class));
+
+        TournamentConfig.Format format =
+                TournamentConfig.Format.valueOf(args[ARG_FORMAT].toUpperCase());
+        List<Entrant> entrants = new ArrayList<>();
+        String[] policies = args[ARG_POLICIES].split(",");
+        for (int i = 0; i < policies.length; i++) {
+            entrants.add(new Entrant(policies[i] + "#" + (i + 1), Policies.byName(policies[i])));
+        }
+        int seeds = args.length > ARG_SEEDS ? Integer.parseInt(args[ARG_SEEDS]) : DEFAULT_SEEDS;
+        int swissRounds = args.length > ARG_SWISS_ROUNDS
+                ? Integer.parseInt(args[ARG_SWISS_ROUNDS]) : DEFAULT_SWISS_ROUNDS;
+
+        TournamentConfig config = new TournamentConfig(format, swissRounds, seeds, 0,
+                DEFAULT_MAX_ROUNDS, Runtime.getRuntime().availableProcessors(),
+                DEFAULT_K_FACTOR);
+        TournamentRunner runner = new TournamentRunner(inputData, entrants, config);
+        MetricsServer metricsServer = MetricsServer.startFromProperties();
+
+        long start = System.nanoTime();
+        runner.run();
+        double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+        System.out.print(runner.formatTable());
+        System.out.printf("%d games in %.2f s (%.0f games/s), %.1f ms CPU%n",
+                runner.getGamesPlayed(), seconds, runner.getGamesPlayed() / seconds,
+                runner.getTotalCpuNanos() / NANOS_PER_MILLI);
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+    }
+}
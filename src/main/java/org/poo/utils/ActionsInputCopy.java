@@ -40,6 +40,33 @@ public class ActionsInputCopy {
         this.y = original.getY();
     }
 
+    /**
+     * Constructs an ActionsInputCopy directly from its fields, for actions that are
+     * produced by the engine itself instead of being read from an input file.
+     *
+     * @param command      the command of the action
+     * @param handIdx      the hand index
+     * @param cardAttacker the coordinates of the attacking card
+     * @param cardAttacked the coordinates of the attacked card
+     * @param affectedRow  the affected row
+     * @param playerIdx    the player index
+     * @param x            the x-coordinate
+     * @param y            the y-coordinate
+     */
+    public ActionsInputCopy(final String command, final int handIdx,
+                            final Coordinates cardAttacker, final Coordinates cardAttacked,
+                            final int affectedRow, final int playerIdx,
+                            final int x, final int y) {
+        this.command = command;
+        this.handIdx = handIdx;
+        this.cardAttacker = cardAttacker;
+        this.cardAttacked = cardAttacked;
+        this.affectedRow = affectedRow;
+        this.playerIdx = playerIdx;
+        this.x = x;
+        this.y = y;
+    }
+
     /**
      * Gets the command of the action.
      *
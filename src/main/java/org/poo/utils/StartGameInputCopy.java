@@ -27,6 +27,28 @@ public final class StartGameInputCopy {
         this.startingPlayer = original.getStartingPlayer();
     }
 
+    /**
+     * Constructs a StartGameInputCopy directly from its fields, for games that are
+     * scheduled by the engine itself instead of being read from an input file.
+     *
+     * @param playerOneDeckIdx the index of player one's deck
+     * @param playerTwoDeckIdx the index of player two's deck
+     * @param shuffleSeed      the shuffle seed
+     * @param playerOneHero    the hero card of player one
+     * @param playerTwoHero    the hero card of player two
+     * @param startingPlayer   the starting player index
+     */
+    public StartGameInputCopy(final int playerOneDeckIdx, final int playerTwoDeckIdx,
+                              final int shuffleSeed, final CardInputCopy playerOneHero,
+                              final CardInputCopy playerTwoHero, final int startingPlayer) {
+        this.playerOneDeckIdx = playerOneDeckIdx;
+        this.playerTwoDeckIdx = playerTwoDeckIdx;
+        this.shuffleSeed = shuffleSeed;
+        this.playerOneHero = playerOneHero;
+        this.playerTwoHero = playerTwoHero;
+        this.startingPlayer = startingPlayer;
+    }
+
     /**
      * Gets the deck index of player one.
      *